@@ -17,6 +17,7 @@ public class CorsConfig {
                         .allowedOrigins("${FRONTEND_URL:http://localhost:4200}")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Next-Cursor", "X-Total-Count", "ETag")
                         .allowCredentials(true);
             }
         };
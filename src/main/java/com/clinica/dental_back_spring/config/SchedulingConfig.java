@@ -0,0 +1,12 @@
+package com.clinica.dental_back_spring.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas periódicas ({@code @Scheduled}), p. ej. el relay del outbox de citas.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
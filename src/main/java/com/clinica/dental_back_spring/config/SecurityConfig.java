@@ -1,6 +1,7 @@
 package com.clinica.dental_back_spring.config;
 
 import com.clinica.dental_back_spring.security.JwtFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,6 +36,9 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                       //  .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // ↩️ Respuestas asíncronas (Mono/Flux, streaming): la petición original ya se autorizó
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 🔓 Endpoints públicos (sin token)
                         .requestMatchers(
                                 "/auth/**",
@@ -48,6 +52,9 @@ public class SecurityConfig {
                         // 👥 Gestión de usuarios (solo ADMIN)
                         .requestMatchers("/users/**").hasRole("ADMIN")
 
+                        // 📆 Agenda diaria (ADMIN y DENTISTA)
+                        .requestMatchers(HttpMethod.GET, "/professionals/*/agenda").hasAnyRole("ADMIN", "DENTISTA")
+
                         // 👨‍⚕️ Profesionales (solo ADMIN)
                         .requestMatchers("/professionals/**").hasRole("ADMIN")
 
@@ -57,12 +64,18 @@ public class SecurityConfig {
                         // 👥 Pacientes (ADMIN y DENTISTA)
                         .requestMatchers("/patients/**").hasAnyRole("ADMIN", "DENTISTA")
 
+                        // 📤 Exportación de citas (solo ADMIN)
+                        .requestMatchers("/appointments/export").hasRole("ADMIN")
+
                         // 📅 Citas (todos los roles principales)
                         .requestMatchers("/appointments/**").hasAnyRole("ADMIN", "DENTISTA", "PACIENTE")
 
                         // 🕒 Disponibilidades (ADMIN y DENTISTA)
                         .requestMatchers("/availabilities/**").hasAnyRole("ADMIN", "DENTISTA")
 
+                        // 📊 Analítica de la clínica (solo ADMIN)
+                        .requestMatchers("/analytics/**").hasRole("ADMIN")
+
                         // ⏰ Slots (solo ADMIN)
                         .requestMatchers("/slots/**").hasRole("ADMIN")
 
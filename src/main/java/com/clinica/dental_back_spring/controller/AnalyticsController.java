@@ -0,0 +1,93 @@
+package com.clinica.dental_back_spring.controller;
+
+import com.clinica.dental_back_spring.service.ClinicAnalytics;
+import com.clinica.dental_back_spring.service.EntityCacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+@SecurityRequirement(name = "bearerAuth")
+@RestController
+@RequestMapping("/analytics")
+@Tag(name = "Analítica", description = "Ocupación, cancelaciones e ingresos de la clínica")
+public class AnalyticsController {
+
+    private final ClinicAnalytics clinicAnalytics;
+    private final EntityCacheStats entityCacheStats;
+
+    public AnalyticsController(ClinicAnalytics clinicAnalytics, EntityCacheStats entityCacheStats) {
+        this.clinicAnalytics = clinicAnalytics;
+        this.entityCacheStats = entityCacheStats;
+    }
+
+    // ==========================================================
+    // 🔹 GET /analytics/summary?from=&to=&professionalId=
+    // ==========================================================
+    @Operation(summary = "Resumen de ocupación e ingresos",
+            description = "Disponibilidades y citas por estado, ocupación, tasa de cancelación e ingresos previstos y realizados. "
+                    + "Sin fechas, devuelve el mes actual; sin professionalId, toda la clínica.")
+    @ApiResponse(responseCode = "200", description = "Resumen calculado correctamente")
+    @ApiResponse(responseCode = "400", description = "Rango de fechas no válido", content = @Content)
+    @GetMapping("/summary")
+    public ResponseEntity<?> summary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long professionalId
+    ) {
+        try {
+            return ResponseEntity.ok(clinicAnalytics.summary(start(from), end(from, to), professionalId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // ==========================================================
+    // 🔹 GET /analytics/treatments?from=&to=&professionalId=
+    // ==========================================================
+    @Operation(summary = "Citas e ingresos por tratamiento",
+            description = "Desglose por tratamiento del mismo rango que /analytics/summary.")
+    @ApiResponse(responseCode = "200", description = "Desglose calculado correctamente")
+    @ApiResponse(responseCode = "400", description = "Rango de fechas no válido", content = @Content)
+    @GetMapping("/treatments")
+    public ResponseEntity<?> byTreatment(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long professionalId
+    ) {
+        try {
+            return ResponseEntity.ok(clinicAnalytics.byTreatment(start(from), end(from, to), professionalId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // ==========================================================
+    // 🔹 GET /analytics/entity-cache → Métricas de la caché de segundo nivel
+    // ==========================================================
+    @Operation(summary = "Métricas de la caché de segundo nivel",
+            description = "Aciertos, fallos y escrituras por región (tratamientos, slots, profesionales) "
+                    + "y de la caché de id natural, desde el arranque. Requiere HIBERNATE_STATISTICS=true; "
+                    + "si no, statisticsEnabled es false y los contadores quedan a cero.")
+    @GetMapping("/entity-cache")
+    public ResponseEntity<Map<String, Object>> entityCache() {
+        return ResponseEntity.ok(entityCacheStats.stats());
+    }
+
+    // Por defecto, el mes de 'from' (o el actual)
+    private static LocalDate start(LocalDate from) {
+        return (from != null) ? from : YearMonth.now().atDay(1);
+    }
+
+    private static LocalDate end(LocalDate from, LocalDate to) {
+        return (to != null) ? to : YearMonth.from(start(from)).atEndOfMonth();
+    }
+}
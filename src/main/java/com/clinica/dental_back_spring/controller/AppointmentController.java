@@ -1,9 +1,12 @@
 package com.clinica.dental_back_spring.controller;
 
 import com.clinica.dental_back_spring.dto.AppointmentDTO;
+import com.clinica.dental_back_spring.dto.AppointmentPage;
 import com.clinica.dental_back_spring.dto.CreateAppointmentRequest;
 import com.clinica.dental_back_spring.dto.UpdateAppointmentRequest;
 import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.ExportFormat;
+import com.clinica.dental_back_spring.service.AppointmentExportService;
 import com.clinica.dental_back_spring.service.AppointmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,9 +14,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,10 +33,14 @@ import java.util.Map;
 @Tag(name = "Citas", description = "Gestión de citas de pacientes y profesionales")
 public class AppointmentController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final AppointmentService appointmentService;
+    private final AppointmentExportService exportService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, AppointmentExportService exportService) {
         this.appointmentService = appointmentService;
+        this.exportService = exportService;
     }
 
     // ==========================================================
@@ -46,21 +60,83 @@ public class AppointmentController {
     }
 
     // ==========================================================
-    // 👤 GET /appointments/by-patient/:id
+    // 👤 GET /appointments/by-patient/:id?from=&to=&cursor=&size=
     // ==========================================================
-    @Operation(summary = "Listar citas por paciente")
+    @Operation(summary = "Listar citas por paciente",
+            description = "Paginado por cursor (keyset). El cursor de la página siguiente llega en la cabecera X-Next-Cursor.")
     @GetMapping("/by-patient/{patientId}")
-    public ResponseEntity<List<AppointmentDTO>> getByPatient(@PathVariable Long patientId) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsByPatient(patientId));
+    public ResponseEntity<?> getByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            return toResponse(appointmentService.getAppointmentsByPatient(patientId, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     // ==========================================================
-    // 👨‍⚕️ GET /appointments/by-professional/:id
+    // 👨‍⚕️ GET /appointments/by-professional/:id?from=&to=&cursor=&size=
     // ==========================================================
-    @Operation(summary = "Listar citas por profesional")
+    @Operation(summary = "Listar citas por profesional",
+            description = "Paginado por cursor (keyset). El cursor de la página siguiente llega en la cabecera X-Next-Cursor.")
     @GetMapping("/by-professional/{professionalId}")
-    public ResponseEntity<List<AppointmentDTO>> getByProfessional(@PathVariable Long professionalId) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsByProfessional(professionalId));
+    public ResponseEntity<?> getByProfessional(
+            @PathVariable Long professionalId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            return toResponse(appointmentService.getAppointmentsByProfessional(professionalId, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // ==========================================================
+    // 📤 GET /appointments/export?from=&to=&professionalId=&format=csv|ndjson
+    // ==========================================================
+    @Operation(summary = "Exportar citas",
+            description = "Descarga en streaming (CSV o NDJSON) las citas entre dos fechas, opcionalmente de un profesional.")
+    @ApiResponse(responseCode = "200", description = "Exportación en curso")
+    @ApiResponse(responseCode = "400", description = "Parámetros no válidos", content = @Content)
+    @GetMapping("/export")
+    public ResponseEntity<?> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long professionalId,
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+            AppointmentExportService.validate(from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> exportService.export(from, to, professionalId, exportFormat, out);
+        String filename = "citas_" + from + "_" + to + "." + exportFormat.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getContentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // El cuerpo sigue siendo la lista de citas; el cursor va en cabecera
+    private ResponseEntity<List<AppointmentDTO>> toResponse(AppointmentPage page) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return ok.body(page.getItems());
     }
 
     // ==========================================================
@@ -75,6 +151,8 @@ public class AppointmentController {
         try {
             AppointmentDTO updated = appointmentService.updateStatus(appointmentId, req.getStatus());
             return ResponseEntity.ok(updated);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
@@ -1,7 +1,10 @@
 package com.clinica.dental_back_spring.controller;
 
+import com.clinica.dental_back_spring.dto.AvailabilityBulkResultDTO;
 import com.clinica.dental_back_spring.dto.AvailabilityDTO;
+import com.clinica.dental_back_spring.dto.CreateAvailabilityBulkRequest;
 import com.clinica.dental_back_spring.dto.CreateAvailabilityRequest;
+import com.clinica.dental_back_spring.dto.FreeSlotDTO;
 import com.clinica.dental_back_spring.dto.UpdateAvailabilityRequest;
 import com.clinica.dental_back_spring.service.AvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -47,6 +52,29 @@ public class AvailabilityController {
         return ResponseEntity.ok(availabilityService.findAll());
     }
 
+    // ==========================================================
+    // 🔹 GET /availabilities/search?treatmentId=&from=&to=&professionalId=&limit=
+    // ==========================================================
+    @Operation(summary = "Buscar huecos libres",
+            description = "Devuelve los primeros huecos (slots consecutivos libres) con duración suficiente para el tratamiento, ordenados por día y hora. Por defecto busca en los próximos 14 días.")
+    @ApiResponse(responseCode = "200", description = "Huecos encontrados")
+    @ApiResponse(responseCode = "400", description = "Parámetros no válidos", content = @Content)
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam Long treatmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long professionalId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            List<FreeSlotDTO> result = availabilityService.searchFreeSlots(treatmentId, from, to, professionalId, limit);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ==========================================================
     // 🔹 GET /availabilities/:id
     // ==========================================================
@@ -79,6 +107,26 @@ public class AvailabilityController {
         }
     }
 
+    // ==========================================================
+    // 🔹 POST /availabilities/bulk
+    // ==========================================================
+    @Operation(summary = "Generar disponibilidades en bloque",
+            description = "Crea disponibilidades LIBRE para varios profesionales en un rango de fechas, por días de la semana y periodo/slots. Omite las que ya existen.")
+    @ApiResponse(responseCode = "201", description = "Disponibilidades generadas")
+    @ApiResponse(responseCode = "400", description = "Error en los datos", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Conflicto con disponibilidades creadas en paralelo", content = @Content)
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createBulk(@Valid @RequestBody CreateAvailabilityBulkRequest req) {
+        try {
+            AvailabilityBulkResultDTO result = availabilityService.createBulk(req);
+            return ResponseEntity.status(201).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body(Map.of("message", "Otra operación ha creado disponibilidades en el mismo rango; vuelva a intentarlo"));
+        }
+    }
+
     // ==========================================================
     // 🔹 PUT /availabilities/:id
     // ==========================================================
@@ -2,7 +2,9 @@ package com.clinica.dental_back_spring.controller;
 
 import com.clinica.dental_back_spring.dto.CreatePatientRequest;
 import com.clinica.dental_back_spring.dto.PatientDTO;
+import com.clinica.dental_back_spring.dto.PatientPage;
 import com.clinica.dental_back_spring.dto.UpdatePatientRequest;
+import com.clinica.dental_back_spring.mongo.BirthDateHydrator;
 import com.clinica.dental_back_spring.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,21 +24,59 @@ import java.util.Map;
 @Tag(name = "Pacientes", description = "Gestión de pacientes de la clínica")
 public class PatientController {
 
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final PatientService patientService;
+    private final BirthDateHydrator birthDateHydrator;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, BirthDateHydrator birthDateHydrator) {
         this.patientService = patientService;
+        this.birthDateHydrator = birthDateHydrator;
     }
 
     // ==========================================================
-    // 🔹 GET /patients?query=
+    // 🔹 GET /patients?query=&page=&size=
     // ==========================================================
-    @Operation(summary = "Listar pacientes", description = "Devuelve todos los pacientes o filtra por nombre o NIF.")
+    @Operation(summary = "Listar pacientes",
+            description = "Devuelve todos los pacientes o, con query, los pacientes activos cuyo nombre, apellidos o NIF coinciden, "
+                    + "ordenados por relevancia y paginados. El total de coincidencias llega en la cabecera X-Total-Count.")
     @ApiResponse(responseCode = "200", description = "Lista obtenida correctamente")
     @GetMapping
-    public ResponseEntity<List<PatientDTO>> list(@RequestParam(required = false) String query) {
-        List<PatientDTO> patients = patientService.findAll(query);
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<List<PatientDTO>> list(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.ok(patientService.findAll());
+        }
+        PatientPage result = patientService.search(query, page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotal()))
+                .body(result.getItems());
+    }
+
+    // ==========================================================
+    // 🔹 GET /patients/birthdates?query=&page=&size=
+    // ==========================================================
+    @Operation(summary = "Buscar pacientes con fecha de nacimiento",
+            description = "Misma búsqueda paginada que GET /patients, con la fecha de nacimiento de MongoDB "
+                    + "del usuario que comparte email con cada paciente.")
+    @ApiResponse(responseCode = "200", description = "Lista obtenida correctamente")
+    @ApiResponse(responseCode = "400", description = "Falta la búsqueda", content = @Content)
+    @GetMapping("/birthdates")
+    public ResponseEntity<?> listWithBirthDates(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "La búsqueda es obligatoria"));
+        }
+        PatientPage result = patientService.search(query, page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotal()))
+                .body(birthDateHydrator.hydratePatients(result.getItems()));
     }
 
     // ==========================================================
@@ -1,8 +1,10 @@
 package com.clinica.dental_back_spring.controller;
 
+import com.clinica.dental_back_spring.dto.AgendaDTO;
 import com.clinica.dental_back_spring.dto.CreateProfessionalRequest;
 import com.clinica.dental_back_spring.dto.ProfessionalDTO;
 import com.clinica.dental_back_spring.dto.UpdateProfessionalRequest;
+import com.clinica.dental_back_spring.service.AgendaService;
 import com.clinica.dental_back_spring.service.ProfessionalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,9 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,20 +27,26 @@ import java.util.Map;
 public class ProfessionalController {
 
     private final ProfessionalService professionalService;
+    private final AgendaService agendaService;
 
-    public ProfessionalController(ProfessionalService professionalService) {
+    public ProfessionalController(ProfessionalService professionalService, AgendaService agendaService) {
         this.professionalService = professionalService;
+        this.agendaService = agendaService;
     }
 
     // ==========================================================
     // 🔹 GET /professionals → Listar o buscar
     // ==========================================================
     @Operation(summary = "Listar profesionales",
-            description = "Devuelve todos los profesionales o filtra por nombre, apellido o licencia.")
+            description = "Devuelve los profesionales ordenados por apellidos o filtra por el comienzo del nombre, apellido, licencia, email, NIF o teléfono. "
+                    + "active=true/false limita a activos o inactivos; sin él se listan todos y se buscan solo los activos.")
     @ApiResponse(responseCode = "200", description = "Listado obtenido correctamente")
     @GetMapping
-    public ResponseEntity<List<ProfessionalDTO>> list(@RequestParam(required = false) String query) {
-        return ResponseEntity.ok(professionalService.findAll(query));
+    public ResponseEntity<List<ProfessionalDTO>> list(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Boolean active
+    ) {
+        return ResponseEntity.ok(professionalService.findAll(query, active));
     }
 
     // ==========================================================
@@ -54,6 +64,26 @@ public class ProfessionalController {
         }
     }
 
+    // ==========================================================
+    // 🔹 GET /professionals/:id/agenda?date= → Agenda del día
+    // ==========================================================
+    @Operation(summary = "Agenda diaria del profesional",
+            description = "Slots del día con su disponibilidad y la cita (paciente y tratamiento) si la hay. Sin fecha, devuelve la de hoy.")
+    @ApiResponse(responseCode = "200", description = "Agenda obtenida correctamente")
+    @ApiResponse(responseCode = "404", description = "Profesional no encontrado", content = @Content)
+    @GetMapping("/{id}/agenda")
+    public ResponseEntity<?> getAgenda(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        try {
+            AgendaDTO agenda = agendaService.getAgenda(id, date != null ? date : LocalDate.now());
+            return ResponseEntity.ok(agenda);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ==========================================================
     // 🔹 POST /professionals → Crear profesional + usuario
     // ==========================================================
@@ -0,0 +1,47 @@
+package com.clinica.dental_back_spring.controller;
+
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.service.SlotCatalog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@SecurityRequirement(name = "bearerAuth")
+@RestController
+@RequestMapping("/slots")
+@Tag(name = "Slots", description = "Catálogo de franjas horarias")
+public class SlotController {
+
+    private final SlotCatalog slotCatalog;
+
+    public SlotController(SlotCatalog slotCatalog) {
+        this.slotCatalog = slotCatalog;
+    }
+
+    // ==========================================================
+    // 🔹 GET /slots?period=
+    // ==========================================================
+    @Operation(summary = "Listar slots", description = "Devuelve el catálogo de slots (en memoria), opcionalmente filtrado por periodo.")
+    @ApiResponse(responseCode = "200", description = "Listado obtenido correctamente")
+    @GetMapping
+    public ResponseEntity<List<SlotCatalog.SlotInfo>> list(@RequestParam(required = false) Period period) {
+        return ResponseEntity.ok(period == null ? slotCatalog.all() : slotCatalog.byPeriod(period));
+    }
+
+    // ==========================================================
+    // 🔹 POST /slots/refresh
+    // ==========================================================
+    @Operation(summary = "Recargar catálogo de slots", description = "Vuelve a leer la tabla slots tras cambiarla por SQL directo; los cambios con JPA ya recargan solos.")
+    @ApiResponse(responseCode = "200", description = "Catálogo recargado")
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        slotCatalog.refresh();
+        return ResponseEntity.ok(Map.of("message", "Catálogo recargado", "slots", slotCatalog.all().size()));
+    }
+}
@@ -3,6 +3,7 @@ package com.clinica.dental_back_spring.controller;
 import com.clinica.dental_back_spring.dto.CreateTreatmentRequest;
 import com.clinica.dental_back_spring.dto.TreatmentDTO;
 import com.clinica.dental_back_spring.dto.UpdateTreatmentRequest;
+import com.clinica.dental_back_spring.service.TreatmentCatalog;
 import com.clinica.dental_back_spring.service.TreatmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,8 +11,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -31,15 +35,30 @@ public class TreatmentController {
     // ==========================================================
     // 🔹 GET /treatments?query=&visibleOnly=true
     // ==========================================================
-    @Operation(summary = "Listar tratamientos", description = "Devuelve todos los tratamientos o filtra por nombre/tipo y visibilidad.")
+    @Operation(summary = "Listar tratamientos",
+            description = "Devuelve todos los tratamientos o filtra por nombre y visibilidad. Incluye ETag y responde 304 si coincide con If-None-Match.")
     @ApiResponse(responseCode = "200", description = "Listado obtenido correctamente")
+    @ApiResponse(responseCode = "304", description = "El listado no ha cambiado", content = @Content)
     @GetMapping
     public ResponseEntity<List<TreatmentDTO>> list(
             @RequestParam(required = false) String query,
-            @RequestParam(required = false, defaultValue = "false") boolean visibleOnly
+            @RequestParam(required = false, defaultValue = "false") boolean visibleOnly,
+            WebRequest request
     ) {
-        List<TreatmentDTO> treatments = treatmentService.findAll(query, visibleOnly);
-        return ResponseEntity.ok(treatments);
+        TreatmentCatalog.View view = treatmentService.findAll(query, visibleOnly);
+        // Autenticado: solo cachés privadas, y siempre revalidando con el ETag
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (request.checkNotModified(view.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(view.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(view.etag())
+                .cacheControl(cacheControl)
+                .body(view.items());
     }
 
     // ==========================================================
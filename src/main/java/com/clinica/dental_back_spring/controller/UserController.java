@@ -3,7 +3,9 @@ package com.clinica.dental_back_spring.controller;
 import com.clinica.dental_back_spring.dto.UserDTO;
 import com.clinica.dental_back_spring.entity.User;
 import com.clinica.dental_back_spring.enums.Role;
+import com.clinica.dental_back_spring.mongo.BirthDateHydrator;
 import com.clinica.dental_back_spring.repository.UserRepository;
+import com.clinica.dental_back_spring.security.PrincipalCache;
 import com.clinica.dental_back_spring.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -28,9 +30,13 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final PrincipalCache principalCache;
+    private final BirthDateHydrator birthDateHydrator;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, PrincipalCache principalCache, BirthDateHydrator birthDateHydrator) {
         this.userService = userService;
+        this.principalCache = principalCache;
+        this.birthDateHydrator = birthDateHydrator;
     }
 
     // ==========================================================
@@ -42,6 +48,20 @@ public class UserController {
         return ResponseEntity.ok(userService.findAll());
     }
 
+    // ==========================================================
+    // 🔹 GET /users/birthdates?ids= → Usuarios con su fecha de nacimiento
+    // ==========================================================
+    @GetMapping("/birthdates")
+    @Operation(summary = "Usuarios con fecha de nacimiento",
+            description = "Une los usuarios de MySQL con sus fechas de MongoDB: dos consultas en paralelo por página.")
+    public ResponseEntity<?> getUsersWithBirthDates(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(birthDateHydrator.hydrateUsers(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ==========================================================
     // 🔹 GET /users/:id → Obtener un usuario
     // ==========================================================
@@ -102,6 +122,15 @@ public class UserController {
         }
     }
 
+    // ==========================================================
+    // 🔹 GET /users/principal-cache → Métricas de la caché JWT
+    // ==========================================================
+    @GetMapping("/principal-cache")
+    @Operation(summary = "Métricas de la caché de usuarios autenticados (aciertos/fallos)")
+    public ResponseEntity<Map<String, Object>> principalCacheStats() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
     // ==========================================================
     // DTOs internos
     // ==========================================================
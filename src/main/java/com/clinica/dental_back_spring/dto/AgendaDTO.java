@@ -0,0 +1,24 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Schema(description = "Agenda de un profesional para un día, ordenada por hora")
+public class AgendaDTO {
+
+    @Schema(description = "ID del profesional", example = "2")
+    private Long professionalId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    @Schema(description = "Día de la agenda", example = "2025-11-10")
+    private LocalDate date;
+
+    private List<AgendaEntryDTO> entries;
+}
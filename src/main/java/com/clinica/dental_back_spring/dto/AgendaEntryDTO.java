@@ -0,0 +1,40 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalTime;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tramo de la agenda diaria: slot, disponibilidad y cita (si la hay)")
+public class AgendaEntryDTO {
+
+    @Schema(description = "ID del slot", example = "3")
+    private Long slotId;
+
+    @JsonFormat(pattern = "HH:mm")
+    @Schema(description = "Hora de inicio", example = "09:00")
+    private LocalTime startTime;
+
+    @JsonFormat(pattern = "HH:mm")
+    @Schema(description = "Hora de fin", example = "09:30")
+    private LocalTime endTime;
+
+    @Schema(description = "Periodo del día", example = "MANANA")
+    private Period period;
+
+    @Schema(description = "ID de la disponibilidad (null si no hay)", example = "120")
+    private Long availabilityId;
+
+    @Schema(description = "Estado de la disponibilidad (null si no hay)", example = "RESERVADO")
+    private StatusAvailability availabilityStatus;
+
+    @Schema(description = "Cita no cancelada en ese slot, con paciente y tratamiento")
+    private AppointmentDTO appointment;
+}
@@ -0,0 +1,46 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ocupación, citas e ingresos de un rango de días")
+public class AnalyticsSummaryDTO {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    @Schema(description = "Primer día del rango", example = "2025-11-01")
+    private LocalDate from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    @Schema(description = "Último día del rango (incluido)", example = "2025-11-30")
+    private LocalDate to;
+
+    @Schema(description = "Profesional (null = toda la clínica)", example = "2")
+    private Long professionalId;
+
+    @Schema(description = "Disponibilidades por estado", example = "{\"libre\": 120, \"reservado\": 80, \"no disponible\": 4}")
+    private Map<String, Long> availabilityByStatus;
+
+    @Schema(description = "Reservadas / (libres + reservadas)", example = "0.4")
+    private double utilisation;
+
+    @Schema(description = "Citas por estado", example = "{\"pendiente\": 10, \"confirmada\": 50, \"cancelada\": 6, \"realizada\": 14}")
+    private Map<String, Long> appointmentsByStatus;
+
+    @Schema(description = "Canceladas / total de citas", example = "0.075")
+    private double cancellationRate;
+
+    @Schema(description = "Ingresos previstos: citas no canceladas por el precio actual del tratamiento", example = "5400.00")
+    private BigDecimal expectedRevenue;
+
+    @Schema(description = "Ingresos de citas realizadas", example = "1260.00")
+    private BigDecimal realizedRevenue;
+}
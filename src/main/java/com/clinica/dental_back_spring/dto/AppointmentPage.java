@@ -0,0 +1,18 @@
+package com.clinica.dental_back_spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página de citas (keyset). {@code nextCursor} es null cuando no hay más resultados.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentPage {
+
+    private List<AppointmentDTO> items;
+
+    private String nextCursor;
+}
@@ -0,0 +1,34 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de una cita con los datos mínimos de paciente, profesional y tratamiento,
+ * obtenida en una sola consulta con JOIN (ver {@code AppointmentRepository}).
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentRow {
+
+    private Long id;
+    private LocalDateTime date;
+    private Integer duration;
+    private AppointmentStatus status;
+    private CreatedBy createdBy;
+
+    private Long patientId;
+    private String patientFirstName;
+    private String patientLastName;
+
+    private Long professionalId;
+    private String professionalName;
+    private String professionalLastName;
+
+    private Long treatmentId;
+    private String treatmentName;
+}
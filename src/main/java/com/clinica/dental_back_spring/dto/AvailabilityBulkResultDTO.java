@@ -0,0 +1,30 @@
+package com.clinica.dental_back_spring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de la generación masiva de disponibilidades")
+public class AvailabilityBulkResultDTO {
+
+    @Schema(description = "Combinaciones profesional/día/slot solicitadas", example = "1950")
+    private int requested;
+
+    @Schema(description = "Disponibilidades creadas", example = "1800")
+    private int created;
+
+    @Schema(description = "Omitidas porque ya existían", example = "150")
+    private int skipped;
+
+    @Schema(description = "Tiempo total en milisegundos", example = "420")
+    private long elapsedMs;
+
+    @Schema(description = "Filas insertadas por segundo", example = "4285.7")
+    private double rowsPerSecond;
+}
@@ -1,10 +1,13 @@
 package com.clinica.dental_back_spring.dto;
 
 import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
+import java.time.LocalDate;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,6 +20,11 @@ public class CreateAppointmentRequest {
     @Schema(description="Identificador del slot de tiempo", example = "3")
     private Long slotId;
 
+    @NotNull(message="La fecha es obligatoria")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Día de la cita (junto con profesional y slot identifica la disponibilidad)", example = "2025-11-10")
+    private LocalDate date;
+
     @NotNull(message="El ID del paciente es obligatorio")
     @Schema(description="Identificador del paciente", example = "5")
     private Long patientId;
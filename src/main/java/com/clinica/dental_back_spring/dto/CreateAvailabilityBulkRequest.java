@@ -0,0 +1,46 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.clinica.dental_back_spring.enums.Period;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Petición de generación masiva de disponibilidades (profesionales x días x slots)")
+public class CreateAvailabilityBulkRequest {
+
+    @NotEmpty(message = "Debe indicar al menos un profesional")
+    @Schema(description = "IDs de los profesionales", example = "[1, 2, 3]")
+    private Set<Long> professionalIds;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Primer día (incluido)", example = "2025-11-01")
+    private LocalDate from;
+
+    @NotNull(message = "La fecha de fin es obligatoria")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Último día (incluido)", example = "2026-01-31")
+    private LocalDate to;
+
+    @Schema(description = "Días de la semana; si se omite, de lunes a viernes", example = "[\"MONDAY\", \"WEDNESDAY\"]")
+    private Set<DayOfWeek> weekdays;
+
+    @Schema(description = "Periodo (MANANA o TARDE); si se omite junto con slotIds, todos los slots", example = "MANANA")
+    private Period period;
+
+    @Schema(description = "IDs de slots concretos; tienen prioridad sobre period", example = "[1, 2, 3]")
+    private Set<Long> slotIds;
+}
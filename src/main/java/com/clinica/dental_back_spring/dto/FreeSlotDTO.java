@@ -0,0 +1,39 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Hueco libre (uno o varios slots consecutivos) que cubre la duración de un tratamiento")
+public class FreeSlotDTO {
+
+    @Schema(description = "ID del profesional", example = "3")
+    private Long professionalId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Día del hueco", example = "2025-11-10")
+    private LocalDate date;
+
+    @Schema(description = "Slot inicial (el que se usa para reservar)", example = "3")
+    private Long slotId;
+
+    @Schema(description = "Slots consecutivos que ocupa el tratamiento", example = "[3, 4]")
+    private List<Long> slotIds;
+
+    @Schema(description = "Hora de inicio", example = "09:00")
+    private LocalTime startTime;
+
+    @Schema(description = "Hora de fin", example = "10:00")
+    private LocalTime endTime;
+}
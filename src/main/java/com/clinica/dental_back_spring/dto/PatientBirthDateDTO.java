@@ -0,0 +1,27 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Paciente con la fecha de nacimiento de su usuario (enlazados por email)")
+public class PatientBirthDateDTO {
+
+    @JsonUnwrapped
+    private PatientDTO patient;
+
+    @Schema(description = "ID del usuario con el mismo email; null si el paciente no tiene usuario", example = "42")
+    private Long userId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Fecha de nacimiento; null si no está registrada", example = "1990-05-17")
+    private LocalDate birthDate;
+}
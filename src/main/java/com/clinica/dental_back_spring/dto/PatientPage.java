@@ -0,0 +1,18 @@
+package com.clinica.dental_back_spring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda de pacientes, ordenada por relevancia.
+ */
+@Getter
+@AllArgsConstructor
+public class PatientPage {
+
+    private List<PatientDTO> items;
+
+    private long total;
+}
@@ -0,0 +1,30 @@
+package com.clinica.dental_back_spring.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Citas e ingresos de un tratamiento en un rango de días")
+public class TreatmentAnalyticsDTO {
+
+    @Schema(description = "ID del tratamiento", example = "3")
+    private Long treatmentId;
+
+    @Schema(description = "Nombre del tratamiento", example = "Limpieza")
+    private String treatmentName;
+
+    @Schema(description = "Citas por estado", example = "{\"pendiente\": 2, \"confirmada\": 8, \"cancelada\": 1, \"realizada\": 4}")
+    private Map<String, Long> appointmentsByStatus;
+
+    @Schema(description = "Ingresos previstos (citas no canceladas)", example = "560.00")
+    private BigDecimal expectedRevenue;
+
+    @Schema(description = "Ingresos de citas realizadas", example = "160.00")
+    private BigDecimal realizedRevenue;
+}
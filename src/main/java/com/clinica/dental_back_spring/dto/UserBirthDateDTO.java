@@ -0,0 +1,24 @@
+package com.clinica.dental_back_spring.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Usuario (MySQL) con su fecha de nacimiento (MongoDB)")
+public class UserBirthDateDTO {
+
+    @JsonUnwrapped
+    private UserDTO user;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Fecha de nacimiento; null si no está registrada", example = "1990-05-17")
+    private LocalDate birthDate;
+}
@@ -8,7 +8,13 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Paginación keyset de los listados por profesional / paciente
+        @Index(name = "idx_appointments_professional_date", columnList = "professional_id, date_appointments, id_appointments"),
+        @Index(name = "idx_appointments_patient_date", columnList = "patient_id, date_appointments, id_appointments"),
+        // Carga de recordatorios tras un arranque: rango de fechas + estado
+        @Index(name = "idx_appointments_date_status", columnList = "date_appointments, status_appointments")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +31,11 @@ public class Appointment {
     @JoinColumn(name = "slot_id")
     private Slot slot;
 
+    // Disponibilidad reservada por la cita (profesional + día + slot)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "availability_id")
+    private Availability availability;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id")
     private Patient patient;
@@ -53,5 +64,12 @@ public class Appointment {
     @Enumerated(EnumType.STRING)
     @Column(name = "created_by_appointments")
     private CreatedBy createdBy;
+
+    // Recordatorios ya enviados: el nodo que los marca es el único que los envía
+    @Column(name = "day_reminder_sent_appointments")
+    private LocalDateTime dayReminderSentAt;
+
+    @Column(name = "two_hours_reminder_sent_appointments")
+    private LocalDateTime twoHoursReminderSentAt;
 }
 
@@ -0,0 +1,62 @@
+package com.clinica.dental_back_spring.entity;
+
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.service.AppointmentEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Evento de cita pendiente de repartir (patrón outbox). Se inserta en la misma transacción
+ * que el cambio de la cita y se borra cuando el relay lo ha entregado.
+ */
+@Entity
+@Table(name = "appointment_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_appointment_outbox")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_appointment_outbox", nullable = false)
+    private AppointmentEvent.Type type;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "professional_id")
+    private Long professionalId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @Column(name = "treatment_id")
+    private Long treatmentId;
+
+    @Column(name = "date_appointments")
+    private LocalDateTime appointmentDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status_appointment_outbox")
+    private AppointmentStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_appointment_outbox")
+    private AppointmentStatus status;
+
+    @Column(name = "occurred_at_appointment_outbox", nullable = false)
+    private Instant occurredAt;
+
+    // Reclamada por un relay hasta este instante; null o vencida → libre para cualquiera
+    @Column(name = "claimed_until_appointment_outbox")
+    private Instant claimedUntil;
+}
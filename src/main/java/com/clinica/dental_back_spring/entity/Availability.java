@@ -8,7 +8,11 @@ import java.time.LocalDate;
 
 
 @Entity
-@Table(name = "professional_availabilities")
+@Table(name = "professional_availabilities", uniqueConstraints = {
+        // Una disponibilidad por profesional + día + slot; también sirve de índice de búsqueda
+        @UniqueConstraint(name = "uk_availability_professional_date_slot",
+                columnNames = {"professional_id", "date_availability", "id_slots"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -3,11 +3,18 @@ package com.clinica.dental_back_spring.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
 @Entity
 @Table(name = "professionals")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "professional")
+@NaturalIdCache(region = "professional-natural-id")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +42,7 @@ public class Professional {
     @Column(name = "phone_professionals")
     private String phone;
 
+    @NaturalId(mutable = true)
     @Column(name = "email_professionals",unique=true)
     private String email;
 
@@ -44,8 +52,8 @@ public class Professional {
     @Column(name = "is_active_professionals")
     private boolean active = true;
 
-    // Relación opcional con User (1-1)
-    @OneToOne
+    // Relación opcional con User (1-1); perezosa para que la caché no arrastre al usuario
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id_users" )
     private User user;
 
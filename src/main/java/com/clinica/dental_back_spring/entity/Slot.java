@@ -4,12 +4,16 @@ import com.clinica.dental_back_spring.enums.Period;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalTime;
 import java.util.List;
 
 @Entity
 @Table(name = "slots")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "slot")
 @Getter
 @Setter
 @NoArgsConstructor
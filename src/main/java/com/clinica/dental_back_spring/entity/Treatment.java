@@ -2,12 +2,16 @@ package com.clinica.dental_back_spring.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
 @Table(name = "treatments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "treatment")
 @Getter
 @Setter
 @NoArgsConstructor
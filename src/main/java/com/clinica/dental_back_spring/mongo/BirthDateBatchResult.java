@@ -0,0 +1,23 @@
+package com.clinica.dental_back_spring.mongo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de la carga masiva de fechas de nacimiento")
+public record BirthDateBatchResult(
+
+        @Schema(description = "Entradas recibidas", example = "1000")
+        int received,
+
+        @Schema(description = "Usuarios distintos escritos (la última entrada de cada userId gana)", example = "998")
+        int written,
+
+        @Schema(description = "Documentos nuevos", example = "700")
+        int inserted,
+
+        @Schema(description = "Documentos existentes modificados", example = "250")
+        int modified,
+
+        @Schema(description = "Tiempo total en milisegundos", example = "85")
+        long elapsedMs
+) {
+}
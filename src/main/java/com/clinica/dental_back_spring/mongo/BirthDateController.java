@@ -2,10 +2,14 @@ package com.clinica.dental_back_spring.mongo;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,41 +18,84 @@ import java.util.Map;
 public class BirthDateController {
 
     private final BirthDateService birthDateService;
+    private final UpcomingBirthdayService upcomingBirthdayService;
 
-    public BirthDateController(BirthDateService birthDateService) {
+    public BirthDateController(BirthDateService birthDateService, UpcomingBirthdayService upcomingBirthdayService) {
         this.birthDateService = birthDateService;
+        this.upcomingBirthdayService = upcomingBirthdayService;
     }
 
     @Operation(summary = "Guardar o actualizar fecha de nacimiento")
     @PostMapping
-    public ResponseEntity<?> save(@RequestBody Map<String, String> body) {
-        Long userId = Long.valueOf(body.get("userId"));
-        LocalDate birthDate = LocalDate.parse(body.get("birthDate"));
-        String note = body.getOrDefault("note", "");
+    public Mono<ResponseEntity<?>> save(@RequestBody Map<String, String> body) {
+        try {
+            Long userId = Long.valueOf(body.get("userId"));
+            LocalDate birthDate = LocalDate.parse(body.get("birthDate"));
+            String note = body.getOrDefault("note", "");
 
-        BirthDateDocument saved = birthDateService.saveBirthDate(userId, birthDate, note);
+            return birthDateService.saveBirthDate(userId, birthDate, note)
+                    .map(ResponseEntity::ok);
+        } catch (RuntimeException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", "userId y birthDate (yyyy-MM-dd) son obligatorios")));
+        }
+    }
 
-        return ResponseEntity.ok(saved);
+    @Operation(summary = "Guardar o actualizar muchas fechas de nacimiento",
+            description = "Upsert por userId en un único bulkWrite no ordenado.")
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<?>> saveBatch(@RequestBody List<BirthDateRequest> entries) {
+        try {
+            return birthDateService.saveBatch(entries)
+                    .map(ResponseEntity::ok);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage())));
+        }
     }
 
-    @Operation(summary = "Obtener fecha de nacimiento por userId")
-    @GetMapping("/{userId}")
-    public ResponseEntity<?> get(@PathVariable Long userId) {
+    @Operation(summary = "Obtener fechas de nacimiento de varios usuarios",
+            description = "Devuelve en streaming (NDJSON) un documento por cada userId que tenga fecha registrada.")
+    @GetMapping
+    public ResponseEntity<?> getMany(@RequestParam List<Long> userIds) {
         try {
-            return ResponseEntity.ok(birthDateService.getBirthDate(userId));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(birthDateService.getBirthDates(userIds));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
     }
 
-    @Operation(summary = "Eliminar fecha de nacimiento de un usuario")
-    @DeleteMapping("/{userId}")
-    public ResponseEntity<?> delete(@PathVariable Long userId) {
+    @Operation(summary = "Próximos cumpleaños",
+            description = "Usuarios activos que cumplen años en los próximos días (desde hoy o desde 'from'), en orden cronológico.")
+    @GetMapping("/upcoming")
+    public Mono<ResponseEntity<?>> upcoming(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "200") int limit
+    ) {
         try {
-            birthDateService.deleteBirthDate(userId);
-            return ResponseEntity.noContent().build();
+            return upcomingBirthdayService.upcoming(from != null ? from : LocalDate.now(), days, limit)
+                    .map(ResponseEntity::ok);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage())));
         }
     }
+
+    @Operation(summary = "Obtener fecha de nacimiento por userId")
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<?>> get(@PathVariable Long userId) {
+        return birthDateService.getBirthDate(userId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.status(404).body(Map.of("message", e.getMessage()))));
+    }
+
+    @Operation(summary = "Eliminar fecha de nacimiento de un usuario")
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<?>> delete(@PathVariable Long userId) {
+        return birthDateService.deleteBirthDate(userId)
+                .then(Mono.<ResponseEntity<?>>just(ResponseEntity.noContent().build()))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.status(404).body(Map.of("message", e.getMessage()))));
+    }
 }
@@ -2,6 +2,8 @@ package com.clinica.dental_back_spring.mongo;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -12,15 +14,23 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Document(collection = "user_birthdates")
+@CompoundIndex(name = "monthDay_userId", def = "{'monthDay': 1, 'userId': 1}")
 public class BirthDateDocument {
 
     @Id
     private String id;  // Mongo genera strings ObjectId
 
-    private Long userId; // referencia opcional al usuario MySQL
+    @Indexed(unique = true)
+    private Long userId; // referencia opcional al usuario MySQL (un documento por usuario)
 
     private LocalDate birthDate;
 
+    private Integer monthDay; // derivado de birthDate (mes * 100 + día, p. ej. 517); lo mantiene BirthDateService
+
     private String note; // para rellenar si te piden más campos
-}
 
+    /** Mes y día como entero ordenable: 17 de mayo = 517. */
+    public static int monthDay(LocalDate date) {
+        return date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+}
@@ -0,0 +1,146 @@
+package com.clinica.dental_back_spring.mongo;
+
+import com.clinica.dental_back_spring.dto.PatientBirthDateDTO;
+import com.clinica.dental_back_spring.dto.PatientDTO;
+import com.clinica.dental_back_spring.dto.UserBirthDateDTO;
+import com.clinica.dental_back_spring.dto.UserDTO;
+import com.clinica.dental_back_spring.repository.UserContact;
+import com.clinica.dental_back_spring.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Une páginas de usuarios/pacientes de MySQL con sus fechas de nacimiento de MongoDB.
+ * <p>
+ * Coste fijo de dos consultas por página, sea cual sea su tamaño: un {@code IN} a MySQL y un
+ * {@code $in} a Mongo. Para usuarios las dos van en paralelo: la de Mongo sale primero por el
+ * driver reactivo (un {@link CompletableFuture}) y la de MySQL corre mientras en el hilo de la
+ * petición. Los pacientes se enlazan con su usuario por email, así que ahí Mongo espera a MySQL.
+ * Si Mongo falla o tarda más de {@code birthdates.hydration.timeout-ms}, la página se devuelve
+ * igual, sin fechas.
+ */
+@Service
+public class BirthDateHydrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BirthDateHydrator.class);
+
+    public static final int MAX_PAGE_SIZE = 1_000;
+
+    private final BirthDateRepository birthDateRepository;
+    private final UserRepository userRepository;
+    private final Duration timeout;
+
+    public BirthDateHydrator(BirthDateRepository birthDateRepository,
+                             UserRepository userRepository,
+                             @Value("${birthdates.hydration.timeout-ms:2000}") long timeoutMs) {
+        this.birthDateRepository = birthDateRepository;
+        this.userRepository = userRepository;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    // ==========================================================
+    // 👥 USUARIOS
+    // ==========================================================
+
+    /** Usuarios en el orden pedido (los inexistentes se omiten), cada uno con su fecha si la tiene. */
+    public List<UserBirthDateDTO> hydrateUsers(Collection<Long> userIds) {
+        Set<Long> ids = distinct(userIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        CompletableFuture<Map<Long, LocalDate>> birthDates = birthDates(ids);
+        Map<Long, UserContact> users = userRepository.findContacts(ids).stream()
+                .collect(Collectors.toMap(UserContact::id, Function.identity()));
+        Map<Long, LocalDate> dates = birthDates.join();
+
+        List<UserBirthDateDTO> result = new ArrayList<>(users.size());
+        for (Long id : ids) {
+            UserContact u = users.get(id);
+            if (u != null) {
+                result.add(new UserBirthDateDTO(toDTO(u), dates.get(id)));
+            }
+        }
+        return result;
+    }
+
+    // ==========================================================
+    // 🧑‍🤝‍🧑 PACIENTES
+    // ==========================================================
+
+    /**
+     * La página tal cual, con el usuario de cada paciente (mismo email, sin distinguir mayúsculas,
+     * como la collation de MySQL) y su fecha si la tiene.
+     */
+    public List<PatientBirthDateDTO> hydratePatients(List<PatientDTO> page) {
+        if (page.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Se admiten como máximo " + MAX_PAGE_SIZE + " elementos por página");
+        }
+        Set<String> emails = page.stream()
+                .map(PatientDTO::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<String, Long> userIdByEmail = emails.isEmpty() ? Map.of()
+                : userRepository.findContactsByEmails(emails).stream()
+                        .collect(Collectors.toMap(u -> normalize(u.email()), UserContact::id, (a, b) -> a));
+        Map<Long, LocalDate> dates = userIdByEmail.isEmpty() ? Map.of()
+                : birthDates(userIdByEmail.values()).join();
+
+        return page.stream()
+                .map(p -> {
+                    Long userId = p.getEmail() != null ? userIdByEmail.get(normalize(p.getEmail())) : null;
+                    return new PatientBirthDateDTO(p, userId, userId != null ? dates.get(userId) : null);
+                })
+                .toList();
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+
+    // Se suscribe al crearla: la consulta ya está en vuelo cuando se devuelve
+    private CompletableFuture<Map<Long, LocalDate>> birthDates(Collection<Long> userIds) {
+        return birthDateRepository.findByUserIdIn(userIds)
+                .filter(doc -> doc.getBirthDate() != null)
+                .collectMap(BirthDateDocument::getUserId, BirthDateDocument::getBirthDate)
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    logger.warn("Fechas de nacimiento no disponibles para {} usuarios: {}", userIds.size(), e.toString());
+                    return Mono.just(Map.of());
+                })
+                .toFuture();
+    }
+
+    private static Set<Long> distinct(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Se admiten como máximo " + MAX_PAGE_SIZE + " usuarios por página");
+        }
+        return ids;
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static UserDTO toDTO(UserContact u) {
+        return UserDTO.builder()
+                .id(u.id())
+                .email(u.email())
+                .role(u.role().name())   // ROLE_ADMIN, ROLE_DENTISTA, ROLE_PACIENTE
+                .active(u.active())
+                .build();
+    }
+}
@@ -1,12 +1,17 @@
 package com.clinica.dental_back_spring.mongo;
 
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Optional;
+import java.util.Collection;
 
-public interface BirthDateRepository extends MongoRepository<BirthDateDocument, String> {
+public interface BirthDateRepository extends ReactiveMongoRepository<BirthDateDocument, String> {
 
-    Optional<BirthDateDocument> findByUserId(Long userId);
+    Mono<BirthDateDocument> findByUserId(Long userId);
 
-}
+    Flux<BirthDateDocument> findByUserIdIn(Collection<Long> userIds);
+
+    Mono<Long> deleteByUserId(Long userId);
 
+}
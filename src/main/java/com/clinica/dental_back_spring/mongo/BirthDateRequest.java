@@ -0,0 +1,21 @@
+package com.clinica.dental_back_spring.mongo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Fecha de nacimiento de un usuario (alta o actualización)")
+public record BirthDateRequest(
+
+        @Schema(description = "ID del usuario en MySQL", example = "42")
+        Long userId,
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        @Schema(description = "Fecha de nacimiento", example = "1990-05-17")
+        LocalDate birthDate,
+
+        @Schema(description = "Nota libre", example = "")
+        String note
+) {
+}
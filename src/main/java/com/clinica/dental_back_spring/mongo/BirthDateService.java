@@ -1,39 +1,242 @@
 package com.clinica.dental_back_spring.mongo;
 
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Fechas de nacimiento en MongoDB con el driver reactivo.
+ * <p>
+ * Un documento por usuario, garantizado por el índice único sobre {@code userId} (al arrancar se
+ * eliminan duplicados previos para que siempre pueda crearse). Guardar es un
+ * único upsert atómico (sin leer antes); la carga masiva manda todos los upserts en un solo
+ * {@code bulkWrite} no ordenado, y la consulta de muchos usuarios es un {@code $in} que se
+ * devuelve en streaming.
+ */
 @Service
 public class BirthDateService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BirthDateService.class);
+
+    // Dos upserts simultáneos del mismo userId: el que pierde choca con el índice único
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int BACKFILL_BATCH = 1_000;
+    private static final Duration INDEX_TIMEOUT = Duration.ofSeconds(30);
+
     private final BirthDateRepository birthDateRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int maxBatchSize;
 
-    public BirthDateService(BirthDateRepository birthDateRepository) {
+    public BirthDateService(BirthDateRepository birthDateRepository,
+                            ReactiveMongoTemplate mongoTemplate,
+                            @Value("${birthdates.batch.max-size:5000}") int maxBatchSize) {
         this.birthDateRepository = birthDateRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // Al arrancar, antes de aceptar escrituras: sin duplicados el índice único siempre se puede crear.
+    // Sin Mongo la aplicación arranca igual (se registra el error).
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            ensureIndexes().block(INDEX_TIMEOUT);
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron crear los índices de user_birthdates", e);
+        }
+        backfillMonthDay();
+    }
+
+    /** Elimina userId duplicados y después crea, en orden, los índices declarados en el documento. */
+    Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(BirthDateDocument.class);
+        return removeDuplicateUsers()
+                .thenMany(Flux.fromIterable(new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                        .resolveIndexFor(BirthDateDocument.class)))
+                .concatMap(indexOps::createIndex)
+                .doOnNext(name -> logger.info("Índice {} listo en user_birthdates", name))
+                .then();
+    }
+
+    // Varios documentos del mismo userId (escritos antes de existir el índice único): se queda el más reciente
+    Mono<Long> removeDuplicateUsers() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.match(where("userId").ne(null)),
+                Aggregation.sort(Sort.Direction.DESC, "_id"),
+                Aggregation.group("userId").push("_id").as("ids").count().as("count"),
+                Aggregation.match(where("count").gt(1)));
+        return mongoTemplate.aggregate(duplicates, BirthDateDocument.class, Document.class)
+                .concatMap(group -> {
+                    List<?> ids = group.getList("ids", Object.class);
+                    return mongoTemplate.remove(Query.query(where("_id").in(ids.subList(1, ids.size()))), BirthDateDocument.class)
+                            .map(DeleteResult::getDeletedCount);
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(removed -> {
+                    if (removed > 0) {
+                        logger.warn("Eliminados {} documentos con userId duplicado en user_birthdates", removed);
+                    }
+                });
     }
 
-    public BirthDateDocument saveBirthDate(Long userId, LocalDate birthDate, String note) {
-        BirthDateDocument doc = birthDateRepository.findByUserId(userId)
-                .orElse(BirthDateDocument.builder()
-                        .userId(userId)
-                        .build());
+    // Documentos guardados antes de existir monthDay: se completan una vez, en lotes
+    private void backfillMonthDay() {
+        mongoTemplate.find(Query.query(where("monthDay").exists(false).and("birthDate").ne(null)), BirthDateDocument.class)
+                .buffer(BACKFILL_BATCH)
+                .concatMap(docs -> {
+                    ReactiveBulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BirthDateDocument.class);
+                    docs.forEach(d -> ops.updateOne(Query.query(where("_id").is(d.getId())),
+                            Update.update("monthDay", BirthDateDocument.monthDay(d.getBirthDate()))));
+                    return ops.execute();
+                })
+                .reduce(0, (total, result) -> total + result.getModifiedCount())
+                .subscribe(
+                        total -> {
+                            if (total > 0) {
+                                logger.info("monthDay calculado para {} fechas de nacimiento existentes", total);
+                            }
+                        },
+                        e -> logger.error("No se pudo completar monthDay en user_birthdates", e));
+    }
+
+    // ==========================================================
+    // ✏️ GUARDAR
+    // ==========================================================
+    public Mono<BirthDateDocument> saveBirthDate(Long userId, LocalDate birthDate, String note) {
+        validate(userId, birthDate);
+        return mongoTemplate.findAndModify(byUserId(userId), update(birthDate, note),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), BirthDateDocument.class)
+                // El reintento ya encuentra el documento y lo actualiza
+                .retryWhen(Retry.max(1).filter(BirthDateService::isDuplicateKey));
+    }
 
-        doc.setBirthDate(birthDate);
-        doc.setNote(note);
+    /**
+     * Upsert de muchas fechas en un único {@code bulkWrite} no ordenado: un fallo no detiene el
+     * resto. Si un userId se repite en el lote, gana su última entrada.
+     */
+    public Mono<BirthDateBatchResult> saveBatch(List<BirthDateRequest> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("El lote está vacío");
+        }
+        if (entries.size() > maxBatchSize) {
+            throw new IllegalArgumentException("El lote admite como máximo " + maxBatchSize + " entradas");
+        }
+        Map<Long, BirthDateRequest> latest = new LinkedHashMap<>();
+        for (BirthDateRequest e : entries) {
+            if (e == null) {
+                throw new IllegalArgumentException("El lote contiene entradas vacías");
+            }
+            validate(e.userId(), e.birthDate());
+            latest.put(e.userId(), e);
+        }
 
-        return birthDateRepository.save(doc);
+        long start = System.nanoTime();
+        return Mono.defer(() -> {
+                    ReactiveBulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, BirthDateDocument.class);
+                    latest.values().forEach(e -> ops.upsert(byUserId(e.userId()), update(e.birthDate(), e.note())));
+                    return ops.execute();
+                })
+                // Los upserts son idempotentes: repetir el lote entero es seguro
+                .retryWhen(Retry.max(1).filter(BirthDateService::isDuplicateKey))
+                .map(result -> new BirthDateBatchResult(
+                        entries.size(),
+                        latest.size(),
+                        result.getUpserts().size(),
+                        result.getModifiedCount(),
+                        (System.nanoTime() - start) / 1_000_000));
     }
 
-    public BirthDateDocument getBirthDate(Long userId) {
+    // ==========================================================
+    // 🔍 CONSULTAR
+    // ==========================================================
+    public Mono<BirthDateDocument> getBirthDate(Long userId) {
         return birthDateRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("No hay fecha de nacimiento registrada para ese usuario"));
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("No hay fecha de nacimiento registrada para ese usuario")));
     }
 
-    public void deleteBirthDate(Long userId) {
-        BirthDateDocument doc = birthDateRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("No existe registro"));
-        birthDateRepository.delete(doc);
+    /** Fechas de varios usuarios con un solo {@code $in}; los usuarios sin fecha no aparecen. */
+    public Flux<BirthDateDocument> getBirthDates(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un userId");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Se admiten como máximo " + maxBatchSize + " userIds");
+        }
+        return birthDateRepository.findByUserIdIn(ids);
+    }
+
+    // ==========================================================
+    // 🗑️ ELIMINAR
+    // ==========================================================
+    public Mono<Void> deleteBirthDate(Long userId) {
+        return birthDateRepository.deleteByUserId(userId)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new IllegalArgumentException("No existe registro"))
+                        : Mono.empty());
     }
-}
 
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private static void validate(Long userId, LocalDate birthDate) {
+        if (userId == null) {
+            throw new IllegalArgumentException("El userId es obligatorio");
+        }
+        if (birthDate == null) {
+            throw new IllegalArgumentException("La fecha de nacimiento es obligatoria");
+        }
+    }
+
+    private static Query byUserId(Long userId) {
+        return Query.query(where("userId").is(userId));
+    }
+
+    private static Update update(LocalDate birthDate, String note) {
+        return new Update()
+                .set("birthDate", birthDate)
+                .set("monthDay", BirthDateDocument.monthDay(birthDate))
+                .set("note", note == null ? "" : note);
+    }
+
+    private static boolean isDuplicateKey(Throwable e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        return e instanceof BulkOperationException bulk
+                && !bulk.getErrors().isEmpty()
+                && bulk.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+    }
+}
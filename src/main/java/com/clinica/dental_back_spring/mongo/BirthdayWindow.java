@@ -0,0 +1,65 @@
+package com.clinica.dental_back_spring.mongo;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Ventana de días [from, to] para buscar cumpleaños por {@code monthDay}.
+ * <p>
+ * Si la ventana cruza el fin de año se parte en dos rangos ({@code $or}) sobre el mismo índice.
+ * Los nacidos un 29 de febrero lo celebran el 28 en los años no bisiestos.
+ */
+public record BirthdayWindow(LocalDate from, LocalDate to) {
+
+    public static final int MAX_DAYS = 31;
+
+    public static BirthdayWindow of(LocalDate from, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("La ventana debe tener entre 1 y " + MAX_DAYS + " días");
+        }
+        return new BirthdayWindow(from, from.plusDays(days - 1));
+    }
+
+    public Criteria criteria() {
+        List<Criteria> ranges = ranges();
+        return ranges.size() == 1 ? ranges.get(0) : new Criteria().orOperator(ranges);
+    }
+
+    /**
+     * Rangos de {@code monthDay} en orden cronológico: uno, o dos si la ventana cruza el fin de
+     * año (hasta el 31/12 y desde el 1/1). Dentro de cada rango, ordenar por {@code monthDay} es
+     * ordenar por fecha.
+     */
+    public List<Criteria> ranges() {
+        int start = BirthDateDocument.monthDay(from);
+        int end = BirthDateDocument.monthDay(to);
+        // 28 de febrero de un año no bisiesto: también cuenta el 29
+        if (end == 228 && !to.isLeapYear()) {
+            end = 229;
+        }
+        if (start <= end) {
+            return List.of(where("monthDay").gte(start).lte(end));
+        }
+        return List.of(
+                where("monthDay").gte(start).lte(1231),
+                where("monthDay").gte(101).lte(end));
+    }
+
+    /** Día de la ventana en que cae el cumpleaños, si cae. */
+    public Optional<LocalDate> occurrence(LocalDate birthDate) {
+        MonthDay monthDay = MonthDay.from(birthDate);
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            LocalDate candidate = monthDay.atYear(year);
+            if (!candidate.isBefore(from) && !candidate.isAfter(to)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+}
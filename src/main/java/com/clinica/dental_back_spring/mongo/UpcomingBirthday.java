@@ -0,0 +1,31 @@
+package com.clinica.dental_back_spring.mongo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Cumpleaños próximo de un usuario")
+public record UpcomingBirthday(
+
+        @Schema(description = "ID del usuario", example = "42")
+        Long userId,
+
+        @Schema(description = "Email del usuario", example = "lucia@correo.com")
+        String email,
+
+        @Schema(description = "Rol del usuario", example = "ROLE_PACIENTE")
+        String role,
+
+        @Schema(description = "Fecha de nacimiento", example = "1990-05-17")
+        LocalDate birthDate,
+
+        @Schema(description = "Día en que lo celebra dentro de la ventana", example = "2025-05-17")
+        LocalDate date,
+
+        @Schema(description = "Días que faltan (0 = hoy)", example = "3")
+        long daysUntil,
+
+        @Schema(description = "Años que cumple", example = "35")
+        int age
+) {
+}
@@ -0,0 +1,107 @@
+package com.clinica.dental_back_spring.mongo;
+
+import com.clinica.dental_back_spring.repository.UserContact;
+import com.clinica.dental_back_spring.repository.UserRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cumpleaños de los próximos días para felicitaciones.
+ * <p>
+ * Una consulta por rango de la ventana (dos si cruza el fin de año) sobre el índice
+ * {@code (monthDay, userId)} de Mongo, cada una ordenada y cortada en {@code limit} en el propio
+ * Mongo: como mucho llegan 2 × {@code limit} documentos, que se mezclan en orden cronológico.
+ * Después, un solo {@code IN} contra los usuarios de MySQL para los que entran en el límite.
+ * Los usuarios inactivos o inexistentes se descartan en ese cruce, así que puede devolver menos
+ * de {@code limit}.
+ */
+@Service
+public class UpcomingBirthdayService {
+
+    public static final int MAX_LIMIT = 1_000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+
+    public UpcomingBirthdayService(ReactiveMongoTemplate mongoTemplate, UserRepository userRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+    }
+
+    public Mono<List<UpcomingBirthday>> upcoming(LocalDate from, int days, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+        }
+        BirthdayWindow window = BirthdayWindow.of(from, days);
+
+        return Flux.fromIterable(window.ranges())
+                .concatMap(range -> {
+                    Query query = Query.query(range).with(Sort.by("monthDay", "userId")).limit(limit);
+                    query.fields().include("userId", "birthDate");
+                    return mongoTemplate.find(query, BirthDateDocument.class);
+                })
+                .filter(doc -> doc.getUserId() != null && doc.getBirthDate() != null)
+                .collectList()
+                // El cruce con MySQL bloquea: fuera de los hilos del driver de Mongo
+                .publishOn(Schedulers.boundedElastic())
+                .map(docs -> join(window, docs, limit));
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private List<UpcomingBirthday> join(BirthdayWindow window, List<BirthDateDocument> docs, int limit) {
+        // Orden cronológico (el de monthDay no lo es si la ventana cruza el fin de año)
+        List<Occurrence> occurrences = new ArrayList<>(docs.size());
+        for (BirthDateDocument doc : docs) {
+            window.occurrence(doc.getBirthDate())
+                    .ifPresent(date -> occurrences.add(new Occurrence(doc, date)));
+        }
+        occurrences.sort(Comparator.comparing(Occurrence::date)
+                .thenComparing(o -> o.doc().getUserId()));
+        List<Occurrence> page = occurrences.subList(0, Math.min(limit, occurrences.size()));
+        if (page.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, UserContact> users = userRepository.findActiveContacts(
+                        page.stream().map(o -> o.doc().getUserId()).toList())
+                .stream()
+                .collect(Collectors.toMap(UserContact::id, Function.identity()));
+
+        List<UpcomingBirthday> result = new ArrayList<>(page.size());
+        for (Occurrence o : page) {
+            UserContact user = users.get(o.doc().getUserId());
+            if (user == null) {
+                continue;
+            }
+            LocalDate birthDate = o.doc().getBirthDate();
+            result.add(new UpcomingBirthday(
+                    user.id(),
+                    user.email(),
+                    user.role() != null ? user.role().name() : null,
+                    birthDate,
+                    o.date(),
+                    ChronoUnit.DAYS.between(window.from(), o.date()),
+                    o.date().getYear() - birthDate.getYear()));
+        }
+        return result;
+    }
+
+    private record Occurrence(BirthDateDocument doc, LocalDate date) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Número de citas agrupadas por profesional, día, tratamiento y estado.
+ */
+public record AppointmentCount(Long professionalId, LocalDate date, Long treatmentId,
+                               AppointmentStatus status, Long count) {
+}
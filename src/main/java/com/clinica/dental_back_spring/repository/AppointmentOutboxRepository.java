@@ -0,0 +1,44 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.entity.AppointmentOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AppointmentOutboxRepository extends JpaRepository<AppointmentOutbox, Long> {
+
+    // jakarta.persistence.lock.timeout = -2 → SKIP LOCKED en Hibernate
+    String SKIP_LOCKED = "-2";
+
+    // 🔒 SELECT ... FOR UPDATE SKIP LOCKED de las filas sin reclamar (o con el plazo vencido):
+    // el bloqueo solo dura lo que tarda el relay en reclamarlas con claim()
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("""
+            SELECT o FROM AppointmentOutbox o
+            WHERE o.claimedUntil IS NULL OR o.claimedUntil < :now
+            ORDER BY o.id
+            """)
+    List<AppointmentOutbox> lockNextClaimable(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE AppointmentOutbox o SET o.claimedUntil = :until WHERE o.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    // Solo suelta el lote si el plazo sigue siendo el suyo: otro relay puede haberlo reclamado ya
+    @Modifying
+    @Query("UPDATE AppointmentOutbox o SET o.claimedUntil = NULL WHERE o.id IN :ids AND o.claimedUntil = :until")
+    int release(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+}
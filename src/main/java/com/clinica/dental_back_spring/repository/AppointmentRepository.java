@@ -1,12 +1,23 @@
 package com.clinica.dental_back_spring.repository;
 
+import com.clinica.dental_back_spring.dto.AppointmentRow;
 import com.clinica.dental_back_spring.entity.Appointment;
 import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -17,13 +28,152 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     List<Appointment> findByProfessionalIdAndStatusNot(Long professionalId, AppointmentStatus status);
 
-    List<Appointment> findByProfessionalIdAndDateBetween(
-            Long professionalId,
-            LocalDateTime from,
-            LocalDateTime to
+    // ==========================================================
+    // 📋 Listados planos (una sola SELECT con JOIN, sin N+1)
+    // Paginación keyset sobre (date, id): la página siguiente empieza
+    // estrictamente después del último (afterDate, afterId) devuelto.
+    // ==========================================================
+    String ROW_SELECT = """
+            SELECT new com.clinica.dental_back_spring.dto.AppointmentRow(
+                a.id, a.date, a.duration, a.status, a.createdBy,
+                p.id, p.firstName, p.lastName,
+                pr.id, pr.name, pr.lastName,
+                t.id, t.name)
+            FROM Appointment a
+            LEFT JOIN a.patient p
+            LEFT JOIN a.professional pr
+            LEFT JOIN a.treatment t
+            """;
+
+    @Query(ROW_SELECT + """
+            WHERE a.patient.id = :patientId
+              AND a.date >= :from AND a.date < :to
+              AND (a.date > :afterDate OR (a.date = :afterDate AND a.id > :afterId))
+            ORDER BY a.date, a.id
+            """)
+    List<AppointmentRow> findRowsByPatientIdAndDateBetween(
+            @Param("patientId") Long patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit
     );
 
-    long countBySlotIdAndStatusNot(Long slotId, AppointmentStatus excludedStatus);
-}
+    @Query(ROW_SELECT + """
+            WHERE a.professional.id = :professionalId
+              AND a.date >= :from AND a.date < :to
+              AND (a.date > :afterDate OR (a.date = :afterDate AND a.id > :afterId))
+            ORDER BY a.date, a.id
+            """)
+    List<AppointmentRow> findRowsByProfessionalIdAndDateBetween(
+            @Param("professionalId") Long professionalId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    // Agenda diaria: citas de un profesional en un día, sin las canceladas
+    @Query(ROW_SELECT + """
+            WHERE a.professional.id = :professionalId
+              AND a.date >= :from AND a.date < :to
+              AND a.status <> :excluded
+            ORDER BY a.date, a.id
+            """)
+    List<AppointmentRow> findRowsByProfessionalIdAndDateRange(
+            @Param("professionalId") Long professionalId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("excluded") AppointmentStatus excluded
+    );
+
+    // Agenda diaria: (profesional, día, slot) en los que aparece el paciente, sin las canceladas
+    @Query("""
+            SELECT DISTINCT new com.clinica.dental_back_spring.repository.AvailabilityKey(
+                a.professional.id, CAST(a.date AS LocalDate), a.slot.id)
+            FROM Appointment a
+            WHERE a.patient.id = :patientId AND a.status <> :excluded
+            """)
+    List<AvailabilityKey> findAgendaKeysByPatientId(
+            @Param("patientId") Long patientId,
+            @Param("excluded") AppointmentStatus excluded
+    );
+
+    // ==========================================================
+    // ⏰ Recordatorios: citas futuras activas (índice por fecha)
+    // ==========================================================
+    @Query("""
+            SELECT new com.clinica.dental_back_spring.repository.UpcomingAppointment(
+                a.id, a.date, a.patient.id, a.professional.id)
+            FROM Appointment a
+            WHERE a.date > :from AND a.status IN :statuses
+            """)
+    List<UpcomingAppointment> findUpcoming(
+            @Param("from") LocalDateTime from,
+            @Param("statuses") Collection<AppointmentStatus> statuses
+    );
+
+    // Reclamo atómico del envío: solo marca si la cita sigue activa, en la misma fecha y sin enviar.
+    // Devuelve 1 al único nodo que lo consigue.
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Appointment a SET a.dayReminderSentAt = :now
+            WHERE a.id = :id AND a.date = :date AND a.status IN :statuses AND a.dayReminderSentAt IS NULL
+            """)
+    int claimDayReminder(
+            @Param("id") Long id,
+            @Param("date") LocalDateTime date,
+            @Param("statuses") Collection<AppointmentStatus> statuses,
+            @Param("now") LocalDateTime now
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Appointment a SET a.twoHoursReminderSentAt = :now
+            WHERE a.id = :id AND a.date = :date AND a.status IN :statuses AND a.twoHoursReminderSentAt IS NULL
+            """)
+    int claimTwoHoursReminder(
+            @Param("id") Long id,
+            @Param("date") LocalDateTime date,
+            @Param("statuses") Collection<AppointmentStatus> statuses,
+            @Param("now") LocalDateTime now
+    );
+
+    // ==========================================================
+    // 📊 Analítica: recuento completo en una sola agregación
+    // ==========================================================
+    @Query("""
+            SELECT new com.clinica.dental_back_spring.repository.AppointmentCount(
+                pr.id, CAST(a.date AS LocalDate), t.id, a.status, COUNT(a))
+            FROM Appointment a
+            LEFT JOIN a.professional pr
+            LEFT JOIN a.treatment t
+            GROUP BY pr.id, CAST(a.date AS LocalDate), t.id, a.status
+            """)
+    List<AppointmentCount> countByProfessionalDayTreatmentAndStatus();
 
+    // ==========================================================
+    // 📤 Exportación: cursor de solo lectura, filas sin entidades gestionadas
+    // ==========================================================
+    int EXPORT_FETCH_SIZE = 1000;
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(ROW_SELECT + """
+            WHERE a.date >= :from AND a.date < :to
+              AND (:professionalId IS NULL OR pr.id = :professionalId)
+            ORDER BY a.date, a.id
+            """)
+    Stream<AppointmentRow> streamRows(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("professionalId") Long professionalId
+    );
+}
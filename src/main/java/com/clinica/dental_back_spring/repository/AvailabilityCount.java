@@ -0,0 +1,11 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+
+import java.time.LocalDate;
+
+/**
+ * Número de disponibilidades agrupadas por profesional, día y estado.
+ */
+public record AvailabilityCount(Long professionalId, LocalDate date, StatusAvailability status, Long count) {
+}
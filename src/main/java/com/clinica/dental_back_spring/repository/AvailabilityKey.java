@@ -0,0 +1,9 @@
+package com.clinica.dental_back_spring.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Clave natural de una disponibilidad: profesional + día + slot.
+ */
+public record AvailabilityKey(Long professionalId, LocalDate date, Long slotId) {
+}
@@ -1,24 +1,86 @@
 package com.clinica.dental_back_spring.repository;
 
 import com.clinica.dental_back_spring.entity.Availability;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+public interface AvailabilityRepository extends JpaRepository<Availability, Long>, AvailabilityRepositoryCustom {
 
     List<Availability> findByProfessionalId(Long professionalId);
 
     List<Availability> findByProfessionalIdAndDate(Long professionalId, LocalDate date);
 
-    Optional<Availability> findBySlotIdAndProfessionalId(Long slotId, Long professionalId);
+    Optional<Availability> findByProfessionalIdAndDateAndSlotId(Long professionalId, LocalDate date, Long slotId);
 
     boolean existsByProfessionalIdAndDateAndSlotId(Long professionalId, LocalDate date, Long slotId);
 
+    // Claves (profesional, día, slot) ya existentes en un rango: una sola consulta para deduplicar
+    @Query("""
+            SELECT new com.clinica.dental_back_spring.repository.AvailabilityKey(
+                a.professional.id, a.date, a.slot.id)
+            FROM Availability a
+            WHERE a.professional.id IN :professionalIds AND a.date BETWEEN :from AND :to
+            """)
+    List<AvailabilityKey> findKeysInRange(@Param("professionalIds") Collection<Long> professionalIds,
+                                          @Param("from") LocalDate from,
+                                          @Param("to") LocalDate to);
+
+    // Huecos LIBRE de profesionales activos en un rango (carga del índice de ocupación)
+    @Query("""
+            SELECT new com.clinica.dental_back_spring.repository.AvailabilityKey(
+                a.professional.id, a.date, a.slot.id)
+            FROM Availability a
+            WHERE a.status = com.clinica.dental_back_spring.enums.StatusAvailability.LIBRE
+              AND a.professional.active = true
+              AND a.date BETWEEN :from AND :to
+            """)
+    List<AvailabilityKey> findFreeKeysInRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recuento por profesional, día y estado (carga de la analítica)
+    @Query("""
+            SELECT new com.clinica.dental_back_spring.repository.AvailabilityCount(
+                a.professional.id, a.date, a.status, COUNT(a))
+            FROM Availability a
+            GROUP BY a.professional.id, a.date, a.status
+            """)
+    List<AvailabilityCount> countByProfessionalDayAndStatus();
+
+    // 🔒 Bloqueo de fila (SELECT ... FOR UPDATE) para reservar sin carreras
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT a FROM Availability a
+            WHERE a.professional.id = :professionalId AND a.date = :date AND a.slot.id = :slotId
+            """)
+    Optional<Availability> findByProfessionalIdAndDateAndSlotIdForUpdate(@Param("professionalId") Long professionalId,
+                                                                        @Param("date") LocalDate date,
+                                                                        @Param("slotId") Long slotId);
+
+    // Liberación condicional al cancelar: solo si sigue RESERVADO y ninguna otra cita activa
+    // la tiene enlazada (el hueco pudo reservarse de nuevo tras una cancelación anterior)
+    @Modifying
+    @Query("""
+            UPDATE Availability a SET a.status = com.clinica.dental_back_spring.enums.StatusAvailability.LIBRE
+            WHERE a.id = :id
+              AND a.status = com.clinica.dental_back_spring.enums.StatusAvailability.RESERVADO
+              AND NOT EXISTS (
+                  SELECT 1 FROM Appointment ap
+                  WHERE ap.availability.id = :id
+                    AND ap.id <> :appointmentId
+                    AND ap.status <> com.clinica.dental_back_spring.enums.AppointmentStatus.CANCELADA)
+            """)
+    int release(@Param("id") Long id, @Param("appointmentId") Long appointmentId);
+
 }
 
 
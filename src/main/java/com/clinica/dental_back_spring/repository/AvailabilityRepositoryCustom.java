@@ -0,0 +1,13 @@
+package com.clinica.dental_back_spring.repository;
+
+import java.util.List;
+
+/**
+ * Operaciones masivas sobre disponibilidades que no encajan en JPA
+ * (IDENTITY impide que Hibernate agrupe los INSERT).
+ */
+public interface AvailabilityRepositoryCustom {
+
+    /** Inserta disponibilidades LIBRE en INSERT multi-fila. Devuelve las filas insertadas. */
+    int insertFreeInBatches(List<AvailabilityKey> rows);
+}
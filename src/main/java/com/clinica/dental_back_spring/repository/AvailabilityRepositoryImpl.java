@@ -0,0 +1,47 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link AvailabilityRepositoryCustom}. Spring Data la enlaza
+ * con {@link AvailabilityRepository} por el sufijo {@code Impl}.
+ */
+class AvailabilityRepositoryImpl implements AvailabilityRepositoryCustom {
+
+    static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO professional_availabilities (professional_id, date_availability, id_slots, status_availability) VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    AvailabilityRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertFreeInBatches(List<AvailabilityKey> rows) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<AvailabilityKey> chunk = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            List<Object> args = new ArrayList<>(chunk.size() * 4);
+            for (int i = 0; i < chunk.size(); i++) {
+                AvailabilityKey r = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+                args.add(r.professionalId());
+                args.add(Date.valueOf(r.date()));
+                args.add(r.slotId());
+                args.add(StatusAvailability.LIBRE.name());
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+}
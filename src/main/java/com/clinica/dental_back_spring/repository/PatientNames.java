@@ -0,0 +1,7 @@
+package com.clinica.dental_back_spring.repository;
+
+/**
+ * Campos de un paciente que alimentan el índice de búsqueda.
+ */
+public record PatientNames(Long id, String firstName, String lastName, String nif) {
+}
@@ -0,0 +1,14 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.entity.Professional;
+
+import java.util.Optional;
+
+/**
+ * Búsquedas de profesionales que Spring Data no expresa.
+ */
+public interface ProfessionalRepositoryCustom {
+
+    /** Por email, el id natural: resuelto desde la caché de segundo nivel cuando está. */
+    Optional<Professional> findByEmail(String email);
+}
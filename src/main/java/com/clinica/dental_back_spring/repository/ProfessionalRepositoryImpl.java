@@ -0,0 +1,28 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.entity.Professional;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Implementación de {@link ProfessionalRepositoryCustom} con la API de ids naturales de
+ * Hibernate: email → id sale de la región {@code professional-natural-id} y la entidad de
+ * {@code professional}, sin SQL si ambas están en caché.
+ */
+class ProfessionalRepositoryImpl implements ProfessionalRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    ProfessionalRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Professional> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Professional.class)
+                .loadOptional(email);
+    }
+}
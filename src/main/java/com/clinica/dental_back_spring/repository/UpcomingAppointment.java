@@ -0,0 +1,9 @@
+package com.clinica.dental_back_spring.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cita futura con lo necesario para programar sus recordatorios.
+ */
+public record UpcomingAppointment(Long id, LocalDateTime date, Long patientId, Long professionalId) {
+}
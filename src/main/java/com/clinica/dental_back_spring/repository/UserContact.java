@@ -0,0 +1,9 @@
+package com.clinica.dental_back_spring.repository;
+
+import com.clinica.dental_back_spring.enums.Role;
+
+/**
+ * Datos mínimos de contacto de un usuario, sin cargar la entidad (ni su profesional).
+ */
+public record UserContact(Long id, String email, Role role, boolean active) {
+}
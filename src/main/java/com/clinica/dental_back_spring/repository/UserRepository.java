@@ -2,8 +2,12 @@ package com.clinica.dental_back_spring.repository;
 
 import com.clinica.dental_back_spring.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +15,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.active = false")
+    List<Long> findIdsByActiveFalse();
+
+    @Query("SELECT new com.clinica.dental_back_spring.repository.UserContact(u.id, u.email, u.role, u.active) " +
+            "FROM User u WHERE u.active = true AND u.id IN :ids")
+    List<UserContact> findActiveContacts(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.clinica.dental_back_spring.repository.UserContact(u.id, u.email, u.role, u.active) " +
+            "FROM User u WHERE u.id IN :ids")
+    List<UserContact> findContacts(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.clinica.dental_back_spring.repository.UserContact(u.id, u.email, u.role, u.active) " +
+            "FROM User u WHERE u.email IN :emails")
+    List<UserContact> findContactsByEmails(@Param("emails") Collection<String> emails);
 }
 
 
@@ -1,5 +1,6 @@
 package com.clinica.dental_back_spring.security;
 
+import com.clinica.dental_back_spring.tracing.RequestTrace;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -8,6 +9,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.util.StringUtils;
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -23,10 +27,20 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
     private final JwtUtil jwtUtil;
     private final MyUserDetailsService userDetailsService;
-
-    public JwtFilter(JwtUtil jwtUtil, MyUserDetailsService userDetailsService) {
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final boolean stateless;
+
+    public JwtFilter(JwtUtil jwtUtil,
+                     MyUserDetailsService userDetailsService,
+                     PrincipalCache principalCache,
+                     TokenRevocationList revocationList,
+                     @Value("${jwt.stateless:false}") boolean stateless) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
+        this.stateless = stateless;
     }
 
     @Override
@@ -36,9 +50,6 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String path = request.getServletPath();
 
-        logger.info("➡️ Processing request: {}", path);
-
-
         // ✅ Ignora rutas públicas (sin JWT requerido)
         if (path.startsWith("/auth") ||
                 path.startsWith("/swagger") ||
@@ -53,30 +64,28 @@ public class JwtFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader("Authorization");
         String email = null;
         String token = null;
-
-        logger.info("➡️ Processing request: {}", request.getRequestURI());
-        logger.info("🔍 Authorization Header received: {}", authHeader);
-
+        JwtPayload payload = null;
 
         try {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 token = authHeader.substring(7);
-                email = jwtUtil.extractAllClaims(token).getSubject();
+                // Un único parseo: firma, expiración y claims
+                payload = jwtUtil.validateAndExtract(token);
+                email = payload.getSubject();
+                RequestTrace trace = RequestTrace.current();
+                if (trace != null) {
+                    trace.setUserId(payload.getUserId());
+                }
             }
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+                UserDetails userDetails = stateless
+                        ? fromClaims(payload)
+                        : loadPrincipal(payload);
+                if (userDetails != null && email.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    logger.info("➡️ Authorization Header: {}", authHeader);
-                    logger.info("➡️ Email extraído del token: {}", email);
-                    logger.info("➡️ Current Authentication: {}", SecurityContextHolder.getContext().getAuthentication());
-
-                    logger.info("🪶 JWT Filter triggered for path: {}", request.getRequestURI());
-                    logger.info("Authorization Header: {}", request.getHeader("Authorization"));
-                    logger.info("🧩 Usuario autenticado: {} con rol(es): {}", email, userDetails.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
@@ -88,5 +97,29 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // 🗃️ Modo normal: caché de principals; solo se consulta la BD en caso de fallo
+    private UserDetails loadPrincipal(JwtPayload payload) {
+        long issuedAt = payload.issuedAtMillis();
+        UserDetails userDetails = principalCache.get(payload.getSubject(), issuedAt);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(payload.getSubject());
+            principalCache.put(payload.getSubject(), issuedAt, userDetails);
+        }
+        return userDetails;
+    }
+
+    // ⚡ Modo stateless: autoridades desde los claims firmados + lista de revocación en memoria
+    private UserDetails fromClaims(JwtPayload payload) {
+        if (payload.getRole() == null || revocationList.isRevoked(payload.getUserId(), payload.getIssuedAt())) {
+            logger.warn("JWT revocado o sin rol para el usuario {}", payload.getSubject());
+            return null;
+        }
+        return org.springframework.security.core.userdetails.User
+                .withUsername(payload.getSubject())
+                .password("")
+                .authorities(Collections.singleton(new SimpleGrantedAuthority(payload.getRole())))
+                .build();
+    }
 }
 
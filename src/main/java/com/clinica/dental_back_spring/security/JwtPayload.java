@@ -0,0 +1,28 @@
+package com.clinica.dental_back_spring.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Datos de un token ya verificado (firma + expiración), obtenidos de un único parseo.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPayload {
+
+    private final String subject;
+
+    private final String role;
+
+    private final Long userId;
+
+    private final Date issuedAt;
+
+    private final Date expiration;
+
+    public long issuedAtMillis() {
+        return issuedAt != null ? issuedAt.getTime() : 0L;
+    }
+}
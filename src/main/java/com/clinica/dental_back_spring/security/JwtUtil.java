@@ -2,6 +2,7 @@ package com.clinica.dental_back_spring.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -16,42 +17,71 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
-    @Value("${jwt.expiration::86400000}") // 24h por defecto
+    @Value("${jwt.expiration:86400000}") // 24h por defecto
     private long expiration;
 
-    private Key getSigningKey() {
+    // iat estándar va en segundos; la revocación necesita el instante exacto de emisión
+    static final String ISSUED_AT_MILLIS = "iatMs";
 
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Clave y parser se construyen una sola vez: son inmutables y thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String email, String role, Long userId) {
+        long now = System.currentTimeMillis();
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
         claims.put("userId", userId);
+        claims.put(ISSUED_AT_MILLIS, now);
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifica firma y expiración una sola vez y devuelve los datos que necesita el filtro.
+     * Lanza {@link ExpiredJwtException} o {@link JwtException} si el token no es válido.
+     */
+    public JwtPayload validateAndExtract(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getSubject() == null) {
+            throw new MalformedJwtException("El token no contiene subject");
+        }
+        Number userId = claims.get("userId", Number.class);
+        // Tokens anteriores a iatMs: su iat truncado al segundo
+        Number issuedAtMillis = claims.get(ISSUED_AT_MILLIS, Number.class);
+        return new JwtPayload(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                userId != null ? userId.longValue() : null,
+                issuedAtMillis != null ? new Date(issuedAtMillis.longValue()) : claims.getIssuedAt(),
+                claims.getExpiration()
+        );
     }
 
     public boolean validateToken(String token, String email) {
-        final String username = extractAllClaims(token).getSubject();
-        return username.equals(email) && !isTokenExpired(token);
+        // parseClaimsJws ya rechaza tokens expirados (ExpiredJwtException)
+        Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(email) && !isTokenExpired(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 }
-
@@ -0,0 +1,132 @@
+package com.clinica.dental_back_spring.security;
+
+import com.clinica.dental_back_spring.service.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada (LRU + TTL) de los {@link UserDetails} ya verificados por {@link JwtFilter}.
+ * La clave es {@code subject + issuedAt} del token, así cada login genera su propia entrada
+ * y evitamos consultar {@code users} en cada petición autenticada.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PrincipalCache(@Value("${jwt.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${jwt.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean full = size() > PrincipalCache.this.maxSize;
+                if (full) {
+                    evictions.incrementAndGet();
+                }
+                return full;
+            }
+        };
+    }
+
+    // ==========================================================
+    // 🔍 LECTURA
+    // ==========================================================
+    public UserDetails get(String subject, long issuedAt) {
+        String key = key(subject, issuedAt);
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && e.expiresAt > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return e.userDetails;
+            }
+            if (e != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String subject, long issuedAt, UserDetails userDetails) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        Entry e = new Entry(userDetails, System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(key(subject, issuedAt), e);
+        }
+    }
+
+    // ==========================================================
+    // 🚫 INVALIDACIÓN
+    // ==========================================================
+
+    /**
+     * Elimina todas las entradas del usuario. Si hay una transacción activa se repite
+     * tras el commit, para que una petición concurrente no vuelva a cachear el estado antiguo.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        AfterCommit.runNowAndAfterCommit(() -> evictNow(email));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            evictions.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    private void evictNow(String email) {
+        String prefix = email + "|";
+        synchronized (entries) {
+            int before = entries.size();
+            entries.keySet().removeIf(k -> k.startsWith(prefix));
+            evictions.addAndGet(before - entries.size());
+        }
+    }
+
+    // ==========================================================
+    // 📊 MÉTRICAS
+    // ==========================================================
+    public Map<String, Object> stats() {
+        long h = hits.get();
+        long m = misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return Map.of(
+                "hits", h,
+                "misses", m,
+                "hitRate", (h + m) == 0 ? 0.0 : (double) h / (h + m),
+                "evictions", evictions.get(),
+                "size", size,
+                "maxSize", maxSize,
+                "ttlSeconds", ttlMillis / 1000
+        );
+    }
+
+    private static String key(String subject, long issuedAt) {
+        return subject + "|" + issuedAt;
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
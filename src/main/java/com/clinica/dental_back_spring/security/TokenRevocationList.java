@@ -0,0 +1,98 @@
+package com.clinica.dental_back_spring.security;
+
+import com.clinica.dental_back_spring.repository.UserRepository;
+import com.clinica.dental_back_spring.service.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revocación en memoria para el modo JWT "stateless".
+ * <ul>
+ *   <li>Usuarios desactivados: se rechazan todos sus tokens.</li>
+ *   <li>Cambio de contraseña/rol/email: se rechazan los tokens emitidos antes del cambio.</li>
+ * </ul>
+ * Las entradas por fecha caducan solas al pasar {@code jwt.expiration}, porque a partir de ahí
+ * cualquier token anterior ya está expirado. El estado es local a cada nodo.
+ * <p>
+ * Dentro de una transacción, la revocación se aplica tras el commit: un cambio que se
+ * deshace no invalida tokens, y el corte es el instante en que el cambio ya es visible.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final UserRepository userRepository;
+    private final boolean stateless;
+    private final long expirationMillis;
+
+    private final Set<Long> blockedUsers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(UserRepository userRepository,
+                               @Value("${jwt.stateless:false}") boolean stateless,
+                               @Value("${jwt.expiration:86400000}") long expirationMillis) {
+        this.userRepository = userRepository;
+        this.stateless = stateless;
+        this.expirationMillis = expirationMillis;
+    }
+
+    @PostConstruct
+    void loadInactiveUsers() {
+        if (!stateless) {
+            return;
+        }
+        blockedUsers.addAll(userRepository.findIdsByActiveFalse());
+        logger.info("Modo JWT stateless: {} usuarios inactivos cargados en la lista de revocación", blockedUsers.size());
+    }
+
+    // ==========================================================
+    // 🚫 REVOCAR
+    // ==========================================================
+
+    /** Invalida los tokens emitidos hasta este momento (cambio de contraseña, rol o email). */
+    public void revokeIssuedBefore(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            // Corte en milisegundos, comparado con el claim iatMs del token (sin redondeo)
+            long now = System.currentTimeMillis();
+            revokedBefore.put(userId, now);
+            purgeExpired(now);
+        });
+    }
+
+    /** Invalida todos los tokens del usuario (desactivación). */
+    public void block(Long userId) {
+        if (userId != null) {
+            AfterCommit.run(() -> blockedUsers.add(userId));
+        }
+    }
+
+    // ==========================================================
+    // 🔍 CONSULTA
+    // ==========================================================
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (userId == null) {
+            return true;
+        }
+        if (blockedUsers.contains(userId)) {
+            return true;
+        }
+        Long limit = revokedBefore.get(userId);
+        return limit != null && (issuedAt == null || issuedAt.getTime() < limit);
+    }
+
+    private void purgeExpired(long now) {
+        revokedBefore.values().removeIf(limit -> limit + expirationMillis < now);
+    }
+}
@@ -0,0 +1,40 @@
+package com.clinica.dental_back_spring.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cambios en memoria (índices, cachés, listas de revocación) que deben esperar al commit de la
+ * transacción que los provoca: si esta se deshace, no se aplican y el estado en memoria no se
+ * adelanta a la base de datos.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /** Ejecuta la acción tras el commit de la transacción en curso; sin transacción, en el acto. */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Ejecuta la acción ya y, si hay transacción, la repite tras el commit. Para invalidaciones:
+     * una lectura concurrente que vuelva a cachear el estado anterior al commit se descarta otra vez.
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            run(action);
+        }
+    }
+}
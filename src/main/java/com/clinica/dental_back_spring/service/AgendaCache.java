@@ -0,0 +1,120 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AgendaDTO;
+import com.clinica.dental_back_spring.repository.AvailabilityKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Agendas diarias ya montadas, por (profesional, día), con tamaño acotado (LRU).
+ * <p>
+ * Reservas, cancelaciones y cambios de disponibilidad invalidan solo el día afectado,
+ * al momento y otra vez tras el commit. Cada (profesional, día) invalidado guarda el
+ * instante lógico de su última invalidación: una agenda calculada antes se descarta,
+ * pero invalidar otro día no impide guardar esta.
+ */
+@Component
+public class AgendaCache {
+
+    private final int maxSize;
+    private final Map<Key, Entry> entries;
+    // Reloj lógico: cada invalidación toma un valor nuevo
+    private final AtomicLong clock = new AtomicLong();
+    // Última invalidación por (profesional, día); por debajo de floor todo cuenta como invalidado
+    private final Map<Key, Long> invalidatedAt = new HashMap<>();
+    private long floor;
+
+    public AgendaCache(@Value("${agenda.cache.max-size:5000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > AgendaCache.this.maxSize;
+            }
+        };
+    }
+
+    // ==========================================================
+    // 🔍 LECTURA / ESCRITURA
+    // ==========================================================
+
+    /** Agenda cacheada, o null si no está o se montó con otra versión del catálogo de slots. */
+    public AgendaDTO get(Long professionalId, LocalDate date, long slotCatalogVersion) {
+        synchronized (entries) {
+            Entry e = entries.get(new Key(professionalId, date));
+            return (e != null && e.slotCatalogVersion == slotCatalogVersion) ? e.agenda : null;
+        }
+    }
+
+    /** Marca a pasar a {@link #put} para detectar invalidaciones del día mientras se monta la agenda. */
+    public long generation() {
+        return clock.get();
+    }
+
+    /** Guarda la agenda salvo que su (profesional, día) se haya invalidado desde {@code generationSeen}. */
+    public void put(AgendaDTO agenda, long slotCatalogVersion, long generationSeen) {
+        Key key = new Key(agenda.getProfessionalId(), agenda.getDate());
+        synchronized (entries) {
+            if (Math.max(floor, invalidatedAt.getOrDefault(key, 0L)) <= generationSeen) {
+                entries.put(key, new Entry(agenda, slotCatalogVersion));
+            }
+        }
+    }
+
+    // ==========================================================
+    // 🚫 INVALIDACIÓN
+    // ==========================================================
+    public void invalidate(Long professionalId, LocalDate date) {
+        invalidate(Set.of(new Key(professionalId, date)));
+    }
+
+    public void invalidate(Collection<AvailabilityKey> keys) {
+        invalidate(keys.stream()
+                .map(k -> new Key(k.professionalId(), k.date()))
+                .collect(Collectors.toSet()));
+    }
+
+    /** Cambios de nombres de pacientes o tratamientos: afectan a cualquier día. */
+    public void clear() {
+        Runnable action = () -> {
+            synchronized (entries) {
+                floor = clock.incrementAndGet();
+                invalidatedAt.clear();
+                entries.clear();
+            }
+        };
+        AfterCommit.runNowAndAfterCommit(action);
+    }
+
+    private void invalidate(Set<Key> keys) {
+        Runnable action = () -> {
+            synchronized (entries) {
+                long now = clock.incrementAndGet();
+                if (invalidatedAt.size() + keys.size() > maxSize) {
+                    // Acota la memoria: olvidar marcas equivale a dar todo por invalidado ahora
+                    floor = now;
+                    invalidatedAt.clear();
+                } else {
+                    keys.forEach(k -> invalidatedAt.put(k, now));
+                }
+                entries.keySet().removeAll(keys);
+            }
+        };
+        AfterCommit.runNowAndAfterCommit(action);
+    }
+
+    private record Key(Long professionalId, LocalDate date) {
+    }
+
+    private record Entry(AgendaDTO agenda, long slotCatalogVersion) {
+    }
+}
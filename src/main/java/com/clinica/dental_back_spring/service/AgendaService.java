@@ -0,0 +1,108 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AgendaDTO;
+import com.clinica.dental_back_spring.dto.AgendaEntryDTO;
+import com.clinica.dental_back_spring.dto.AppointmentRow;
+import com.clinica.dental_back_spring.entity.Availability;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import com.clinica.dental_back_spring.repository.ProfessionalRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Agenda diaria de un profesional: cada slot del catálogo con su disponibilidad y su cita.
+ * Se monta con dos consultas (disponibilidades del día y citas con JOIN) y se guarda en
+ * {@link AgendaCache} hasta que una reserva, cancelación o cambio de disponibilidad la invalida.
+ */
+@Service
+public class AgendaService {
+
+    private final AvailabilityRepository availabilityRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final SlotCatalog slotCatalog;
+    private final AgendaCache agendaCache;
+
+    public AgendaService(AvailabilityRepository availabilityRepository,
+                         AppointmentRepository appointmentRepository,
+                         ProfessionalRepository professionalRepository,
+                         SlotCatalog slotCatalog,
+                         AgendaCache agendaCache) {
+        this.availabilityRepository = availabilityRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.professionalRepository = professionalRepository;
+        this.slotCatalog = slotCatalog;
+        this.agendaCache = agendaCache;
+    }
+
+    @Transactional(readOnly = true)
+    public AgendaDTO getAgenda(Long professionalId, LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("La fecha es obligatoria");
+        }
+        long catalogVersion = slotCatalog.version();
+        AgendaDTO cached = agendaCache.get(professionalId, date, catalogVersion);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = agendaCache.generation();
+        if (!professionalRepository.existsById(professionalId)) {
+            throw new IllegalArgumentException("Profesional no encontrado");
+        }
+        AgendaDTO agenda = build(professionalId, date);
+        agendaCache.put(agenda, catalogVersion, generation);
+        return agenda;
+    }
+
+    private AgendaDTO build(Long professionalId, LocalDate date) {
+        Map<Long, Availability> availabilityBySlot = new HashMap<>();
+        for (Availability a : availabilityRepository.findByProfessionalIdAndDate(professionalId, date)) {
+            availabilityBySlot.put(a.getSlot().getId(), a);
+        }
+
+        List<SlotCatalog.SlotInfo> slots = slotCatalog.all();
+        List<AppointmentRow> appointments = appointmentRepository.findRowsByProfessionalIdAndDateRange(
+                professionalId, date.atStartOfDay(), date.plusDays(1).atStartOfDay(), AppointmentStatus.CANCELADA);
+
+        // La fecha de la cita es día + hora de inicio del slot: se ubica por hora
+        Map<Long, AppointmentRow> appointmentBySlot = new HashMap<>();
+        for (AppointmentRow row : appointments) {
+            SlotCatalog.SlotInfo slot = slotAt(slots, row.getDate().toLocalTime());
+            if (slot != null) {
+                appointmentBySlot.putIfAbsent(slot.id(), row);
+            }
+        }
+
+        List<AgendaEntryDTO> entries = new ArrayList<>(slots.size());
+        for (SlotCatalog.SlotInfo slot : slots) {
+            Availability a = availabilityBySlot.get(slot.id());
+            AppointmentRow row = appointmentBySlot.get(slot.id());
+            entries.add(AgendaEntryDTO.builder()
+                    .slotId(slot.id())
+                    .startTime(slot.startTime())
+                    .endTime(slot.endTime())
+                    .period(slot.period())
+                    .availabilityId(a != null ? a.getId() : null)
+                    .availabilityStatus(a != null ? a.getStatus() : null)
+                    .appointment(row != null ? AppointmentService.toDTO(row) : null)
+                    .build());
+        }
+        return new AgendaDTO(professionalId, date, List.copyOf(entries));
+    }
+
+    private static SlotCatalog.SlotInfo slotAt(List<SlotCatalog.SlotInfo> slots, LocalTime time) {
+        for (SlotCatalog.SlotInfo s : slots) {
+            if (!time.isBefore(s.startTime()) && time.isBefore(s.endTime())) {
+                return s;
+            }
+        }
+        return null;
+    }
+}
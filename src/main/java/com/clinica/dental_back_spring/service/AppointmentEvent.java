@@ -0,0 +1,79 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.Appointment;
+import com.clinica.dental_back_spring.entity.AppointmentOutbox;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Cambio en el ciclo de vida de una cita. {@link AppointmentService} lo guarda en el outbox
+ * en su misma transacción y {@link AppointmentOutboxRelay} lo reparte después.
+ * Lleva solo ids y valores: los suscriptores no deben tocar entidades de la sesión.
+ */
+public record AppointmentEvent(
+        Type type,
+        Long appointmentId,
+        Long professionalId,
+        Long patientId,
+        Long treatmentId,
+        LocalDateTime date,
+        AppointmentStatus previousStatus,
+        AppointmentStatus status,
+        Instant occurredAt
+) {
+
+    public enum Type {
+        CREATED,
+        CONFIRMED,
+        CANCELLED,
+        COMPLETED,
+        // Vuelve a PENDIENTE desde otro estado
+        REOPENED
+    }
+
+    /** Evento para la cita en su estado actual, o vacío si el estado no ha cambiado. */
+    static Optional<AppointmentEvent> of(Appointment ap, AppointmentStatus previousStatus) {
+        AppointmentStatus status = ap.getStatus();
+        if (status == null || status == previousStatus) {
+            return Optional.empty();
+        }
+        Type type = (previousStatus == null) ? Type.CREATED : switch (status) {
+            case PENDIENTE -> Type.REOPENED;
+            case CONFIRMADA -> Type.CONFIRMED;
+            case CANCELADA -> Type.CANCELLED;
+            case REALIZADA -> Type.COMPLETED;
+        };
+        return Optional.of(new AppointmentEvent(
+                type,
+                ap.getId(),
+                ap.getProfessional() != null ? ap.getProfessional().getId() : null,
+                ap.getPatient() != null ? ap.getPatient().getId() : null,
+                ap.getTreatment() != null ? ap.getTreatment().getId() : null,
+                ap.getDate(),
+                previousStatus,
+                status,
+                Instant.now()));
+    }
+
+    AppointmentOutbox toOutbox() {
+        return AppointmentOutbox.builder()
+                .type(type)
+                .appointmentId(appointmentId)
+                .professionalId(professionalId)
+                .patientId(patientId)
+                .treatmentId(treatmentId)
+                .appointmentDate(date)
+                .previousStatus(previousStatus)
+                .status(status)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    static AppointmentEvent from(AppointmentOutbox o) {
+        return new AppointmentEvent(o.getType(), o.getAppointmentId(), o.getProfessionalId(), o.getPatientId(),
+                o.getTreatmentId(), o.getAppointmentDate(), o.getPreviousStatus(), o.getStatus(), o.getOccurredAt());
+    }
+}
@@ -0,0 +1,193 @@
+package com.clinica.dental_back_spring.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reparto en proceso de {@link AppointmentEvent} a los {@link AppointmentEventListener}.
+ * <p>
+ * Los eventos llegan desde {@link AppointmentOutboxRelay}, nunca desde la transacción de la
+ * reserva. Cada suscriptor tiene su cola acotada y su propio hilo: un suscriptor lento no
+ * retrasa a los demás. {@link #deliver} espera a que todos confirmen el lote (como mucho
+ * {@code ack-timeout-ms}); si alguno no lo hace (cola llena, lentitud o excepción) devuelve
+ * false y el relay deja las filas en el outbox para repetirlas. Ningún evento se descarta.
+ * Con {@code spring.threads.virtual.enabled} esos hilos son virtuales.
+ */
+@Component
+public class AppointmentEventDispatcher implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentEventDispatcher.class);
+
+    private final ObjectProvider<AppointmentEventListener> listeners;
+    private final int queueCapacity;
+    private final long ackTimeoutMs;
+    private final boolean virtualThreads;
+    private final ThreadFactory threadFactory;
+
+    private volatile List<Subscriber> subscribers = List.of();
+
+    public AppointmentEventDispatcher(ObjectProvider<AppointmentEventListener> listeners,
+                                      @Value("${appointment.events.queue-capacity:16}") int queueCapacity,
+                                      @Value("${appointment.events.ack-timeout-ms:10000}") long ackTimeoutMs,
+                                      Environment environment) {
+        this.listeners = listeners;
+        this.queueCapacity = queueCapacity;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor("appointment-events-").getVirtualThreadFactory()
+                : task -> {
+                    Thread t = new Thread(task);
+                    t.setDaemon(true);
+                    return t;
+                };
+    }
+
+    // Los suscriptores se resuelven al final del arranque: pueden depender de servicios que publican
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Subscriber> started = new ArrayList<>();
+        listeners.orderedStream().forEach(listener -> {
+            Subscriber s = new Subscriber(listener, new ArrayBlockingQueue<>(queueCapacity));
+            s.start();
+            started.add(s);
+        });
+        subscribers = List.copyOf(started);
+        logger.info("Eventos de citas: {} suscriptores (cola de {} lotes, confirmación {} ms, hilos virtuales: {})",
+                started.size(), queueCapacity, ackTimeoutMs, virtualThreads);
+    }
+
+    // El relay reclama cada lote durante más tiempo que esta espera
+    long ackTimeoutMs() {
+        return ackTimeoutMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::stop);
+    }
+
+    // ==========================================================
+    // 📣 ENTREGAR
+    // ==========================================================
+
+    /**
+     * Entrega el lote a todos los suscriptores y espera su confirmación.
+     * Devuelve false si alguno no lo ha procesado a tiempo o ha fallado: el lote debe repetirse.
+     */
+    public boolean deliver(List<AppointmentEvent> events) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        List<Delivery> pending = new ArrayList<>(subscribers.size());
+        try {
+            for (Subscriber s : subscribers) {
+                Delivery d = new Delivery(events);
+                if (!s.queue.offer(d, remaining(deadline), TimeUnit.NANOSECONDS)) {
+                    logger.warn("Cola de eventos llena para {}: el lote de {} eventos se repetirá", s.name(), events.size());
+                    return false;
+                }
+                pending.add(d);
+            }
+            for (Delivery d : pending) {
+                d.ack.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            }
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Sin confirmación en {} ms de un lote de {} eventos: se repetirá", ackTimeoutMs, events.size());
+            return false;
+        } catch (ExecutionException e) {
+            // El suscriptor ya lo ha registrado
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    // ==========================================================
+    // 🧩 Suscriptor: cola acotada + hilo propio
+    // ==========================================================
+    private record Delivery(List<AppointmentEvent> events, CompletableFuture<Void> ack) {
+
+        Delivery(List<AppointmentEvent> events) {
+            this(events, new CompletableFuture<>());
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final AppointmentEventListener listener;
+        private final BlockingQueue<Delivery> queue;
+        private final Thread thread;
+
+        private Subscriber(AppointmentEventListener listener, BlockingQueue<Delivery> queue) {
+            this.listener = listener;
+            this.queue = queue;
+            this.thread = threadFactory.newThread(this);
+            this.thread.setName("appointment-events-" + name());
+        }
+
+        String name() {
+            return listener.getClass().getSimpleName();
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    process(queue.take());
+                }
+            } catch (InterruptedException e) {
+                // Parada: lo pendiente no se confirma y el relay lo repetirá
+                Delivery d;
+                while ((d = queue.poll()) != null) {
+                    d.ack.completeExceptionally(e);
+                }
+            }
+        }
+
+        private void process(Delivery delivery) {
+            try {
+                listener.onEvents(delivery.events);
+                delivery.ack.complete(null);
+            } catch (RuntimeException e) {
+                logger.error("Error en {} procesando {} eventos de citas", name(), delivery.events.size(), e);
+                delivery.ack.completeExceptionally(e);
+            }
+        }
+    }
+}
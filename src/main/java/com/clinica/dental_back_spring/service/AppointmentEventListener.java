@@ -0,0 +1,15 @@
+package com.clinica.dental_back_spring.service;
+
+import java.util.List;
+
+/**
+ * Suscriptor de {@link AppointmentEvent}. Cualquier bean que lo implemente recibe los eventos
+ * en lotes, en orden de publicación, desde su propio hilo (nunca desde el de la petición).
+ * El lote se da por entregado cuando {@link #onEvents} vuelve sin excepción; si lanza, el
+ * relay lo repite más tarde. La entrega es al menos una vez (reintentos, caídas, o el fallo
+ * de otro suscriptor), así que el suscriptor debe ser idempotente.
+ */
+public interface AppointmentEventListener {
+
+    void onEvents(List<AppointmentEvent> events);
+}
@@ -0,0 +1,151 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AppointmentRow;
+import com.clinica.dental_back_spring.enums.ExportFormat;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de citas por rango de fechas en CSV o NDJSON.
+ * <p>
+ * Recorre un cursor de solo lectura ({@link AppointmentRepository#streamRows}) y escribe
+ * cada fila según llega, vaciando el buffer cada {@link AppointmentRepository#EXPORT_FETCH_SIZE}
+ * filas: la memoria no crece con el número de citas y el cliente recibe datos antes de
+ * que termine la consulta.
+ */
+@Service
+public class AppointmentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentExportService.class);
+
+    private static final String[] CSV_HEADER = {
+            "id", "date", "duration", "status", "createdBy",
+            "patientId", "patientFirstName", "patientLastName",
+            "professionalId", "professionalName", "professionalLastName",
+            "treatmentId", "treatmentName"
+    };
+
+    private final AppointmentRepository appointmentRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public AppointmentExportService(AppointmentRepository appointmentRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public static void validate(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Las fechas 'from' y 'to' son obligatorias");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La fecha 'to' no puede ser anterior a 'from'");
+        }
+    }
+
+    /**
+     * Escribe las citas con fecha en [from, to] (días completos) y devuelve cuántas filas
+     * se han exportado. No cierra {@code out}.
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDate from, LocalDate to, Long professionalId,
+                       ExportFormat format, OutputStream out) throws IOException {
+        validate(from, to);
+        long start = System.nanoTime();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+        writer.flush();
+
+        long rows = 0;
+        try (Stream<AppointmentRow> stream = appointmentRepository.streamRows(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(), professionalId)) {
+
+            Iterator<AppointmentRow> it = stream.iterator();
+            while (it.hasNext()) {
+                AppointmentRow row = it.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                if (++rows % AppointmentRepository.EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                    // Las filas son proyecciones, pero así el contexto nunca acumula nada
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+
+        logger.info("Exportadas {} citas ({}) {} -> {} en {} ms",
+                rows, format, from, to, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    // ==========================================================
+    // 🧩 CSV (RFC 4180, con textos neutralizados frente a fórmulas)
+    // ==========================================================
+    private static void writeCsv(Writer w, AppointmentRow r) throws IOException {
+        w.write(csv(r.getId()));
+        w.write(',');
+        w.write(csv(r.getDate()));
+        w.write(',');
+        w.write(csv(r.getDuration()));
+        w.write(',');
+        w.write(csv(r.getStatus() != null ? r.getStatus().getValue() : null));
+        w.write(',');
+        w.write(csv(r.getCreatedBy() != null ? r.getCreatedBy().getValue() : null));
+        w.write(',');
+        w.write(csv(r.getPatientId()));
+        w.write(',');
+        w.write(csv(r.getPatientFirstName()));
+        w.write(',');
+        w.write(csv(r.getPatientLastName()));
+        w.write(',');
+        w.write(csv(r.getProfessionalId()));
+        w.write(',');
+        w.write(csv(r.getProfessionalName()));
+        w.write(',');
+        w.write(csv(r.getProfessionalLastName()));
+        w.write(',');
+        w.write(csv(r.getTreatmentId()));
+        w.write(',');
+        w.write(csv(r.getTreatmentName()));
+        w.write('\n');
+    }
+
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        // Inyección de fórmulas (OWASP): un texto que empieza por = + - @ tab o CR se abriría como
+        // fórmula en Excel/LibreOffice; con la comilla delante se muestra tal cual
+        if (value instanceof CharSequence && !s.isEmpty() && "=+-@\t\r".indexOf(s.charAt(0)) >= 0) {
+            s = "'" + s;
+        }
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,110 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.AppointmentOutbox;
+import com.clinica.dental_back_spring.repository.AppointmentOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Reparte el outbox de citas ({@code appointment_outbox}) al {@link AppointmentEventDispatcher}.
+ * <p>
+ * Cada lote pasa por dos transacciones cortas y la entrega queda fuera de ambas: primero se
+ * bloquean las filas libres con {@code FOR UPDATE SKIP LOCKED} y se reclaman hasta
+ * {@code lease-ms}; tras el commit se entregan sin conexión ni bloqueo abiertos, y solo cuando
+ * todos los suscriptores han confirmado se borran. Varios nodos pueden drenar la tabla a la vez
+ * sin repartir dos veces la misma fila. Si algún suscriptor no confirma, el lote se suelta y la
+ * pasada se detiene hasta el siguiente sondeo; si el proceso cae tras reclamarlo, el plazo vence
+ * y otro relay lo repite (al menos una vez). Por eso el plazo debe superar {@code ack-timeout-ms}.
+ */
+@Component
+public class AppointmentOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentOutboxRelay.class);
+
+    // Tope de lotes por pasada, para no acaparar el hilo del scheduler con un atasco grande
+    static final int MAX_BATCHES_PER_RUN = 100;
+
+    private final AppointmentOutboxRepository outboxRepository;
+    private final AppointmentEventDispatcher dispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long leaseMs;
+
+    public AppointmentOutboxRelay(AppointmentOutboxRepository outboxRepository,
+                                  AppointmentEventDispatcher dispatcher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${appointment.outbox.batch-size:200}") int batchSize,
+                                  @Value("${appointment.outbox.lease-ms:60000}") long leaseMs) {
+        if (leaseMs <= dispatcher.ackTimeoutMs()) {
+            throw new IllegalArgumentException("appointment.outbox.lease-ms (" + leaseMs
+                    + ") debe superar appointment.events.ack-timeout-ms (" + dispatcher.ackTimeoutMs() + ")");
+        }
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.outbox.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            logger.error("Error repartiendo el outbox de citas", e);
+        }
+    }
+
+    /** Reparte lotes hasta vaciar la tabla (o llegar al tope por pasada). Devuelve las filas repartidas. */
+    public int drain() {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            int relayed = relayBatch();
+            total += relayed;
+            if (relayed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /** Un lote: reclamar (transacción corta), entregar sin transacción y, confirmado por todos, borrar. */
+    public int relayBatch() {
+        // Milisegundos: DATETIME(6) no guarda nanos y release() compara el plazo por igualdad
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant until = now.plusMillis(leaseMs);
+        List<AppointmentOutbox> rows = transactionTemplate.execute(status -> {
+            List<AppointmentOutbox> claimed = outboxRepository.lockNextClaimable(now, Limit.of(batchSize));
+            if (!claimed.isEmpty()) {
+                outboxRepository.claim(ids(claimed), until);
+            }
+            return claimed;
+        });
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = ids(rows);
+        if (!dispatcher.deliver(rows.stream().map(AppointmentEvent::from).toList())) {
+            // Las filas se quedan; devolver 0 corta el drenaje de esta pasada
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.release(ids, until));
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(ids));
+        return rows.size();
+    }
+
+    private static List<Long> ids(List<AppointmentOutbox> rows) {
+        return rows.stream().map(AppointmentOutbox::getId).toList();
+    }
+}
@@ -7,20 +7,34 @@ import com.clinica.dental_back_spring.enums.CreatedBy;
 import com.clinica.dental_back_spring.enums.StatusAvailability;
 import com.clinica.dental_back_spring.repository.*;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class AppointmentService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    // Límites del tipo DATETIME de MySQL cuando no se indica rango
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final AppointmentRepository appointmentRepository;
     private final AvailabilityRepository availabilityRepository;
     private final SlotRepository slotRepository;
     private final PatientRepository patientRepository;
     private final ProfessionalRepository professionalRepository;
     private final TreatmentRepository treatmentRepository;
+    private final SlotCatalog slotCatalog;
+    private final OccupancyIndex occupancyIndex;
+    private final AgendaCache agendaCache;
+    private final ClinicAnalytics clinicAnalytics;
+    private final AppointmentOutboxRepository outboxRepository;
 
     public AppointmentService(
             AppointmentRepository appointmentRepository,
@@ -28,7 +42,12 @@ public class AppointmentService {
             SlotRepository slotRepository,
             PatientRepository patientRepository,
             ProfessionalRepository professionalRepository,
-            TreatmentRepository treatmentRepository
+            TreatmentRepository treatmentRepository,
+            SlotCatalog slotCatalog,
+            OccupancyIndex occupancyIndex,
+            AgendaCache agendaCache,
+            ClinicAnalytics clinicAnalytics,
+            AppointmentOutboxRepository outboxRepository
     ) {
         this.appointmentRepository = appointmentRepository;
         this.availabilityRepository = availabilityRepository;
@@ -36,6 +55,11 @@ public class AppointmentService {
         this.patientRepository = patientRepository;
         this.professionalRepository = professionalRepository;
         this.treatmentRepository = treatmentRepository;
+        this.slotCatalog = slotCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.agendaCache = agendaCache;
+        this.clinicAnalytics = clinicAnalytics;
+        this.outboxRepository = outboxRepository;
     }
 
     // ==========================================================
@@ -44,30 +68,23 @@ public class AppointmentService {
     @Transactional
     public AppointmentDTO createAppointment(CreateAppointmentRequest req) {
 
-        // SLOT (hora)
-        Slot slot = slotRepository.findById(req.getSlotId())
-                .orElseThrow(() -> new IllegalArgumentException("Slot no encontrado"));
+        // SLOT (hora): catálogo en memoria + referencia JPA sin SELECT
+        SlotCatalog.SlotInfo slotInfo = slotCatalog.get(req.getSlotId());
+        Slot slot = slotRepository.getReferenceById(slotInfo.id());
 
-        // AVAILABILITY (fecha + profesional)
-        Availability availability = availabilityRepository.findBySlotIdAndProfessionalId(
-                req.getSlotId(), req.getProfessionalId()
+        // AVAILABILITY (fecha + profesional) bloqueada hasta el commit:
+        // dos reservas simultáneas del mismo hueco se serializan aquí
+        Availability availability = availabilityRepository.findByProfessionalIdAndDateAndSlotIdForUpdate(
+                req.getProfessionalId(), req.getDate(), req.getSlotId()
         ).orElseThrow(() -> new IllegalArgumentException(
-                "No existe disponibilidad para ese profesional y slot")
+                "No existe disponibilidad para ese profesional, día y slot")
         );
 
-        // Asegurar estado libre
+        // Asegurar estado libre (ya con la fila bloqueada, el estado es fiable)
         if (availability.getStatus() != StatusAvailability.LIBRE) {
             throw new IllegalStateException("Ese horario ya está ocupado o no disponible");
         }
 
-        // Evitar citas duplicadas en ese slot (seguridad extra)
-        long count = appointmentRepository.countBySlotIdAndStatusNot(
-                slot.getId(), AppointmentStatus.CANCELADA
-        );
-        if (count > 0) {
-            throw new IllegalStateException("El slot ya está reservado");
-        }
-
         // Paciente
         Patient patient = patientRepository.findById(req.getPatientId())
                 .orElseThrow(() -> new IllegalArgumentException("Paciente no encontrado"));
@@ -83,11 +100,12 @@ public class AppointmentService {
         // FECHA REAL: availability.date + slot.startTime
         LocalDateTime appointmentDate = LocalDateTime.of(
                 availability.getDate(),
-                slot.getStartTime()
+                slotInfo.startTime()
         );
 
         // Crear cita
         Appointment ap = Appointment.builder()
+                .availability(availability)
                 .slot(slot)
                 .patient(patient)
                 .professional(professional)
@@ -102,24 +120,65 @@ public class AppointmentService {
 
         // Marcar availability como RESERVADO
         availability.setStatus(StatusAvailability.RESERVADO);
+        occupancyIndex.markBusy(professional.getId(), availability.getDate(), slotInfo.id());
+        agendaCache.invalidate(professional.getId(), availability.getDate());
+        clinicAnalytics.appointmentBooked(professional.getId(), availability.getDate(),
+                treatment.getId(), AppointmentStatus.PENDIENTE);
+        clinicAnalytics.availabilityChanged(professional.getId(), availability.getDate(),
+                StatusAvailability.LIBRE, StatusAvailability.RESERVADO);
+        publish(ap, null);
 
         return toDTO(ap);
     }
 
     // ==========================================================
-    // 👤 CITAS POR PACIENTE
+    // 👤 CITAS POR PACIENTE (keyset, rango de fechas)
     // ==========================================================
-    public List<AppointmentDTO> getAppointmentsByPatient(Long patientId) {
-        return appointmentRepository.findByPatientId(patientId)
-                .stream().map(this::toDTO).toList();
+    public AppointmentPage getAppointmentsByPatient(Long patientId, LocalDate from, LocalDate to,
+                                                    String cursor, Integer size) {
+        Range r = range(from, to, cursor, size);
+        return toPage(appointmentRepository.findRowsByPatientIdAndDateBetween(
+                patientId, r.from, r.to, r.afterDate, r.afterId, Limit.of(r.size + 1)), r.size);
     }
 
     // ==========================================================
-    // 👨‍⚕️ CITAS POR PROFESIONAL
+    // 👨‍⚕️ CITAS POR PROFESIONAL (keyset, rango de fechas)
     // ==========================================================
-    public List<AppointmentDTO> getAppointmentsByProfessional(Long professionalId) {
-        return appointmentRepository.findByProfessionalId(professionalId)
-                .stream().map(this::toDTO).toList();
+    public AppointmentPage getAppointmentsByProfessional(Long professionalId, LocalDate from, LocalDate to,
+                                                         String cursor, Integer size) {
+        Range r = range(from, to, cursor, size);
+        return toPage(appointmentRepository.findRowsByProfessionalIdAndDateBetween(
+                professionalId, r.from, r.to, r.afterDate, r.afterId, Limit.of(r.size + 1)), r.size);
+    }
+
+    private Range range(LocalDate from, LocalDate to, String cursor, Integer size) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("La fecha 'to' no puede ser anterior a 'from'");
+        }
+        int pageSize = (size == null) ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        LocalDateTime start = (from != null) ? from.atStartOfDay() : MIN_DATE;
+        LocalDateTime end = (to != null) ? to.plusDays(1).atStartOfDay() : MAX_DATE;
+
+        // Sin cursor: (from, 0) incluye todas las citas desde 'from' (los ids empiezan en 1)
+        AppointmentCursor after = (cursor == null || cursor.isBlank())
+                ? new AppointmentCursor(start, 0L)
+                : AppointmentCursor.decode(cursor);
+        return new Range(start, end, after.date(), after.id(), pageSize);
+    }
+
+    // Se pide size + 1 filas para saber si existe página siguiente sin un COUNT
+    private AppointmentPage toPage(List<AppointmentRow> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<AppointmentRow> page = hasMore ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasMore) {
+            AppointmentRow last = page.get(page.size() - 1);
+            next = new AppointmentCursor(last.getDate(), last.getId()).encode();
+        }
+        return new AppointmentPage(page.stream().map(AppointmentService::toDTO).toList(), next);
+    }
+
+    private record Range(LocalDateTime from, LocalDateTime to, LocalDateTime afterDate, Long afterId, int size) {
     }
 
     // ==========================================================
@@ -131,18 +190,18 @@ public class AppointmentService {
         Appointment ap = appointmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cita no encontrada"));
 
+        AppointmentStatus previous = ap.getStatus();
+        // Una cita cancelada ya soltó su hueco, que otra cita puede haber reservado: no se reactiva
+        if (previous == AppointmentStatus.CANCELADA && status != AppointmentStatus.CANCELADA) {
+            throw new IllegalStateException("Una cita cancelada no puede reactivarse; crea una nueva reserva");
+        }
         ap.setStatus(status);
+        agendaCache.invalidate(ap.getProfessional().getId(), ap.getDate().toLocalDate());
+        statusChanged(ap, previous);
 
         // Si pasa a cancelada → liberar disponibilidad
         if (status == AppointmentStatus.CANCELADA) {
-            Availability av = availabilityRepository.findBySlotIdAndProfessionalId(
-                    ap.getSlot().getId(),
-                    ap.getProfessional().getId()
-            ).orElse(null);
-
-            if (av != null) {
-                av.setStatus(StatusAvailability.LIBRE);
-            }
+            releaseAvailability(ap);
         }
 
         return toDTO(ap);
@@ -157,19 +216,45 @@ public class AppointmentService {
         Appointment ap = appointmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cita no encontrada"));
 
+        AppointmentStatus previous = ap.getStatus();
         ap.setStatus(AppointmentStatus.CANCELADA);
         ap.setCancellationReason(reason);
+        agendaCache.invalidate(ap.getProfessional().getId(), ap.getDate().toLocalDate());
+        statusChanged(ap, previous);
+
+        releaseAvailability(ap);
 
-        Availability av = availabilityRepository.findBySlotIdAndProfessionalId(
-                ap.getSlot().getId(),
-                ap.getProfessional().getId()
-        ).orElse(null);
+        return toDTO(ap);
+    }
 
-        if (av != null) {
-            av.setStatus(StatusAvailability.LIBRE);
+    // Libera la disponibilidad reservada: UPDATE condicional por id de la referencia de la cita.
+    // Citas antiguas sin referencia: se resuelve por (profesional, día, slot).
+    // Si el hueco ya no está reservado para esta cita, no se toca ni la fila ni los índices.
+    private void releaseAvailability(Appointment ap) {
+        Long availabilityId = (ap.getAvailability() != null)
+                ? ap.getAvailability().getId()
+                : availabilityRepository.findByProfessionalIdAndDateAndSlotId(
+                        ap.getProfessional().getId(),
+                        ap.getDate().toLocalDate(),
+                        ap.getSlot().getId()
+                ).map(Availability::getId).orElse(null);
+
+        if (availabilityId != null && availabilityRepository.release(availabilityId, ap.getId()) == 1) {
+            occupancyIndex.markFree(ap.getProfessional().getId(), ap.getDate().toLocalDate(), ap.getSlot().getId());
+            clinicAnalytics.availabilityChanged(ap.getProfessional().getId(), ap.getDate().toLocalDate(),
+                    StatusAvailability.RESERVADO, StatusAvailability.LIBRE);
         }
+    }
 
-        return toDTO(ap);
+    private void statusChanged(Appointment ap, AppointmentStatus previous) {
+        clinicAnalytics.appointmentStatusChanged(ap.getProfessional().getId(), ap.getDate().toLocalDate(),
+                ap.getTreatment() != null ? ap.getTreatment().getId() : null, previous, ap.getStatus());
+        publish(ap, previous);
+    }
+
+    // Evento de ciclo de vida: al outbox en la misma transacción; el relay lo reparte después
+    private void publish(Appointment ap, AppointmentStatus previous) {
+        AppointmentEvent.of(ap, previous).ifPresent(e -> outboxRepository.save(e.toOutbox()));
     }
 
     // ==========================================================
@@ -187,4 +272,29 @@ public class AppointmentService {
                 .treatment(SimpleTreatmentDTO.from(ap.getTreatment()))
                 .build();
     }
+
+    // Listados: se construye desde la fila plana, sin tocar asociaciones lazy
+    static AppointmentDTO toDTO(AppointmentRow row) {
+        return AppointmentDTO.builder()
+                .id(row.getId())
+                .date(row.getDate())
+                .duration(row.getDuration())
+                .status(row.getStatus() != null ? row.getStatus().name() : null)
+                .createdBy(row.getCreatedBy() != null ? row.getCreatedBy().name().toLowerCase() : null)
+                .patient(row.getPatientId() == null ? null : SimplePatientDTO.builder()
+                        .id(row.getPatientId())
+                        .firstName(row.getPatientFirstName())
+                        .lastName(row.getPatientLastName())
+                        .build())
+                .professional(row.getProfessionalId() == null ? null : SimpleProfessionalDTO.builder()
+                        .id(row.getProfessionalId())
+                        .name(row.getProfessionalName())
+                        .lastName(row.getProfessionalLastName())
+                        .build())
+                .treatment(row.getTreatmentId() == null ? null : SimpleTreatmentDTO.builder()
+                        .id(row.getTreatmentId())
+                        .name(row.getTreatmentName())
+                        .build())
+                .build();
+    }
 }
@@ -1,34 +1,64 @@
 package com.clinica.dental_back_spring.service;
 
+import com.clinica.dental_back_spring.dto.AvailabilityBulkResultDTO;
 import com.clinica.dental_back_spring.dto.AvailabilityDTO;
+import com.clinica.dental_back_spring.dto.CreateAvailabilityBulkRequest;
 import com.clinica.dental_back_spring.dto.CreateAvailabilityRequest;
+import com.clinica.dental_back_spring.dto.FreeSlotDTO;
+import com.clinica.dental_back_spring.dto.TreatmentDTO;
 import com.clinica.dental_back_spring.dto.UpdateAvailabilityRequest;
 import com.clinica.dental_back_spring.entity.Availability;
 import com.clinica.dental_back_spring.entity.Professional;
 import com.clinica.dental_back_spring.entity.Slot;
 import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.AvailabilityKey;
 import com.clinica.dental_back_spring.repository.AvailabilityRepository;
 import com.clinica.dental_back_spring.repository.ProfessionalRepository;
 import com.clinica.dental_back_spring.repository.SlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @Service
 public class AvailabilityService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
+
+    static final int MAX_BULK_DAYS = 366;
+    static final int MAX_BULK_ROWS = 100_000;
+    private static final Set<DayOfWeek> WORKING_DAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
     private final AvailabilityRepository availabilityRepository;
     private final ProfessionalRepository professionalRepository;
     private final SlotRepository slotRepository;
+    private final SlotCatalog slotCatalog;
+    private final OccupancyIndex occupancyIndex;
+    private final TreatmentCatalog treatmentCatalog;
+    private final AgendaCache agendaCache;
+    private final ClinicAnalytics clinicAnalytics;
 
     public AvailabilityService(AvailabilityRepository availabilityRepository,
                                ProfessionalRepository professionalRepository,
-                               SlotRepository slotRepository) {
+                               SlotRepository slotRepository,
+                               SlotCatalog slotCatalog,
+                               OccupancyIndex occupancyIndex,
+                               TreatmentCatalog treatmentCatalog,
+                               AgendaCache agendaCache,
+                               ClinicAnalytics clinicAnalytics) {
         this.availabilityRepository = availabilityRepository;
         this.professionalRepository = professionalRepository;
         this.slotRepository = slotRepository;
+        this.slotCatalog = slotCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.treatmentCatalog = treatmentCatalog;
+        this.agendaCache = agendaCache;
+        this.clinicAnalytics = clinicAnalytics;
     }
 
     // ==========================================================
@@ -64,8 +94,9 @@ public class AvailabilityService {
         Professional professional = professionalRepository.findById(req.getProfessionalId())
                 .orElseThrow(() -> new IllegalArgumentException("Profesional no encontrado"));
 
-        Slot slot = slotRepository.findById(req.getSlotId())
-                .orElseThrow(() -> new IllegalArgumentException("Slot no encontrado"));
+        // Validación contra el catálogo en memoria; la entidad es solo una referencia (sin SELECT)
+        slotCatalog.get(req.getSlotId());
+        Slot slot = slotRepository.getReferenceById(req.getSlotId());
 
         // 🚫 Evitar duplicados (profesional + día + slot)
         if (availabilityRepository.existsByProfessionalIdAndDateAndSlotId(
@@ -82,10 +113,100 @@ public class AvailabilityService {
                 .build();
 
         availabilityRepository.save(a);
+        occupancyIndex.markFree(professional.getId(), a.getDate(), slot.getId());
+        agendaCache.invalidate(professional.getId(), a.getDate());
+        clinicAnalytics.availabilityChanged(professional.getId(), a.getDate(), null, StatusAvailability.LIBRE);
 
         return toDTO(a);
     }
 
+    // ==========================================================
+    // 📆 GENERACIÓN MASIVA (profesionales x días x slots)
+    // ==========================================================
+    @Transactional
+    public AvailabilityBulkResultDTO createBulk(CreateAvailabilityBulkRequest req) {
+        long start = System.nanoTime();
+
+        if (req.getTo().isBefore(req.getFrom())) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la de inicio");
+        }
+        if (ChronoUnit.DAYS.between(req.getFrom(), req.getTo()) >= MAX_BULK_DAYS) {
+            throw new IllegalArgumentException("El rango máximo es de " + MAX_BULK_DAYS + " días");
+        }
+
+        // Profesionales: una consulta para todos
+        List<Professional> professionals = professionalRepository.findAllById(req.getProfessionalIds());
+        if (professionals.size() != req.getProfessionalIds().size()) {
+            throw new IllegalArgumentException("Algún profesional no existe");
+        }
+
+        List<Long> slotIds = resolveSlotIds(req);
+        if (slotIds.isEmpty()) {
+            throw new IllegalArgumentException("No hay slots que coincidan con la selección");
+        }
+
+        Set<DayOfWeek> weekdays = (req.getWeekdays() == null || req.getWeekdays().isEmpty())
+                ? WORKING_DAYS
+                : req.getWeekdays();
+        List<LocalDate> days = req.getFrom().datesUntil(req.getTo().plusDays(1))
+                .filter(d -> weekdays.contains(d.getDayOfWeek()))
+                .toList();
+
+        long requested = (long) professionals.size() * days.size() * slotIds.size();
+        if (requested > MAX_BULK_ROWS) {
+            throw new IllegalArgumentException("Demasiadas disponibilidades en una petición (máximo " + MAX_BULK_ROWS + ")");
+        }
+
+        // 🚫 Duplicados: una única consulta por rango en lugar de un exists por fila
+        Set<AvailabilityKey> existing = new HashSet<>(availabilityRepository.findKeysInRange(
+                req.getProfessionalIds(), req.getFrom(), req.getTo()));
+
+        List<AvailabilityKey> toInsert = new ArrayList<>();
+        for (Professional p : professionals) {
+            for (LocalDate day : days) {
+                for (Long slotId : slotIds) {
+                    AvailabilityKey key = new AvailabilityKey(p.getId(), day, slotId);
+                    if (!existing.contains(key)) {
+                        toInsert.add(key);
+                    }
+                }
+            }
+        }
+
+        int created = availabilityRepository.insertFreeInBatches(toInsert);
+        occupancyIndex.markFree(toInsert);
+        agendaCache.invalidate(toInsert);
+        clinicAnalytics.availabilitiesCreated(toInsert);
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : created / (elapsedNanos / 1_000_000_000.0);
+        logger.info("Generadas {} disponibilidades ({} omitidas) en {} ms ({} filas/s)",
+                created, requested - toInsert.size(), elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+
+        return AvailabilityBulkResultDTO.builder()
+                .requested((int) requested)
+                .created(created)
+                .skipped((int) requested - toInsert.size())
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    private List<Long> resolveSlotIds(CreateAvailabilityBulkRequest req) {
+        List<SlotCatalog.SlotInfo> slots;
+        if (req.getSlotIds() != null && !req.getSlotIds().isEmpty()) {
+            slots = req.getSlotIds().stream().map(slotCatalog::get).toList();
+        } else if (req.getPeriod() != null) {
+            slots = slotCatalog.byPeriod(req.getPeriod());
+        } else {
+            slots = slotCatalog.all();
+        }
+        return slots.stream()
+                .sorted(Comparator.comparing(SlotCatalog.SlotInfo::startTime))
+                .map(SlotCatalog.SlotInfo::id)
+                .toList();
+    }
+
     // ==========================================================
     // ✏️ ACTUALIZAR DISPONIBILIDAD
     // ==========================================================
@@ -93,6 +214,8 @@ public class AvailabilityService {
     public AvailabilityDTO update(Long id, UpdateAvailabilityRequest req) {
         Availability a = availabilityRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Disponibilidad no encontrada"));
+        LocalDate previousDate = a.getDate();
+        StatusAvailability previousStatus = a.getStatus();
 
         // =============================
         // ❗ Cambiar fecha (solo si NO tiene citas)
@@ -110,6 +233,8 @@ public class AvailabilityService {
                 throw new IllegalArgumentException("Ya existe una disponibilidad para ese profesional en la fecha nueva.");
             }
 
+            occupancyIndex.markBusy(a.getProfessional().getId(), a.getDate(), a.getSlot().getId());
+            agendaCache.invalidate(a.getProfessional().getId(), a.getDate());
             a.setDate(req.getDate());
         }
 
@@ -120,6 +245,19 @@ public class AvailabilityService {
             a.setStatus(req.getStatus());
         }
 
+        agendaCache.invalidate(a.getProfessional().getId(), a.getDate());
+        if (a.getStatus() == StatusAvailability.LIBRE) {
+            occupancyIndex.markFree(a.getProfessional().getId(), a.getDate(), a.getSlot().getId());
+        } else {
+            occupancyIndex.markBusy(a.getProfessional().getId(), a.getDate(), a.getSlot().getId());
+        }
+        if (!previousDate.equals(a.getDate())) {
+            clinicAnalytics.availabilityChanged(a.getProfessional().getId(), previousDate, previousStatus, null);
+            clinicAnalytics.availabilityChanged(a.getProfessional().getId(), a.getDate(), null, a.getStatus());
+        } else {
+            clinicAnalytics.availabilityChanged(a.getProfessional().getId(), a.getDate(), previousStatus, a.getStatus());
+        }
+
         return toDTO(a);
     }
 
@@ -136,22 +274,57 @@ public class AvailabilityService {
             throw new IllegalArgumentException("No se puede eliminar esta disponibilidad porque tiene citas asociadas.");
         }
 
+        StatusAvailability previousStatus = a.getStatus();
         a.setStatus(StatusAvailability.NO_DISPONIBLE);
+        occupancyIndex.markBusy(a.getProfessional().getId(), a.getDate(), a.getSlot().getId());
+        agendaCache.invalidate(a.getProfessional().getId(), a.getDate());
+        clinicAnalytics.availabilityChanged(a.getProfessional().getId(), a.getDate(),
+                previousStatus, StatusAvailability.NO_DISPONIBLE);
+    }
+
+    // ==========================================================
+    // 🔎 BUSCAR HUECOS LIBRES
+    // ==========================================================
+    static final int SEARCH_DEFAULT_DAYS = 14;
+    static final int SEARCH_MAX_DAYS = 92;
+    static final int SEARCH_DEFAULT_LIMIT = 20;
+    static final int SEARCH_MAX_LIMIT = 200;
+
+    public List<FreeSlotDTO> searchFreeSlots(Long treatmentId, LocalDate from, LocalDate to,
+                                             Long professionalId, Integer limit) {
+        TreatmentDTO treatment = treatmentCatalog.get(treatmentId);
+
+        LocalDate start = (from != null) ? from : LocalDate.now();
+        LocalDate end = (to != null) ? to : start.plusDays(SEARCH_DEFAULT_DAYS - 1);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La fecha 'to' no puede ser anterior a 'from'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= SEARCH_MAX_DAYS) {
+            throw new IllegalArgumentException("El rango de búsqueda no puede superar " + SEARCH_MAX_DAYS + " días");
+        }
+
+        int max = (limit == null || limit <= 0) ? SEARCH_DEFAULT_LIMIT : Math.min(limit, SEARCH_MAX_LIMIT);
+        int duration = (treatment.getDuration() != null) ? treatment.getDuration() : 0;
+
+        return occupancyIndex.search(duration, start, end, professionalId, max);
     }
 
     // ==========================================================
     // 🔁 DTO
     // ==========================================================
+    // Los ids de las asociaciones lazy se leen del proxy sin inicializarlo;
+    // las horas del slot salen del catálogo en memoria (0 consultas)
     private AvailabilityDTO toDTO(Availability a) {
+        SlotCatalog.SlotInfo slot = slotCatalog.get(a.getSlot().getId());
         return AvailabilityDTO.builder()
                 .id(a.getId())
                 .professionalId(a.getProfessional().getId())
                 .date(a.getDate())
                 .status(a.getStatus())
-                .slotId(a.getSlot().getId())
-                .startTime(a.getSlot().getStartTime())
-                .endTime(a.getSlot().getEndTime())
-                .period(a.getSlot().getPeriod())
+                .slotId(slot.id())
+                .startTime(slot.startTime())
+                .endTime(slot.endTime())
+                .period(slot.period())
                 .build();
     }
 }
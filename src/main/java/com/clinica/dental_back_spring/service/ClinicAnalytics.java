@@ -0,0 +1,321 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AnalyticsSummaryDTO;
+import com.clinica.dental_back_spring.dto.TreatmentAnalyticsDTO;
+import com.clinica.dental_back_spring.dto.TreatmentDTO;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores de analítica agregados por día: para cada (profesional, tratamiento) el número
+ * de citas por {@link AppointmentStatus} y, para cada profesional, las disponibilidades por
+ * {@link StatusAvailability}.
+ * <p>
+ * Se cargan al arrancar con dos consultas GROUP BY y se actualizan tras el commit desde
+ * {@link AppointmentService} y {@link AvailabilityService}. Los días se indexan por
+ * profesional: un rango se responde sumando solo los días de ese profesional (o de cada uno,
+ * sin filtro), sin recorrer citas. Los ingresos se calculan al consultar con el precio actual
+ * de {@link TreatmentCatalog}.
+ */
+@Component
+public class ClinicAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClinicAnalytics.class);
+
+    private static final int STATUSES = AppointmentStatus.values().length;
+    private static final int AVAILABILITY_STATUSES = StatusAvailability.values().length;
+    // Los ids de MySQL empiezan en 1: 0 hace de null, que ConcurrentHashMap no admite como clave
+    private static final long NONE = 0L;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final TreatmentCatalog treatmentCatalog;
+
+    // profesional -> día -> tratamiento -> contadores; las disponibilidades van sin tratamiento (NONE)
+    private volatile Map<Long, ConcurrentSkipListMap<LocalDate, Map<Long, Counters>>> index = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Cambios confirmados durante una recarga: se repiten sobre el índice nuevo antes de publicarlo
+    private final Object deltaLock = new Object();
+    private List<Delta> replay;
+
+    public ClinicAnalytics(AppointmentRepository appointmentRepository,
+                           AvailabilityRepository availabilityRepository,
+                           TreatmentCatalog treatmentCatalog) {
+        this.appointmentRepository = appointmentRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.treatmentCatalog = treatmentCatalog;
+    }
+
+    /**
+     * Recarga completa. Los cambios que se confirman mientras corren las consultas se siguen
+     * aplicando al índice actual y además se guardan para repetirlos sobre el nuevo antes de
+     * publicarlo: el cambio de índice no pierde ninguno.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        synchronized (deltaLock) {
+            replay = new ArrayList<>();
+        }
+        Map<Long, ConcurrentSkipListMap<LocalDate, Map<Long, Counters>>> fresh = new ConcurrentHashMap<>();
+        try {
+            for (AppointmentCount c : appointmentRepository.countByProfessionalDayTreatmentAndStatus()) {
+                if (c.status() != null) {
+                    counters(fresh, c.professionalId(), c.date(), c.treatmentId())
+                            .appointments.addAndGet(c.status().ordinal(), c.count());
+                }
+            }
+            for (AvailabilityCount c : availabilityRepository.countByProfessionalDayAndStatus()) {
+                if (c.status() != null) {
+                    counters(fresh, c.professionalId(), c.date(), null)
+                            .availability.addAndGet(c.status().ordinal(), c.count());
+                }
+            }
+            synchronized (deltaLock) {
+                replay.forEach(delta -> delta.applyTo(fresh));
+                index = fresh;
+            }
+        } finally {
+            synchronized (deltaLock) {
+                replay = null;
+            }
+        }
+        loaded = true;
+        logger.info("Analítica cargada: {} profesionales en {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ==========================================================
+    // 🔁 EVENTOS (tras el commit)
+    // ==========================================================
+    public void appointmentBooked(Long professionalId, LocalDate day, Long treatmentId, AppointmentStatus status) {
+        appointmentStatusChanged(professionalId, day, treatmentId, null, status);
+    }
+
+    public void appointmentStatusChanged(Long professionalId, LocalDate day, Long treatmentId,
+                                         AppointmentStatus from, AppointmentStatus to) {
+        if (from == to) {
+            return;
+        }
+        apply(target -> {
+            Counters c = counters(target, professionalId, day, treatmentId);
+            if (from != null) {
+                c.appointments.decrementAndGet(from.ordinal());
+            }
+            if (to != null) {
+                c.appointments.incrementAndGet(to.ordinal());
+            }
+        });
+    }
+
+    /** Cambio de estado de una disponibilidad; {@code from} null = alta, {@code to} null = baja. */
+    public void availabilityChanged(Long professionalId, LocalDate day,
+                                    StatusAvailability from, StatusAvailability to) {
+        if (from == to) {
+            return;
+        }
+        apply(target -> {
+            Counters c = counters(target, professionalId, day, null);
+            if (from != null) {
+                c.availability.decrementAndGet(from.ordinal());
+            }
+            if (to != null) {
+                c.availability.incrementAndGet(to.ordinal());
+            }
+        });
+    }
+
+    public void availabilitiesCreated(Collection<AvailabilityKey> keys) {
+        apply(target -> keys.forEach(k -> counters(target, k.professionalId(), k.date(), null)
+                .availability.incrementAndGet(StatusAvailability.LIBRE.ordinal())));
+    }
+
+    // ==========================================================
+    // 📊 CONSULTAS
+    // ==========================================================
+    public AnalyticsSummaryDTO summary(LocalDate from, LocalDate to, Long professionalId) {
+        long[] availability = new long[AVAILABILITY_STATUSES];
+        Map<Long, long[]> byTreatment = new HashMap<>();
+        rollUp(from, to, professionalId, availability, byTreatment);
+
+        long[] appointments = new long[STATUSES];
+        byTreatment.values().forEach(counts -> add(appointments, counts));
+        Revenue revenue = new Revenue();
+        byTreatment.forEach(revenue::add);
+
+        long booked = availability[StatusAvailability.RESERVADO.ordinal()];
+        long open = booked + availability[StatusAvailability.LIBRE.ordinal()];
+        long total = Arrays.stream(appointments).sum();
+
+        return AnalyticsSummaryDTO.builder()
+                .from(from)
+                .to(to)
+                .professionalId(professionalId)
+                .availabilityByStatus(availabilityMap(availability))
+                .utilisation(open == 0 ? 0.0 : (double) booked / open)
+                .appointmentsByStatus(appointmentMap(appointments))
+                .cancellationRate(total == 0 ? 0.0 : (double) appointments[AppointmentStatus.CANCELADA.ordinal()] / total)
+                .expectedRevenue(revenue.expected)
+                .realizedRevenue(revenue.realized)
+                .build();
+    }
+
+    public List<TreatmentAnalyticsDTO> byTreatment(LocalDate from, LocalDate to, Long professionalId) {
+        Map<Long, long[]> byTreatment = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        rollUp(from, to, professionalId, new long[AVAILABILITY_STATUSES], byTreatment);
+
+        List<TreatmentAnalyticsDTO> result = new ArrayList<>();
+        byTreatment.forEach((treatmentId, counts) -> {
+            Revenue revenue = new Revenue();
+            revenue.add(treatmentId, counts);
+            TreatmentDTO t = treatment(treatmentId);
+            result.add(TreatmentAnalyticsDTO.builder()
+                    .treatmentId(treatmentId)
+                    .treatmentName(t != null ? t.getName() : null)
+                    .appointmentsByStatus(appointmentMap(counts))
+                    .expectedRevenue(revenue.expected)
+                    .realizedRevenue(revenue.realized)
+                    .build());
+        });
+        return result;
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private void rollUp(LocalDate from, LocalDate to, Long professionalId,
+                        long[] availability, Map<Long, long[]> byTreatment) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Las fechas 'from' y 'to' son obligatorias");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La fecha 'to' no puede ser anterior a 'from'");
+        }
+        if (!loaded) {
+            load();
+        }
+        Map<Long, ConcurrentSkipListMap<LocalDate, Map<Long, Counters>>> current = index;
+        Collection<ConcurrentSkipListMap<LocalDate, Map<Long, Counters>>> ledgers = professionalId == null
+                ? current.values()
+                : Optional.ofNullable(current.get(professionalId)).map(List::of).orElse(List.of());
+        for (ConcurrentSkipListMap<LocalDate, Map<Long, Counters>> ledger : ledgers) {
+            for (Map<Long, Counters> treatments : ledger.subMap(from, true, to, true).values()) {
+                treatments.forEach((treatmentKey, c) -> {
+                    for (int i = 0; i < AVAILABILITY_STATUSES; i++) {
+                        availability[i] += c.availability.get(i);
+                    }
+                    Long treatmentId = treatmentKey == NONE ? null : treatmentKey;
+                    if (treatmentId != null || hasAppointments(c)) {
+                        long[] counts = byTreatment.computeIfAbsent(treatmentId, id -> new long[STATUSES]);
+                        for (int i = 0; i < STATUSES; i++) {
+                            counts[i] += c.appointments.get(i);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private synchronized void load() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    private void apply(Delta delta) {
+        AfterCommit.run(() -> {
+            synchronized (deltaLock) {
+                delta.applyTo(index);
+                if (replay != null) {
+                    replay.add(delta);
+                }
+            }
+        });
+    }
+
+    private static boolean hasAppointments(Counters c) {
+        for (int i = 0; i < STATUSES; i++) {
+            if (c.appointments.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TreatmentDTO treatment(Long treatmentId) {
+        if (treatmentId == null) {
+            return null;
+        }
+        try {
+            return treatmentCatalog.get(treatmentId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Counters counters(Map<Long, ConcurrentSkipListMap<LocalDate, Map<Long, Counters>>> index,
+                                     Long professionalId, LocalDate day, Long treatmentId) {
+        return index.computeIfAbsent(professionalId != null ? professionalId : NONE, id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(day, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(treatmentId != null ? treatmentId : NONE, id -> new Counters());
+    }
+
+    private static void add(long[] into, long[] values) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += values[i];
+        }
+    }
+
+    private static Map<String, Long> appointmentMap(long[] counts) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (AppointmentStatus s : AppointmentStatus.values()) {
+            map.put(s.getValue(), counts[s.ordinal()]);
+        }
+        return map;
+    }
+
+    private static Map<String, Long> availabilityMap(long[] counts) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (StatusAvailability s : StatusAvailability.values()) {
+            map.put(s.getValue(), counts[s.ordinal()]);
+        }
+        return map;
+    }
+
+    private class Revenue {
+        BigDecimal expected = BigDecimal.ZERO;
+        BigDecimal realized = BigDecimal.ZERO;
+
+        void add(Long treatmentId, long[] counts) {
+            TreatmentDTO t = treatment(treatmentId);
+            if (t == null || t.getPrice() == null) {
+                return;
+            }
+            long notCancelled = Arrays.stream(counts).sum() - counts[AppointmentStatus.CANCELADA.ordinal()];
+            expected = expected.add(t.getPrice().multiply(BigDecimal.valueOf(notCancelled)));
+            realized = realized.add(t.getPrice().multiply(BigDecimal.valueOf(counts[AppointmentStatus.REALIZADA.ordinal()])));
+        }
+    }
+
+    private interface Delta {
+        void applyTo(Map<Long, ConcurrentSkipListMap<LocalDate, Map<Long, Counters>>> index);
+    }
+
+    private static final class Counters {
+        final AtomicLongArray appointments = new AtomicLongArray(STATUSES);
+        final AtomicLongArray availability = new AtomicLongArray(AVAILABILITY_STATUSES);
+    }
+}
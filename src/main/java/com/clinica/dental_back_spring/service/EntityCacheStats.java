@@ -0,0 +1,59 @@
+package com.clinica.dental_back_spring.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Métricas de la caché de segundo nivel de Hibernate (regiones de entidad e id natural) a
+ * partir de sus estadísticas; requieren {@code hibernate.generate_statistics}, desactivado
+ * por defecto.
+ */
+@Component
+public class EntityCacheStats {
+
+    private final Statistics statistics;
+
+    public EntityCacheStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevel", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("naturalId", counters(statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount()));
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                Map<String, Object> r = counters(region.getHitCount(), region.getMissCount(), region.getPutCount());
+                if (region.getElementCountInMemory() >= 0) {
+                    r.put("size", region.getElementCountInMemory());
+                }
+                regions.put(name, r);
+            }
+        }
+        result.put("regions", regions);
+        result.put("sinceMs", statistics.getStart().toEpochMilli());
+        return result;
+    }
+
+    private static Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> c = new LinkedHashMap<>();
+        c.put("hits", hits);
+        c.put("misses", misses);
+        c.put("puts", puts);
+        c.put("hitRate", (hits + misses) == 0 ? 0.0 : (double) hits / (hits + misses));
+        return c;
+    }
+}
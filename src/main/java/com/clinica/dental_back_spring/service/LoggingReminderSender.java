@@ -0,0 +1,18 @@
+package com.clinica.dental_back_spring.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ReminderSender} de desarrollo: solo escribe el recordatorio en el log.
+ */
+public class LoggingReminderSender implements ReminderSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSender.class);
+
+    @Override
+    public void send(Reminder reminder) {
+        logger.info("Recordatorio {} de la cita {} (paciente {}, {})",
+                reminder.kind(), reminder.appointmentId(), reminder.patientId(), reminder.appointmentDate());
+    }
+}
@@ -0,0 +1,244 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.FreeSlotDTO;
+import com.clinica.dental_back_spring.repository.AvailabilityKey;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de huecos libres: por profesional y día, un bitset ({@code long})
+ * sobre las posiciones del {@link SlotCatalog}. Bit a 1 = disponibilidad LIBRE.
+ * <p>
+ * Se carga desde {@code professional_availabilities} y se mantiene con las reservas,
+ * cancelaciones y cambios de disponibilidad (aplicados tras el commit). Los días que aún
+ * no estén cargados se leen de BD la primera vez que una búsqueda los necesita.
+ * <p>
+ * Las búsquedas leen sin bloqueo. Una reconstrucción carga un mapa nuevo y lo publica con
+ * una sola escritura volatile, así que nunca ven el índice a medio cargar; las escrituras
+ * (reconstrucción, carga de días y cambios tras el commit) se serializan en el monitor del
+ * índice para que ningún cambio se aplique sobre el mapa que está a punto de sustituirse.
+ */
+@Component
+public class OccupancyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyIndex.class);
+
+    private final AvailabilityRepository availabilityRepository;
+    private final SlotCatalog slotCatalog;
+    private final int horizonDays;
+
+    // profesional -> día -> bitset de slots libres
+    private volatile Map<Long, Map<LocalDate, Long>> free = new ConcurrentHashMap<>();
+
+    private volatile LocalDate loadedFrom;
+    private volatile LocalDate loadedTo;
+    private volatile long catalogVersion = -1;
+
+    public OccupancyIndex(AvailabilityRepository availabilityRepository,
+                          SlotCatalog slotCatalog,
+                          @Value("${availability.search.horizon-days:90}") int horizonDays) {
+        this.availabilityRepository = availabilityRepository;
+        this.slotCatalog = slotCatalog;
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now();
+        long version = slotCatalog.version();
+        if (slotCatalog.all().size() > Long.SIZE) {
+            throw new IllegalStateException("El índice de ocupación admite como máximo " + Long.SIZE + " slots por día");
+        }
+        Map<Long, Map<LocalDate, Long>> fresh = new ConcurrentHashMap<>();
+        load(fresh, today, today.plusDays(horizonDays));
+
+        loadedFrom = today;
+        loadedTo = today.plusDays(horizonDays);
+        catalogVersion = version;
+        free = fresh;
+        logger.info("Índice de ocupación cargado: {} profesionales, {} -> {}", fresh.size(), loadedFrom, loadedTo);
+    }
+
+    // ==========================================================
+    // 🔁 ACTUALIZACIONES INCREMENTALES (tras el commit)
+    // ==========================================================
+    public void markFree(Long professionalId, LocalDate date, Long slotId) {
+        AfterCommit.run(() -> set(professionalId, date, slotId, true));
+    }
+
+    public void markBusy(Long professionalId, LocalDate date, Long slotId) {
+        AfterCommit.run(() -> set(professionalId, date, slotId, false));
+    }
+
+    public void markFree(Collection<AvailabilityKey> keys) {
+        AfterCommit.run(() -> setAll(keys));
+    }
+
+    public void removeProfessional(Long professionalId) {
+        AfterCommit.run(() -> remove(professionalId));
+    }
+
+    // ==========================================================
+    // 🔍 BÚSQUEDA
+    // ==========================================================
+
+    /**
+     * Huecos de slots consecutivos (sin pausas entre ellos) que sumen al menos
+     * {@code durationMinutes}, ordenados por día, hora y profesional.
+     */
+    public List<FreeSlotDTO> search(int durationMinutes, LocalDate from, LocalDate to,
+                                    Long professionalId, int limit) {
+        if (isStale()) {
+            rebuildIfStale();
+        }
+        ensureLoaded(from, to);
+
+        Map<Long, Map<LocalDate, Long>> free = this.free;
+        List<SlotCatalog.SlotInfo> slots = slotCatalog.all();
+        Collection<Long> professionals = (professionalId != null)
+                ? List.of(professionalId)
+                : new TreeSet<>(free.keySet());
+
+        List<FreeSlotDTO> result = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to) && result.size() < limit; day = day.plusDays(1)) {
+            List<FreeSlotDTO> dayHits = new ArrayList<>();
+            for (Long pid : professionals) {
+                Map<LocalDate, Long> days = free.get(pid);
+                long mask = (days == null) ? 0L : days.getOrDefault(day, 0L);
+                if (mask != 0L) {
+                    collectRuns(pid, day, mask, slots, durationMinutes, dayHits);
+                }
+            }
+            dayHits.sort(Comparator.comparing(FreeSlotDTO::getStartTime)
+                    .thenComparing(FreeSlotDTO::getProfessionalId));
+            for (FreeSlotDTO hit : dayHits) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(hit);
+            }
+        }
+        return result;
+    }
+
+    static void collectRuns(Long professionalId, LocalDate day, long mask,
+                            List<SlotCatalog.SlotInfo> slots, int durationMinutes, List<FreeSlotDTO> out) {
+        for (int start = Long.numberOfTrailingZeros(mask); start < slots.size();
+             start = nextSetBit(mask, start + 1)) {
+
+            int minutes = 0;
+            int end = start;
+            List<Long> ids = new ArrayList<>();
+            while (true) {
+                SlotCatalog.SlotInfo s = slots.get(end);
+                ids.add(s.id());
+                minutes += (int) Duration.between(s.startTime(), s.endTime()).toMinutes();
+                if (minutes >= durationMinutes) {
+                    break;
+                }
+                int next = end + 1;
+                boolean contiguous = next < slots.size()
+                        && (mask & (1L << next)) != 0
+                        && slots.get(next).startTime().equals(s.endTime());
+                if (!contiguous) {
+                    ids = null;
+                    break;
+                }
+                end = next;
+            }
+
+            if (ids != null) {
+                out.add(FreeSlotDTO.builder()
+                        .professionalId(professionalId)
+                        .date(day)
+                        .slotId(ids.get(0))
+                        .slotIds(ids)
+                        .startTime(slots.get(start).startTime())
+                        .endTime(slots.get(end).endTime())
+                        .build());
+            }
+        }
+    }
+
+    private static int nextSetBit(long mask, int from) {
+        if (from >= Long.SIZE) {
+            return Integer.MAX_VALUE;
+        }
+        long rest = mask & (-1L << from);
+        return rest == 0 ? Integer.MAX_VALUE : Long.numberOfTrailingZeros(rest);
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private boolean isStale() {
+        return loadedFrom == null || catalogVersion != slotCatalog.version();
+    }
+
+    // Varias búsquedas pueden detectar a la vez el cambio de catálogo: solo la primera reconstruye
+    private synchronized void rebuildIfStale() {
+        if (isStale()) {
+            rebuild();
+        }
+    }
+
+    // Días fuera de lo cargado: se añaden al mapa vigente (solo suma días, no vacía nada).
+    // Si el rango ya está cargado no toma el monitor, así una reconstrucción no bloquea las búsquedas
+    private void ensureLoaded(LocalDate from, LocalDate to) {
+        if (!from.isBefore(loadedFrom) && !to.isAfter(loadedTo)) {
+            return;
+        }
+        synchronized (this) {
+            if (from.isBefore(loadedFrom)) {
+                load(free, from, loadedFrom.minusDays(1));
+                loadedFrom = from;
+            }
+            if (to.isAfter(loadedTo)) {
+                load(free, loadedTo.plusDays(1), to);
+                loadedTo = to;
+            }
+        }
+    }
+
+    private void load(Map<Long, Map<LocalDate, Long>> target, LocalDate from, LocalDate to) {
+        for (AvailabilityKey k : availabilityRepository.findFreeKeysInRange(from, to)) {
+            set(target, k.professionalId(), k.date(), k.slotId(), true);
+        }
+    }
+
+    private synchronized void set(Long professionalId, LocalDate date, Long slotId, boolean isFree) {
+        set(free, professionalId, date, slotId, isFree);
+    }
+
+    private synchronized void setAll(Collection<AvailabilityKey> keys) {
+        keys.forEach(k -> set(free, k.professionalId(), k.date(), k.slotId(), true));
+    }
+
+    private synchronized void remove(Long professionalId) {
+        free.remove(professionalId);
+    }
+
+    private void set(Map<Long, Map<LocalDate, Long>> target, Long professionalId, LocalDate date, Long slotId, boolean isFree) {
+        int pos = slotCatalog.position(slotId);
+        if (pos < 0 || pos >= Long.SIZE) {
+            return;
+        }
+        long bit = 1L << pos;
+        Map<LocalDate, Long> days = target.computeIfAbsent(professionalId, id -> new ConcurrentHashMap<>());
+        if (isFree) {
+            days.merge(date, bit, (a, b) -> a | b);
+        } else {
+            days.computeIfPresent(date, (d, mask) -> (mask & ~bit) == 0 ? null : mask & ~bit);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.repository.PatientNames;
+import com.clinica.dental_back_spring.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria para la búsqueda de pacientes por nombre, apellidos o NIF.
+ * <p>
+ * Los textos se normalizan (sin tildes, en minúsculas) y se parten en palabras. Cada palabra
+ * apunta a los pacientes que la contienen (mapa ordenado, para búsquedas por prefijo) y cada
+ * trigrama apunta a las palabras del vocabulario que lo contienen (búsquedas por subcadena).
+ * Solo se indexan pacientes activos; se mantiene con las altas, ediciones y bajas (tras el commit).
+ */
+@Component
+public class PatientSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final int GRAM = 3;
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_SUBSTRING = 1;
+
+    private final PatientRepository patientRepository;
+
+    // palabra -> pacientes
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    // trigrama -> palabras
+    private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+    // paciente -> documento indexado
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    public PatientSearchIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        postings.clear();
+        grams.clear();
+        docs.clear();
+        for (PatientNames p : patientRepository.findActiveNames()) {
+            add(p.id(), p.firstName(), p.lastName(), p.nif());
+        }
+        loaded = true;
+        logger.info("Índice de pacientes cargado: {} pacientes, {} palabras en {} ms",
+                docs.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ==========================================================
+    // 🔁 ACTUALIZACIONES (tras el commit)
+    // ==========================================================
+    public void index(Long id, String firstName, String lastName, String nif) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                remove(id);
+                add(id, firstName, lastName, nif);
+            }
+        });
+    }
+
+    public void unindex(Long id) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                remove(id);
+            }
+        });
+    }
+
+    // ==========================================================
+    // 🔍 BÚSQUEDA
+    // ==========================================================
+
+    /**
+     * Pacientes que contienen todas las palabras de {@code query} (por palabra exacta,
+     * prefijo o, a partir de 3 caracteres, subcadena), ordenados por relevancia y apellidos.
+     */
+    public Result search(String query, int offset, int limit) {
+        if (!loaded) {
+            rebuild();
+        }
+        List<String> terms = tokens(query);
+        if (terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            for (String token : matchingTokens(term)) {
+                Set<Long> ids = postings.get(token);
+                if (ids == null) {
+                    continue;
+                }
+                int score = score(token, term);
+                for (Long id : ids) {
+                    termScores.merge(id, score, Math::max);
+                }
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, s) -> s + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return new Result(List.of(), 0);
+            }
+        }
+
+        final Map<Long, Integer> ranked = scores;
+        List<Long> ids = ranked.keySet().stream()
+                .filter(docs::containsKey)
+                .sorted(Comparator.<Long>comparingInt(ranked::get).reversed()
+                        .thenComparing(id -> docs.getOrDefault(id, Doc.EMPTY).sortKey())
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+
+        int from = Math.min(offset, ids.size());
+        int to = Math.min(from + limit, ids.size());
+        return new Result(ids.subList(from, to), ids.size());
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private Set<String> matchingTokens(String term) {
+        Set<String> tokens = new HashSet<>(postings.subMap(term, true, term + Character.MAX_VALUE, true).keySet());
+        if (term.length() < GRAM) {
+            return tokens;
+        }
+
+        Set<String> candidates = null;
+        for (String g : grams(term)) {
+            Set<String> withGram = grams.get(g);
+            if (withGram == null) {
+                return tokens;
+            }
+            if (candidates == null || withGram.size() < candidates.size()) {
+                candidates = withGram;
+            }
+        }
+        for (String token : candidates) {
+            if (token.contains(term)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int score(String token, String term) {
+        if (token.equals(term)) {
+            return SCORE_EXACT;
+        }
+        return token.startsWith(term) ? SCORE_PREFIX : SCORE_SUBSTRING;
+    }
+
+    private void add(Long id, String firstName, String lastName, String nif) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokens(firstName));
+        tokens.addAll(tokens(lastName));
+        tokens.addAll(tokens(nif));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> {
+                for (String g : grams(t)) {
+                    grams.computeIfAbsent(g, k -> ConcurrentHashMap.newKeySet()).add(t);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(id);
+        }
+        docs.put(id, new Doc(normalize(lastName) + " " + normalize(firstName), tokens));
+    }
+
+    private void remove(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String token : doc.tokens()) {
+            postings.computeIfPresent(token, (t, ids) -> {
+                ids.remove(id);
+                if (!ids.isEmpty()) {
+                    return ids;
+                }
+                for (String g : grams(t)) {
+                    grams.computeIfPresent(g, (k, words) -> {
+                        words.remove(t);
+                        return words.isEmpty() ? null : words;
+                    });
+                }
+                return null;
+            });
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT).trim();
+    }
+
+    static List<String> tokens(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(t -> !t.isEmpty())
+                .toList();
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            result.add(token.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    public record Result(List<Long> ids, int total) {
+    }
+
+    private record Doc(String sortKey, Set<String> tokens) {
+        static final Doc EMPTY = new Doc("", Set.of());
+    }
+}
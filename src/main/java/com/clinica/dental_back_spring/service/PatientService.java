@@ -2,37 +2,71 @@ package com.clinica.dental_back_spring.service;
 
 import com.clinica.dental_back_spring.dto.CreatePatientRequest;
 import com.clinica.dental_back_spring.dto.PatientDTO;
+import com.clinica.dental_back_spring.dto.PatientPage;
 import com.clinica.dental_back_spring.dto.UpdatePatientRequest;
 import com.clinica.dental_back_spring.entity.Patient;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
 import com.clinica.dental_back_spring.repository.PatientRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
+    static final int DEFAULT_SEARCH_SIZE = 20;
+    static final int MAX_SEARCH_SIZE = 100;
+
     private final PatientRepository patientRepository;
+    private final PatientSearchIndex searchIndex;
+    private final AgendaCache agendaCache;
+    private final AppointmentRepository appointmentRepository;
 
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository, PatientSearchIndex searchIndex,
+                          AgendaCache agendaCache, AppointmentRepository appointmentRepository) {
         this.patientRepository = patientRepository;
+        this.searchIndex = searchIndex;
+        this.agendaCache = agendaCache;
+        this.appointmentRepository = appointmentRepository;
     }
 
     // ==========================================================
-    // 🔍 LISTAR O BUSCAR PACIENTES
+    // 🔍 LISTAR PACIENTES
     // ==========================================================
-    public List<PatientDTO> findAll(String query) {
-        List<Patient> patients = (query == null || query.isBlank())
-                ? patientRepository.findAll()
-                : patientRepository.search(query);
-
-        return patients.stream()
+    public List<PatientDTO> findAll() {
+        return patientRepository.findAll().stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
+    // ==========================================================
+    // 🔍 BUSCAR PACIENTES (índice en memoria, por relevancia)
+    // ==========================================================
+    public PatientPage search(String query, Integer page, Integer size) {
+        int pageSize = (size == null || size <= 0) ? DEFAULT_SEARCH_SIZE : Math.min(size, MAX_SEARCH_SIZE);
+        int pageNumber = (page == null || page < 0) ? 0 : page;
+
+        PatientSearchIndex.Result result = searchIndex.search(query, pageNumber * pageSize, pageSize);
+
+        // Una sola consulta por PK para la página; se respeta el orden del índice
+        Map<Long, Patient> byId = patientRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        List<PatientDTO> items = result.ids().stream()
+                .map(byId::get)
+                .filter(p -> p != null)
+                .map(this::toDTO)
+                .toList();
+
+        return new PatientPage(items, result.total());
+    }
+
     // ==========================================================
     // 🔍 OBTENER PACIENTE POR ID
     // ==========================================================
@@ -57,6 +91,7 @@ public class PatientService {
                 .build();
 
         patientRepository.save(patient);
+        searchIndex.index(patient.getId(), patient.getFirstName(), patient.getLastName(), patient.getNif());
         return toDTO(patient);
     }
 
@@ -67,6 +102,8 @@ public class PatientService {
     public PatientDTO update(Long id, UpdatePatientRequest req) {
         Patient p = patientRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Paciente no encontrado"));
+        String previousFirstName = p.getFirstName();
+        String previousLastName = p.getLastName();
 
         if (req.getFirstName() != null) p.setFirstName(req.getFirstName());
         if (req.getLastName() != null) p.setLastName(req.getLastName());
@@ -75,6 +112,13 @@ public class PatientService {
         if (req.getNif() != null) p.setNif(req.getNif());
 
         patientRepository.save(p);
+        if (p.isActive()) {
+            searchIndex.index(p.getId(), p.getFirstName(), p.getLastName(), p.getNif());
+        }
+        // Las agendas cacheadas muestran el nombre del paciente: solo los días de sus citas
+        if (!Objects.equals(previousFirstName, p.getFirstName()) || !Objects.equals(previousLastName, p.getLastName())) {
+            agendaCache.invalidate(appointmentRepository.findAgendaKeysByPatientId(p.getId(), AppointmentStatus.CANCELADA));
+        }
         return toDTO(p);
     }
 
@@ -88,6 +132,7 @@ public class PatientService {
 
         p.setActive(false);
         patientRepository.save(p);
+        searchIndex.unindex(p.getId());
     }
 
     // ==========================================================
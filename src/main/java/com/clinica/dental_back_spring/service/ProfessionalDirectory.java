@@ -0,0 +1,168 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.ProfessionalDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Directorio de profesionales en memoria, separado en activos e inactivos.
+ * <p>
+ * Cada partición es una instantánea inmutable: la lista ya ordenada por apellidos y nombre,
+ * más un índice de prefijos (valor normalizado → posiciones en esa lista) para nombre,
+ * apellidos, licencia, email, NIF y teléfono. Los cambios de {@link ProfessionalService}
+ * se aplican tras el commit y sustituyen la instantánea entera (hay pocos profesionales
+ * y cambian poco).
+ */
+@Component
+public class ProfessionalDirectory {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORDS = Pattern.compile("[\\s\\-]+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[\\d\\s+()\\-]+");
+
+    private static final Comparator<ProfessionalDTO> ORDER = Comparator
+            .comparing((ProfessionalDTO p) -> normalize(p.getLastName()))
+            .thenComparing(p -> normalize(p.getName()))
+            .thenComparing(ProfessionalDTO::getId);
+
+    private final Map<Long, ProfessionalDTO> byId = new HashMap<>();
+
+    private volatile Partition active = Partition.EMPTY;
+    private volatile Partition inactive = Partition.EMPTY;
+    private volatile boolean loaded;
+
+    public synchronized void load(Collection<ProfessionalDTO> professionals) {
+        byId.clear();
+        professionals.forEach(p -> byId.put(p.getId(), p));
+        publish();
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Alta o modificación; se aplica tras el commit si hay transacción. */
+    public void put(ProfessionalDTO professional) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                byId.put(professional.getId(), professional);
+                publish();
+            }
+        });
+    }
+
+    // ==========================================================
+    // 🔍 CONSULTAS
+    // ==========================================================
+
+    /** Profesionales de la partición pedida ({@code null} = ambas), ya ordenados. */
+    public List<ProfessionalDTO> list(Boolean activeOnly) {
+        if (activeOnly == null) {
+            return merge(active.sorted(), inactive.sorted());
+        }
+        return partition(activeOnly).sorted();
+    }
+
+    /**
+     * Profesionales con algún campo (o palabra de nombre/apellidos) que empiece por
+     * {@code query}, sin distinguir mayúsculas ni tildes. Conserva el orden del directorio.
+     */
+    public List<ProfessionalDTO> search(String query, Boolean activeOnly) {
+        if (activeOnly == null) {
+            return merge(active.search(query), inactive.search(query));
+        }
+        return partition(activeOnly).search(query);
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private Partition partition(boolean activeOnly) {
+        return activeOnly ? active : inactive;
+    }
+
+    private void publish() {
+        List<ProfessionalDTO> on = new ArrayList<>();
+        List<ProfessionalDTO> off = new ArrayList<>();
+        for (ProfessionalDTO p : byId.values()) {
+            (p.isActive() ? on : off).add(p);
+        }
+        active = Partition.of(on);
+        inactive = Partition.of(off);
+    }
+
+    private static List<ProfessionalDTO> merge(List<ProfessionalDTO> a, List<ProfessionalDTO> b) {
+        return Stream.concat(a.stream(), b.stream()).sorted(ORDER).toList();
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private record Partition(List<ProfessionalDTO> sorted, NavigableMap<String, BitSet> prefixes) {
+
+        static final Partition EMPTY = new Partition(List.of(), new TreeMap<>());
+
+        static Partition of(List<ProfessionalDTO> professionals) {
+            List<ProfessionalDTO> sorted = professionals.stream().sorted(ORDER).toList();
+            NavigableMap<String, BitSet> prefixes = new TreeMap<>();
+            for (int i = 0; i < sorted.size(); i++) {
+                for (String key : keys(sorted.get(i))) {
+                    prefixes.computeIfAbsent(key, k -> new BitSet()).set(i);
+                }
+            }
+            return new Partition(sorted, prefixes);
+        }
+
+        List<ProfessionalDTO> search(String query) {
+            String q = normalize(query);
+            if (q.isEmpty()) {
+                return sorted;
+            }
+            BitSet hits = new BitSet(sorted.size());
+            // Todas las claves que empiezan por q son contiguas en el TreeMap
+            prefixes.subMap(q, true, q + Character.MAX_VALUE, true).values().forEach(hits::or);
+
+            // Teléfonos: se indexan solo los dígitos, así "600 12" encuentra "600123456"
+            String digits = NON_DIGITS.matcher(q).replaceAll("");
+            if (!digits.isEmpty() && !digits.equals(q) && PHONE_QUERY.matcher(q).matches()) {
+                prefixes.subMap(digits, true, digits + Character.MAX_VALUE, true).values().forEach(hits::or);
+            }
+            return hits.stream().mapToObj(sorted::get).toList();
+        }
+
+        private static Set<String> keys(ProfessionalDTO p) {
+            Set<String> keys = new HashSet<>();
+            for (Function<ProfessionalDTO, String> field : List.<Function<ProfessionalDTO, String>>of(
+                    ProfessionalDTO::getName, ProfessionalDTO::getLastName)) {
+                String value = normalize(field.apply(p));
+                if (!value.isEmpty()) {
+                    keys.add(value);
+                    Collections.addAll(keys, WORDS.split(value));
+                }
+            }
+            for (String value : List.of(normalize(p.getLicense()), normalize(p.getEmail()), normalize(p.getNif()))) {
+                if (!value.isEmpty()) {
+                    keys.add(value);
+                }
+            }
+            String phone = NON_DIGITS.matcher(normalize(p.getPhone())).replaceAll("");
+            if (!phone.isEmpty()) {
+                keys.add(phone);
+            }
+            keys.remove("");
+            return keys;
+        }
+    }
+}
@@ -8,12 +8,15 @@ import com.clinica.dental_back_spring.entity.User;
 import com.clinica.dental_back_spring.enums.Role;
 import com.clinica.dental_back_spring.repository.ProfessionalRepository;
 import com.clinica.dental_back_spring.repository.UserRepository;
+import com.clinica.dental_back_spring.security.PrincipalCache;
+import com.clinica.dental_back_spring.security.TokenRevocationList;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ProfessionalService {
@@ -21,27 +24,51 @@ public class ProfessionalService {
     private final ProfessionalRepository professionalRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final OccupancyIndex occupancyIndex;
+    private final ProfessionalDirectory directory;
 
     public ProfessionalService(ProfessionalRepository professionalRepository,
                                UserRepository userRepository,
-                               PasswordEncoder passwordEncoder) {
+                               PasswordEncoder passwordEncoder,
+                               PrincipalCache principalCache,
+                               TokenRevocationList revocationList,
+                               OccupancyIndex occupancyIndex,
+                               ProfessionalDirectory directory) {
         this.professionalRepository = professionalRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
+        this.occupancyIndex = occupancyIndex;
+        this.directory = directory;
     }
 
     // ==========================================================
-    // 🔍 LISTAR / BUSCAR
+    // 🔍 LISTAR / BUSCAR (directorio en memoria)
     // ==========================================================
-    public List<ProfessionalDTO> findAll(String query) {
-        List<Professional> professionals =
-                (query == null || query.isBlank())
-                        ? professionalRepository.findAll()
-                        : professionalRepository.search(query);
 
-        return professionals.stream()
+    /**
+     * Sin {@code query} lista el directorio; con {@code query} busca por prefijo en nombre,
+     * apellidos, licencia, email, NIF o teléfono. {@code active} elige la partición; si es
+     * null se listan todos y se buscan solo los activos.
+     */
+    public List<ProfessionalDTO> findAll(String query, Boolean active) {
+        if (!directory.isLoaded()) {
+            loadDirectory();
+        }
+        if (query == null || query.isBlank()) {
+            return directory.list(active);
+        }
+        return directory.search(query, active != null ? active : Boolean.TRUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDirectory() {
+        directory.load(professionalRepository.findAllWithUser().stream()
                 .map(this::toDTO)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     // ==========================================================
@@ -88,7 +115,9 @@ public class ProfessionalService {
 
         professionalRepository.save(p);
 
-        return toDTO(p);
+        ProfessionalDTO dto = toDTO(p);
+        directory.put(dto);
+        return dto;
     }
 
     // ==========================================================
@@ -109,6 +138,8 @@ public class ProfessionalService {
 
             p.setEmail(req.getEmail());
             if (p.getUser() != null) {
+                principalCache.evict(p.getUser().getEmail());
+                revocationList.revokeIssuedBefore(p.getUser().getId());
                 p.getUser().setEmail(req.getEmail());
             }
         }
@@ -120,7 +151,9 @@ public class ProfessionalService {
         if (req.getRoom() != null) p.setRoom(req.getRoom());
         if (req.getLicense() != null) p.setLicense(req.getLicense());
 
-        return toDTO(p);
+        ProfessionalDTO dto = toDTO(p);
+        directory.put(dto);
+        return dto;
     }
 
     // ==========================================================
@@ -133,11 +166,15 @@ public class ProfessionalService {
                 .orElseThrow(() -> new IllegalArgumentException("Profesional no encontrado"));
 
         p.setActive(false);
+        occupancyIndex.removeProfessional(p.getId());
 
         // Desactivar también el usuario
         if (p.getUser() != null) {
             p.getUser().setActive(false);
+            principalCache.evict(p.getUser().getEmail());
+            revocationList.block(p.getUser().getId());
         }
+        directory.put(toDTO(p));
     }
 
     // ==========================================================
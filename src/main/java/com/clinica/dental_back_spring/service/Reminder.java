@@ -0,0 +1,30 @@
+package com.clinica.dental_back_spring.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Recordatorio de cita para el paciente, entregado por un {@link ReminderSender}.
+ */
+public record Reminder(Kind kind, Long appointmentId, Long patientId, Long professionalId,
+                       LocalDateTime appointmentDate) {
+
+    public enum Kind {
+        DAY_BEFORE(Duration.ofHours(24)),
+        TWO_HOURS_BEFORE(Duration.ofHours(2));
+
+        private final Duration lead;
+
+        Kind(Duration lead) {
+            this.lead = lead;
+        }
+
+        public Duration getLead() {
+            return lead;
+        }
+    }
+
+    public LocalDateTime sendAt() {
+        return appointmentDate.minus(kind.getLead());
+    }
+}
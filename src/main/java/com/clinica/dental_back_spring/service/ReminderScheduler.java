@@ -0,0 +1,192 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
+import com.clinica.dental_back_spring.repository.UpcomingAppointment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Recordatorios de cita (24 h y 2 h antes) sobre una {@link TimingWheel} en memoria.
+ * <p>
+ * Al arrancar se cargan las citas futuras PENDIENTE/CONFIRMADA con una sola consulta por
+ * rango de fechas; después se mantiene con los {@link AppointmentEvent} (altas, cambios de
+ * estado y cancelaciones). Cada tick avanza la rueda y entrega lo vencido al
+ * {@link ReminderSender}. Un recordatorio que debió salir hace menos de
+ * {@code reminder.catch-up-grace-minutes} (p. ej. durante un reinicio) se envía al momento;
+ * los más antiguos se descartan.
+ * <p>
+ * Cada nodo carga todas las citas, pero los eventos solo llegan al nodo que drena el outbox.
+ * Por eso, antes de enviar, cada recordatorio se reclama en BD con un UPDATE condicional: solo
+ * lo envía el nodo que lo marca, y solo si la cita sigue activa y en la misma fecha.
+ */
+@Component
+public class ReminderScheduler implements AppointmentEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    static final Set<AppointmentStatus> ACTIVE = EnumSet.of(AppointmentStatus.PENDIENTE, AppointmentStatus.CONFIRMADA);
+    static final int WHEEL_SIZE = 60;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReminderSender sender;
+    private final long tickMs;
+    private final long graceMs;
+
+    // Protegido por this
+    private TimingWheel<Reminder> wheel;
+    private final Map<Long, List<TimingWheel.Entry<Reminder>>> byAppointment = new HashMap<>();
+    private final List<Reminder> due = new ArrayList<>();
+
+    public ReminderScheduler(AppointmentRepository appointmentRepository,
+                             ObjectProvider<ReminderSender> senders,
+                             @Value("${reminder.tick-ms:60000}") long tickMs,
+                             @Value("${reminder.catch-up-grace-minutes:10}") long graceMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        this.sender = senders.getIfAvailable(LoggingReminderSender::new);
+        this.tickMs = tickMs;
+        this.graceMs = graceMinutes * 60_000;
+        this.wheel = new TimingWheel<>(tickMs, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        load(System.currentTimeMillis());
+    }
+
+    /** Recarga completa desde BD (una consulta); devuelve las citas futuras cargadas. */
+    synchronized int load(long nowMs) {
+        long start = System.nanoTime();
+        wheel = new TimingWheel<>(tickMs, WHEEL_SIZE, nowMs);
+        byAppointment.clear();
+        due.clear();
+        List<UpcomingAppointment> upcoming = appointmentRepository.findUpcoming(toDateTime(nowMs), ACTIVE);
+        for (UpcomingAppointment a : upcoming) {
+            schedule(a.id(), a.patientId(), a.professionalId(), a.date(), nowMs);
+        }
+        logger.info("Recordatorios cargados: {} citas futuras en {} ms",
+                upcoming.size(), (System.nanoTime() - start) / 1_000_000);
+        return upcoming.size();
+    }
+
+    // ==========================================================
+    // 🔁 EVENTOS DE CITAS
+    // ==========================================================
+    @Override
+    public void onEvents(List<AppointmentEvent> events) {
+        apply(events, System.currentTimeMillis());
+    }
+
+    synchronized void apply(List<AppointmentEvent> events, long nowMs) {
+        for (AppointmentEvent e : events) {
+            // Idempotente: se reprograma desde cero con el estado del evento
+            cancel(e.appointmentId());
+            if (ACTIVE.contains(e.status()) && e.date() != null) {
+                schedule(e.appointmentId(), e.patientId(), e.professionalId(), e.date(), nowMs);
+            }
+        }
+    }
+
+    // ==========================================================
+    // ⏰ TICK
+    // ==========================================================
+    @Scheduled(fixedDelayString = "${reminder.tick-ms:60000}")
+    public void tick() {
+        fire(System.currentTimeMillis());
+    }
+
+    /** Avanza la rueda hasta {@code nowMs} y envía lo vencido; devuelve los enviados. */
+    int fire(long nowMs) {
+        List<Reminder> toSend;
+        synchronized (this) {
+            toSend = new ArrayList<>(due);
+            due.clear();
+            wheel.advance(nowMs, toSend::add);
+            toSend.forEach(this::forget);
+        }
+        // Fuera del bloqueo: un canal lento no frena los eventos
+        int sent = 0;
+        LocalDateTime now = toDateTime(nowMs);
+        for (Reminder r : toSend) {
+            try {
+                if (!claim(r, now)) {
+                    // Ya enviado por otro nodo, o la cita se canceló o cambió de fecha
+                    continue;
+                }
+                sender.send(r);
+                sent++;
+            } catch (RuntimeException e) {
+                logger.error("No se pudo enviar el recordatorio {} de la cita {}", r.kind(), r.appointmentId(), e);
+            }
+        }
+        return sent;
+    }
+
+    synchronized int scheduled() {
+        return byAppointment.values().stream().mapToInt(List::size).sum() + due.size();
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private void schedule(Long appointmentId, Long patientId, Long professionalId, LocalDateTime date, long nowMs) {
+        if (toMillis(date) <= nowMs) {
+            return;
+        }
+        for (Reminder.Kind kind : Reminder.Kind.values()) {
+            Reminder r = new Reminder(kind, appointmentId, patientId, professionalId, date);
+            long at = toMillis(r.sendAt());
+            if (at + graceMs < nowMs) {
+                continue;
+            }
+            TimingWheel.Entry<Reminder> entry = wheel.schedule(at, r);
+            if (entry == null) {
+                due.add(r);
+            } else {
+                byAppointment.computeIfAbsent(appointmentId, id -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    private boolean claim(Reminder r, LocalDateTime now) {
+        int claimed = switch (r.kind()) {
+            case DAY_BEFORE -> appointmentRepository.claimDayReminder(r.appointmentId(), r.appointmentDate(), ACTIVE, now);
+            case TWO_HOURS_BEFORE -> appointmentRepository.claimTwoHoursReminder(r.appointmentId(), r.appointmentDate(), ACTIVE, now);
+        };
+        return claimed == 1;
+    }
+
+    private void cancel(Long appointmentId) {
+        List<TimingWheel.Entry<Reminder>> entries = byAppointment.remove(appointmentId);
+        if (entries != null) {
+            entries.forEach(TimingWheel.Entry::cancel);
+        }
+        due.removeIf(r -> r.appointmentId().equals(appointmentId));
+    }
+
+    private void forget(Reminder fired) {
+        byAppointment.computeIfPresent(fired.appointmentId(), (id, entries) -> {
+            entries.removeIf(e -> e.item() == fired);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static long toMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinica.dental_back_spring.service;
+
+/**
+ * Canal de envío de recordatorios (email, SMS...). Basta con declarar un bean que lo
+ * implemente; sin ninguno, {@link ReminderScheduler} usa {@link LoggingReminderSender}.
+ */
+public interface ReminderSender {
+
+    void send(Reminder reminder);
+}
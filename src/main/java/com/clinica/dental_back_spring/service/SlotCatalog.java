@@ -0,0 +1,110 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.Slot;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.repository.SlotRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Catálogo inmutable de slots (plantilla horaria) precargado en memoria.
+ * Búsqueda O(1) por id y listas ya ordenadas por {@link Period}; se sustituye
+ * entero en cada {@link #refresh()}, así que las lecturas no necesitan bloqueo.
+ */
+@Component
+public class SlotCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotCatalog.class);
+
+    private final SlotRepository slotRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public SlotCatalog(SlotRepository slotRepository) {
+        this.slotRepository = slotRepository;
+    }
+
+    @PostConstruct
+    public synchronized void refresh() {
+        List<SlotInfo> all = slotRepository.findAll().stream()
+                .map(s -> new SlotInfo(s.getId(), s.getStartTime(), s.getEndTime(), s.getPeriod()))
+                .sorted(Comparator.comparing(SlotInfo::startTime))
+                .toList();
+        if (all.equals(snapshot.all)) {
+            return;
+        }
+        snapshot = Snapshot.of(snapshot.version + 1, all);
+        logger.info("Catálogo de slots cargado: {} slots", all.size());
+    }
+
+    // ==========================================================
+    // 🔍 CONSULTAS
+    // ==========================================================
+
+    /**
+     * Slot por id. Un id desconocido falla sin recargar: las altas y cambios de slots con JPA
+     * ya recargan tras el commit ({@link SlotChangeListener}), y recargar aquí permitiría forzar
+     * un {@code findAll()} por petición con ids inventados.
+     */
+    public SlotInfo get(Long id) {
+        SlotInfo slot = snapshot.byId.get(id);
+        if (slot == null) {
+            throw new IllegalArgumentException("Slot no encontrado");
+        }
+        return slot;
+    }
+
+    public List<SlotInfo> all() {
+        return snapshot.all;
+    }
+
+    public List<SlotInfo> byPeriod(Period period) {
+        return snapshot.byPeriod.getOrDefault(period, List.of());
+    }
+
+    /** Posición del slot en {@link #all()} (orden por hora de inicio), o -1 si no existe. */
+    public int position(Long id) {
+        return snapshot.position.getOrDefault(id, -1);
+    }
+
+    /** Cambia en cada recarga: permite a los índices derivados detectar que deben reconstruirse. */
+    public long version() {
+        return snapshot.version;
+    }
+
+    // ==========================================================
+    // 🧩 Tipos
+    // ==========================================================
+    public record SlotInfo(Long id, LocalTime startTime, LocalTime endTime, Period period) {
+    }
+
+    private record Snapshot(long version,
+                            Map<Long, SlotInfo> byId,
+                            Map<Long, Integer> position,
+                            List<SlotInfo> all,
+                            Map<Period, List<SlotInfo>> byPeriod) {
+
+        static final Snapshot EMPTY = new Snapshot(0, Map.of(), Map.of(), List.of(), Map.of());
+
+        static Snapshot of(long version, List<SlotInfo> all) {
+            Map<Long, SlotInfo> byId = new HashMap<>();
+            Map<Long, Integer> position = new HashMap<>();
+            Map<Period, List<SlotInfo>> byPeriod = new EnumMap<>(Period.class);
+            for (int i = 0; i < all.size(); i++) {
+                SlotInfo s = all.get(i);
+                byId.put(s.id(), s);
+                position.put(s.id(), i);
+                if (s.period() != null) {
+                    byPeriod.computeIfAbsent(s.period(), p -> new ArrayList<>()).add(s);
+                }
+            }
+            byPeriod.replaceAll((p, list) -> List.copyOf(list));
+            return new Snapshot(version, Map.copyOf(byId), Map.copyOf(position), all, Collections.unmodifiableMap(byPeriod));
+        }
+    }
+}
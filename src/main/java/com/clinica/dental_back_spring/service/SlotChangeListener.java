@@ -0,0 +1,63 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.Slot;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recarga el {@link SlotCatalog} tras el commit de cualquier alta, cambio o baja de un
+ * {@link Slot} hecho con JPA. Los cambios por SQL directo (migraciones, scripts) no pasan por
+ * Hibernate: después hay que llamar a {@code POST /slots/refresh}.
+ */
+@Component
+public class SlotChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SlotCatalog slotCatalog;
+
+    public SlotChangeListener(EntityManagerFactory entityManagerFactory, SlotCatalog slotCatalog) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.slotCatalog = slotCatalog;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // Los eventos llegan durante el flush: la recarga espera al commit y lee lo ya confirmado
+    private void changed(Object entity) {
+        if (entity instanceof Slot) {
+            AfterCommit.run(slotCatalog::refresh);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.clinica.dental_back_spring.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica (no thread-safe; el llamante sincroniza).
+ * <p>
+ * El nivel base tiene {@code wheelSize} casillas de {@code tickMs}; lo que no cabe pasa a un
+ * nivel superior cuyas casillas miden una vuelta entera del inferior, y así sucesivamente
+ * (los niveles se crean al necesitarse). Programar y cancelar son O(1); avanzar un tick solo
+ * toca una casilla por nivel. Al llegar su turno, las casillas de niveles superiores bajan sus
+ * entradas al nivel base, que es el que las vence.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * Programa {@code item} para {@code deadlineMs}. Devuelve null si ya vence en el tick
+     * actual: el llamante decide si lo ejecuta de inmediato.
+     */
+    Entry<T> schedule(long deadlineMs, T item) {
+        Entry<T> entry = new Entry<>(deadlineMs, item);
+        return add(entry) ? entry : null;
+    }
+
+    /** Avanza hasta {@code nowMs} entregando a {@code expired} lo vencido (nunca lo cancelado). */
+    void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            drainInto(bucket(currentTime), expired);
+            if (overflow != null) {
+                overflow.cascade(currentTime, this, expired);
+            }
+        }
+    }
+
+    long currentTime() {
+        return currentTime;
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private boolean add(Entry<T> entry) {
+        if (entry.deadlineMs < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.deadlineMs < currentTime + interval) {
+            bucket(entry.deadlineMs).add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+
+    // Nivel superior: al cruzar uno de sus ticks, su casilla baja al nivel base
+    private void cascade(long lowerTime, TimingWheel<T> root, Consumer<T> expired) {
+        while (currentTime + tickMs <= lowerTime) {
+            currentTime += tickMs;
+            List<Entry<T>> bucket = bucket(currentTime);
+            List<Entry<T>> moving = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> e : moving) {
+                if (!e.cancelled && !root.add(e)) {
+                    expired.accept(e.item);
+                }
+            }
+            if (overflow != null) {
+                overflow.cascade(currentTime, root, expired);
+            }
+        }
+    }
+
+    private void drainInto(List<Entry<T>> bucket, Consumer<T> expired) {
+        List<Entry<T>> due = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry<T> e : due) {
+            if (!e.cancelled) {
+                expired.accept(e.item);
+            }
+        }
+    }
+
+    private List<Entry<T>> bucket(long timeMs) {
+        return buckets.get((int) ((timeMs / tickMs) % wheelSize));
+    }
+
+    /** Entrada programada; cancelarla es marcarla (se descarta al llegar su casilla). */
+    static final class Entry<T> {
+
+        private final long deadlineMs;
+        private final T item;
+        private volatile boolean cancelled;
+
+        private Entry(long deadlineMs, T item) {
+            this.deadlineMs = deadlineMs;
+            this.item = item;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        long deadlineMs() {
+            return deadlineMs;
+        }
+
+        T item() {
+            return item;
+        }
+    }
+}
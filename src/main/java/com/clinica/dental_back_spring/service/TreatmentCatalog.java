@@ -0,0 +1,140 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.TreatmentDTO;
+import com.clinica.dental_back_spring.repository.TreatmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de tratamientos en memoria (read-through). Guarda dos vistas ya calculadas,
+ * completa y solo visibles, cada una con su ETag fuerte (hash del contenido, estable entre
+ * reinicios e instancias). Las altas y ediciones lo invalidan tras el commit y la siguiente
+ * lectura lo vuelve a cargar.
+ */
+@Component
+public class TreatmentCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TreatmentCatalog.class);
+
+    private final TreatmentRepository treatmentRepository;
+
+    private volatile Snapshot snapshot;
+    private long version;
+    // Evita publicar una carga que empezó antes de una invalidación
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TreatmentCatalog(TreatmentRepository treatmentRepository) {
+        this.treatmentRepository = treatmentRepository;
+    }
+
+    // ==========================================================
+    // 🔍 CONSULTAS
+    // ==========================================================
+
+    /** Vista completa o solo visibles, filtrada por nombre si hay {@code query}. */
+    public View view(String query, boolean visibleOnly) {
+        Snapshot s = current();
+        View base = visibleOnly ? s.visible : s.all;
+        if (query == null || query.isBlank()) {
+            return base;
+        }
+        String q = query.toLowerCase(Locale.ROOT);
+        List<TreatmentDTO> items = base.items().stream()
+                .filter(t -> t.getName() != null && t.getName().toLowerCase(Locale.ROOT).contains(q))
+                .toList();
+        return View.of(items);
+    }
+
+    /**
+     * Tratamiento por id. Un id desconocido falla sin invalidar: las altas y ediciones ya
+     * invalidan el catálogo, y vaciarlo aquí dejaría a cualquier cliente forzar una recarga
+     * para todos con ids inventados.
+     */
+    public TreatmentDTO get(Long id) {
+        TreatmentDTO t = current().byId.get(id);
+        if (t == null) {
+            throw new IllegalArgumentException("Tratamiento no encontrado");
+        }
+        return t;
+    }
+
+    public long version() {
+        return current().version;
+    }
+
+    // ==========================================================
+    // 🚫 INVALIDACIÓN (tras el commit)
+    // ==========================================================
+    public void invalidate() {
+        AfterCommit.run(this::clear);
+    }
+
+    void clear() {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    // ==========================================================
+    // 🧩 Internos
+    // ==========================================================
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        return (s != null) ? s : load();
+    }
+
+    private synchronized Snapshot load() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long seen = invalidations.get();
+        List<TreatmentDTO> all = treatmentRepository.findAll().stream()
+                .map(TreatmentService::toDTO)
+                .sorted(Comparator.comparing(TreatmentDTO::getId))
+                .toList();
+        Snapshot s = new Snapshot(
+                ++version,
+                View.of(all),
+                View.of(all.stream().filter(TreatmentDTO::isVisible).toList()),
+                all.stream().collect(Collectors.toUnmodifiableMap(TreatmentDTO::getId, Function.identity())));
+        if (invalidations.get() == seen) {
+            snapshot = s;
+        }
+        logger.info("Catálogo de tratamientos cargado (v{}): {} tratamientos", s.version, all.size());
+        return s;
+    }
+
+    /** Lista de tratamientos y su ETag fuerte, ya entrecomillado. */
+    public record View(List<TreatmentDTO> items, String etag) {
+
+        static View of(List<TreatmentDTO> items) {
+            return new View(items, etag(items));
+        }
+
+        private static String etag(List<TreatmentDTO> items) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (TreatmentDTO t : items) {
+                    String row = t.getId() + "|" + t.getName() + "|" + t.getType() + "|" + t.getDuration()
+                            + "|" + (t.getPrice() != null ? t.getPrice().toPlainString() : null)
+                            + "|" + t.isVisible() + "\n";
+                    digest.update(row.getBytes(StandardCharsets.UTF_8));
+                }
+                return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private record Snapshot(long version, View all, View visible, Map<Long, TreatmentDTO> byId) {
+    }
+}
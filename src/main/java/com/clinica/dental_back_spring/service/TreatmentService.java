@@ -8,36 +8,31 @@ import com.clinica.dental_back_spring.repository.TreatmentRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Service
 public class TreatmentService {
 
     private final TreatmentRepository treatmentRepository;
+    private final TreatmentCatalog catalog;
+    private final AgendaCache agendaCache;
 
-    public TreatmentService(TreatmentRepository treatmentRepository) {
+    public TreatmentService(TreatmentRepository treatmentRepository, TreatmentCatalog catalog, AgendaCache agendaCache) {
         this.treatmentRepository = treatmentRepository;
+        this.catalog = catalog;
+        this.agendaCache = agendaCache;
     }
 
     // ==========================================================
-    // 🔍 LISTAR O FILTRAR TRATAMIENTOS
+    // 🔍 LISTAR O FILTRAR TRATAMIENTOS (catálogo en memoria)
     // ==========================================================
-    public List<TreatmentDTO> findAll(String query, Boolean visibleOnly) {
-
-        List<Treatment> list = treatmentRepository.findFiltered(query, visibleOnly);
-        return list.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    public TreatmentCatalog.View findAll(String query, boolean visibleOnly) {
+        return catalog.view(query, visibleOnly);
     }
 
     // ==========================================================
     // 🔍 OBTENER TRATAMIENTO POR ID
     // ==========================================================
     public TreatmentDTO findById(Long id) {
-        Treatment t = treatmentRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Tratamiento no encontrado"));
-        return toDTO(t);
+        return catalog.get(id);
     }
 
     // ==========================================================
@@ -54,6 +49,7 @@ public class TreatmentService {
                 .build();
 
         treatmentRepository.save(t);
+        catalog.invalidate();
         return toDTO(t);
     }
 
@@ -72,6 +68,8 @@ public class TreatmentService {
         if (req.getVisible() != null) t.setVisible(req.getVisible());
 
         treatmentRepository.save(t);
+        catalog.invalidate();
+        agendaCache.clear();
         return toDTO(t);
     }
 
@@ -85,12 +83,13 @@ public class TreatmentService {
 
         t.setVisible(false);
         treatmentRepository.save(t);
+        catalog.invalidate();
     }
 
     // ==========================================================
     // 🔁 Conversión a DTO
     // ==========================================================
-    private TreatmentDTO toDTO(Treatment t) {
+    static TreatmentDTO toDTO(Treatment t) {
         return TreatmentDTO.builder()
                 .id(t.getId())
                 .name(t.getName())
@@ -4,6 +4,8 @@ import com.clinica.dental_back_spring.dto.UserDTO;
 import com.clinica.dental_back_spring.entity.User;
 import com.clinica.dental_back_spring.enums.Role;
 import com.clinica.dental_back_spring.repository.UserRepository;
+import com.clinica.dental_back_spring.security.PrincipalCache;
+import com.clinica.dental_back_spring.security.TokenRevocationList;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,11 +18,17 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       PrincipalCache principalCache,
+                       TokenRevocationList revocationList) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
 
     // ==========================================================
@@ -58,6 +66,8 @@ public class UserService {
             Role roleEnum = Role.valueOf(newRole.toUpperCase());
             u.setRole(roleEnum);
             userRepository.save(u);
+            principalCache.evict(u.getEmail());
+            revocationList.revokeIssuedBefore(u.getId());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Rol no válido: " + newRole);
         }
@@ -78,6 +88,8 @@ public class UserService {
 
         u.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
+        revocationList.revokeIssuedBefore(u.getId());
     }
 
     // ==========================================================
@@ -91,6 +103,8 @@ public class UserService {
 
         u.setActive(false);
         userRepository.save(u);
+        principalCache.evict(u.getEmail());
+        revocationList.block(u.getId());
     }
 
     // ==========================================================
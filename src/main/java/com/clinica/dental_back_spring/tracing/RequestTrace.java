@@ -0,0 +1,101 @@
+package com.clinica.dental_back_spring.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de la traza de una petición: inicio, usuario y sentencias SQL ejecutadas.
+ * <p>
+ * Vive en un {@link ThreadLocal} mientras la petición recorre la cadena de filtros en su hilo,
+ * y {@link RequestTraceTaskDecorator} lo lleva al hilo de su trabajo asíncrono;
+ * {@link SqlTimingListener} lo completa desde Hibernate. No es seguro entre hilos: se anota
+ * desde un solo hilo a la vez (el de la petición o, después, el de su tarea asíncrona). Anotar una sentencia cuesta dos
+ * {@code long} y una referencia al SQL (que Hibernate ya tiene): el texto solo se formatea
+ * si la petición acaba siendo lenta.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final int maxStatements;
+
+    private Long userId;
+    private int sqlCount;
+    private long sqlNanos;
+    private String pendingSql;
+    private long statementStart;
+    private final List<Statement> statements = new ArrayList<>();
+
+    RequestTrace(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    /** Traza de la petición en curso en este hilo, o {@code null} fuera de una petición. */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static void attach(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void detach() {
+        CURRENT.remove();
+    }
+
+    // ==========================================================
+    // ✏️ ANOTAR
+    // ==========================================================
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    void sqlPrepared(String sql) {
+        pendingSql = sql;
+    }
+
+    void sqlStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void sqlFinished() {
+        if (statementStart == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - statementStart;
+        statementStart = 0;
+        sqlCount++;
+        sqlNanos += nanos;
+        if (statements.size() < maxStatements) {
+            statements.add(new Statement(pendingSql, nanos));
+        }
+    }
+
+    // ==========================================================
+    // 🔍 CONSULTAR
+    // ==========================================================
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public Long userId() {
+        return userId;
+    }
+
+    public int sqlCount() {
+        return sqlCount;
+    }
+
+    public long sqlNanos() {
+        return sqlNanos;
+    }
+
+    /** Las primeras {@code maxStatements} sentencias, en orden de ejecución. */
+    public List<Statement> statements() {
+        return statements;
+    }
+
+    public record Statement(String sql, long nanos) {
+    }
+}
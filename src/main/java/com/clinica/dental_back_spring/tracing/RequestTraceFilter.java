@@ -0,0 +1,167 @@
+package com.clinica.dental_back_spring.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traza compacta de peticiones: una línea {@code clave=valor} con método, ruta, estado,
+ * duración, usuario y número y tiempo de sentencias SQL.
+ * <p>
+ * Se escribe para una muestra de las peticiones ({@code tracing.sample-rate}) y siempre para
+ * las lentas ({@code tracing.slow-threshold-ms}) y las que acaban en 5xx. Solo las lentas
+ * añaden el detalle de cada sentencia con su tiempo. Va antes que Spring Security para
+ * contar también la autenticación y registrar los 401/403.
+ * <p>
+ * En peticiones asíncronas la línea se escribe al completar, y las sentencias del hilo que
+ * genera la respuesta (exportaciones en streaming) cuentan gracias a
+ * {@link RequestTraceTaskDecorator}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTraceFilter.class);
+
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+
+    public RequestTraceFilter(@Value("${tracing.sample-rate:0.01}") double sampleRate,
+                              @Value("${tracing.slow-threshold-ms:500}") long slowThresholdMs,
+                              @Value("${tracing.slow-sql.max-statements:50}") int maxStatements) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("tracing.sample-rate debe estar entre 0 y 1");
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTrace trace = new RequestTrace(maxStatements);
+        RequestTrace.attach(trace);
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            RequestTrace.detach();
+            if (!failed && request.isAsyncStarted()) {
+                // Mono/Flux y descargas en streaming: el estado final llega al completar
+                request.getAsyncContext().addListener(new CompletionListener(trace, request, response));
+            } else {
+                finish(trace, request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus());
+            }
+        }
+    }
+
+    // ==========================================================
+    // 🧾 Línea de traza
+    // ==========================================================
+    private void finish(RequestTrace trace, HttpServletRequest request, int status) {
+        long elapsed = trace.elapsedNanos();
+        boolean slow = elapsed >= slowThresholdNanos;
+        if (!slow && status < 500 && !sampled()) {
+            return;
+        }
+        String line = format(trace, request, status, elapsed, slow);
+        if (slow || status >= 500) {
+            logger.warn(line);
+        } else {
+            logger.info(line);
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static String format(RequestTrace trace, HttpServletRequest request, int status, long elapsed, boolean slow) {
+        StringBuilder sb = new StringBuilder(160)
+                .append("method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" ms=").append(millis(elapsed))
+                .append(" user=").append(trace.userId() != null ? trace.userId() : "-")
+                .append(" sql=").append(trace.sqlCount())
+                .append(" sqlMs=").append(millis(trace.sqlNanos()));
+        if (slow) {
+            sb.append(" slow=true");
+            if (!trace.statements().isEmpty()) {
+                sb.append(" statements=[");
+                for (int i = 0; i < trace.statements().size(); i++) {
+                    RequestTrace.Statement s = trace.statements().get(i);
+                    sb.append(i == 0 ? "" : " | ").append(millis(s.nanos())).append("ms ").append(compact(s.sql()));
+                }
+                sb.append(']');
+                if (trace.sqlCount() > trace.statements().size()) {
+                    sb.append(" statementsOmitted=").append(trace.sqlCount() - trace.statements().size());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    // Una sola línea y acotada: sin saltos ni espacios repetidos
+    private static String compact(String sql) {
+        if (sql == null) {
+            return "?";
+        }
+        String oneLine = sql.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= MAX_SQL_LENGTH ? oneLine : oneLine.substring(0, MAX_SQL_LENGTH) + "…";
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final RequestTrace trace;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        CompletionListener(RequestTrace trace, HttpServletRequest request, HttpServletResponse response) {
+            this.trace = trace;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(trace, request, response.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.clinica.dental_back_spring.tracing;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lleva la traza de la petición al hilo que ejecuta su trabajo asíncrono.
+ * <p>
+ * Spring Boot lo aplica al {@code applicationTaskExecutor}, que es el que usa Spring MVC para
+ * {@code StreamingResponseBody} y {@code Callable}: las sentencias de una exportación en
+ * streaming cuentan así en la línea de su petición. La traza se captura al encolar la tarea,
+ * todavía en el hilo de la petición; las tareas lanzadas fuera de una petición no llevan
+ * ninguna.
+ */
+@Component
+public class RequestTraceTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return runnable;
+        }
+        return () -> {
+            RequestTrace previous = RequestTrace.current();
+            RequestTrace.attach(trace);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    RequestTrace.attach(previous);
+                } else {
+                    RequestTrace.detach();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.clinica.dental_back_spring.tracing;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Mide cada sentencia JDBC que Hibernate ejecuta y la anota en la {@link RequestTrace} del hilo.
+ * <p>
+ * Registrado en {@code application.properties} como inspector de sentencias (recibe el SQL al
+ * prepararlo, sin modificarlo) y como listener de sesión (inicio y fin de cada ejecución).
+ * Fuera de una petición (relay del outbox, tareas programadas) no hace nada.
+ */
+public class SqlTimingListener implements StatementInspector, SessionEventListener {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.sqlPrepared(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        finished();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        finished();
+    }
+
+    private static void started() {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.sqlStarted();
+        }
+    }
+
+    private static void finished() {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.sqlFinished();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+-- Esquema de partida: el que generaba ddl-auto=update con las entidades originales.
+-- En una base ya existente no se ejecuta (spring.flyway.baseline-version=1); en una vacía la crea.
+
+CREATE TABLE appointments (
+    duration_minutes_appointments INTEGER,
+    date_appointments DATETIME(6),
+    id_appointments BIGINT NOT NULL AUTO_INCREMENT,
+    patient_id BIGINT,
+    professional_id BIGINT,
+    slot_id BIGINT,
+    treatment_id BIGINT,
+    cancellation_reason_appointments TEXT,
+    created_by_appointments ENUM ('ADMIN','PATIENT','PROFESSIONAL'),
+    status_appointments ENUM ('CANCELADA','CONFIRMADA','PENDIENTE','REALIZADA'),
+    PRIMARY KEY (id_appointments)
+) ENGINE=InnoDB;
+
+CREATE TABLE patients (
+    is_active_patients BIT,
+    id_patients BIGINT NOT NULL AUTO_INCREMENT,
+    email_patients VARCHAR(255),
+    last_name_patients VARCHAR(255),
+    name_patients VARCHAR(255),
+    nif_patients VARCHAR(255),
+    phone_patients VARCHAR(255),
+    PRIMARY KEY (id_patients)
+) ENGINE=InnoDB;
+
+CREATE TABLE professional_availabilities (
+    date_availability DATE,
+    id_professional_availabilities BIGINT NOT NULL AUTO_INCREMENT,
+    id_slots BIGINT,
+    professional_id BIGINT,
+    status_availability ENUM ('LIBRE','NO_DISPONIBLE','RESERVADO'),
+    PRIMARY KEY (id_professional_availabilities)
+) ENGINE=InnoDB;
+
+CREATE TABLE professionals (
+    is_active_professionals BIT,
+    id_professionals BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    assigned_room_professionals VARCHAR(255),
+    email_professionals VARCHAR(255),
+    last_name_professionals VARCHAR(255),
+    license_number_professionals VARCHAR(255),
+    name_professionals VARCHAR(255),
+    nif_professionals VARCHAR(255),
+    phone_professionals VARCHAR(255),
+    PRIMARY KEY (id_professionals)
+) ENGINE=InnoDB;
+
+CREATE TABLE slots (
+    end_time_slots TIME(6),
+    start_time_slots TIME(6),
+    id_slots BIGINT NOT NULL AUTO_INCREMENT,
+    period ENUM ('MANANA','TARDE'),
+    PRIMARY KEY (id_slots)
+) ENGINE=InnoDB;
+
+CREATE TABLE treatments (
+    duration_minutes_treatments INTEGER,
+    price_treatments DECIMAL(6,2),
+    visible_to_patients_treatments BIT,
+    id_treatments BIGINT NOT NULL AUTO_INCREMENT,
+    name_treatments VARCHAR(255),
+    type_treatments VARCHAR(255),
+    PRIMARY KEY (id_treatments)
+) ENGINE=InnoDB;
+
+CREATE TABLE users (
+    is_active_users BIT,
+    id_users BIGINT NOT NULL AUTO_INCREMENT,
+    rol_users VARCHAR(255),
+    password_users VARCHAR(255),
+    username_users VARCHAR(255),
+    PRIMARY KEY (id_users)
+) ENGINE=InnoDB;
+
+ALTER TABLE patients
+    ADD CONSTRAINT UK4xrtjmk258d2eyfoweqf5dpgk UNIQUE (email_patients);
+
+ALTER TABLE professionals
+    ADD CONSTRAINT UKr9p60nf406aly6o2o701fh7wa UNIQUE (user_id);
+
+ALTER TABLE professionals
+    ADD CONSTRAINT UKciqb7q7fpwifedvnarsdrdwap UNIQUE (email_professionals);
+
+ALTER TABLE users
+    ADD CONSTRAINT UKj8oj019i3sk25bkp2bx7erk9j UNIQUE (username_users);
+
+ALTER TABLE appointments
+    ADD CONSTRAINT FK8exap5wmg8kmb1g1rx3by21yt
+    FOREIGN KEY (patient_id)
+    REFERENCES patients (id_patients);
+
+ALTER TABLE appointments
+    ADD CONSTRAINT FK70r651dhvcob4dm4icn54of0y
+    FOREIGN KEY (professional_id)
+    REFERENCES professionals (id_professionals);
+
+ALTER TABLE appointments
+    ADD CONSTRAINT FKf8qrv9g386dae81yfkj1qgs77
+    FOREIGN KEY (slot_id)
+    REFERENCES slots (id_slots);
+
+ALTER TABLE appointments
+    ADD CONSTRAINT FK4epecm6h3kayc2qg4t3675ksu
+    FOREIGN KEY (treatment_id)
+    REFERENCES treatments (id_treatments);
+
+ALTER TABLE professional_availabilities
+    ADD CONSTRAINT FKayxt8kl3nvc3o42cmd0m4tlmb
+    FOREIGN KEY (professional_id)
+    REFERENCES professionals (id_professionals);
+
+ALTER TABLE professional_availabilities
+    ADD CONSTRAINT FKn5hn7dn9ekk11j2ohweu811xh
+    FOREIGN KEY (id_slots)
+    REFERENCES slots (id_slots);
+
+ALTER TABLE professionals
+    ADD CONSTRAINT FKgkfsdbkwd8shxk9isiddv2n43
+    FOREIGN KEY (user_id)
+    REFERENCES users (id_users);
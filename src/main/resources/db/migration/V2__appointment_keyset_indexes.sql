@@ -0,0 +1,6 @@
+-- Paginación keyset de los listados de citas por profesional y por paciente (user-005)
+CREATE INDEX idx_appointments_professional_date
+    ON appointments (professional_id, date_appointments, id_appointments);
+
+CREATE INDEX idx_appointments_patient_date
+    ON appointments (patient_id, date_appointments, id_appointments);
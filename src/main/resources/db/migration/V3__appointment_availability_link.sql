@@ -0,0 +1,17 @@
+-- Disponibilidad reservada por cada cita (user-007)
+ALTER TABLE appointments ADD COLUMN availability_id BIGINT;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT fk_appointments_availability
+        FOREIGN KEY (availability_id)
+        REFERENCES professional_availabilities (id_professional_availabilities);
+
+-- Citas existentes: se enlazan por (profesional, día, slot); si hubiera duplicados, con la primera
+UPDATE appointments
+SET availability_id = (
+    SELECT MIN(a.id_professional_availabilities)
+    FROM professional_availabilities a
+    WHERE a.professional_id = appointments.professional_id
+      AND a.date_availability = CAST(appointments.date_appointments AS DATE)
+      AND a.id_slots = appointments.slot_id)
+WHERE availability_id IS NULL;
@@ -0,0 +1,39 @@
+-- Una disponibilidad por profesional + día + slot (user-008). Antes de la clave única se
+-- eliminan los duplicados que pudieran existir: se queda la fila de id más bajo, que pasa
+-- a RESERVADO si alguna de sus copias lo estaba, y las citas enlazadas a copias se mueven a ella.
+-- Tablas de trabajo: MySQL no permite borrar de una tabla con una subconsulta sobre ella misma.
+CREATE TABLE availability_dedupe_keep AS
+SELECT professional_id, date_availability, id_slots,
+       MIN(id_professional_availabilities) AS keep_id,
+       MAX(CASE WHEN status_availability = 'RESERVADO' THEN 1 ELSE 0 END) AS reserved
+FROM professional_availabilities
+GROUP BY professional_id, date_availability, id_slots
+HAVING COUNT(*) > 1;
+
+CREATE TABLE availability_dedupe_drop AS
+SELECT a.id_professional_availabilities AS drop_id, k.keep_id
+FROM professional_availabilities a
+JOIN availability_dedupe_keep k
+  ON k.professional_id = a.professional_id
+ AND k.date_availability = a.date_availability
+ AND k.id_slots = a.id_slots
+WHERE a.id_professional_availabilities <> k.keep_id;
+
+UPDATE appointments
+SET availability_id = (
+    SELECT d.keep_id FROM availability_dedupe_drop d WHERE d.drop_id = appointments.availability_id)
+WHERE availability_id IN (SELECT drop_id FROM availability_dedupe_drop);
+
+UPDATE professional_availabilities
+SET status_availability = 'RESERVADO'
+WHERE id_professional_availabilities IN (SELECT keep_id FROM availability_dedupe_keep WHERE reserved = 1);
+
+DELETE FROM professional_availabilities
+WHERE id_professional_availabilities IN (SELECT drop_id FROM availability_dedupe_drop);
+
+DROP TABLE availability_dedupe_drop;
+DROP TABLE availability_dedupe_keep;
+
+ALTER TABLE professional_availabilities
+    ADD CONSTRAINT uk_availability_professional_date_slot
+        UNIQUE (professional_id, date_availability, id_slots);
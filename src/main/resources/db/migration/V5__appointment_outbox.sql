@@ -0,0 +1,15 @@
+-- Outbox de eventos de cita (user-018): se inserta en la transacción de la cita y el relay
+-- lo vacía en orden de id
+CREATE TABLE appointment_outbox (
+    id_appointment_outbox BIGINT NOT NULL AUTO_INCREMENT,
+    type_appointment_outbox ENUM ('CANCELLED','COMPLETED','CONFIRMED','CREATED','REOPENED') NOT NULL,
+    appointment_id BIGINT NOT NULL,
+    professional_id BIGINT,
+    patient_id BIGINT,
+    treatment_id BIGINT,
+    date_appointments DATETIME(6),
+    previous_status_appointment_outbox ENUM ('CANCELADA','CONFIRMADA','PENDIENTE','REALIZADA'),
+    status_appointment_outbox ENUM ('CANCELADA','CONFIRMADA','PENDIENTE','REALIZADA'),
+    occurred_at_appointment_outbox DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_appointment_outbox)
+) ENGINE=InnoDB;
@@ -0,0 +1,7 @@
+-- Recordatorios de cita (user-019): carga por rango de fechas y estado tras un arranque, y
+-- marca de envío que reclama cada recordatorio para un solo nodo
+CREATE INDEX idx_appointments_date_status
+    ON appointments (date_appointments, status_appointments);
+
+ALTER TABLE appointments ADD COLUMN day_reminder_sent_appointments DATETIME(6);
+ALTER TABLE appointments ADD COLUMN two_hours_reminder_sent_appointments DATETIME(6);
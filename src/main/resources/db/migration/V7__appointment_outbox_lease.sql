@@ -0,0 +1,3 @@
+-- Outbox de citas (user-018): el relay reclama cada lote con un plazo en lugar de tenerlo
+-- bloqueado mientras lo entrega
+ALTER TABLE appointment_outbox ADD COLUMN claimed_until_appointment_outbox DATETIME(6);
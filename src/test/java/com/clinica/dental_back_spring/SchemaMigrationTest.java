@@ -0,0 +1,144 @@
+package com.clinica.dental_back_spring;
+
+import com.clinica.dental_back_spring.converter.RoleConverter;
+import com.clinica.dental_back_spring.entity.*;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Migraciones de db/migration sobre H2 en modo MySQL, con la misma configuración de baseline
+ * que application.properties: una base vacía recibe todo, una ya existente solo lo nuevo, y el
+ * resultado es el esquema que esperan las entidades.
+ */
+class SchemaMigrationTest {
+
+    @Test
+    void emptyDatabaseGetsTheWholeSchema() {
+        DataSource db = database();
+
+        MigrateResult result = flyway(db).migrate();
+
+        assertThat(result.migrations).first().extracting(m -> m.version).isEqualTo("1");
+        assertThat(indexes(db, "appointments")).contains("idx_appointments_professional_date", "idx_appointments_patient_date");
+        assertThat(new JdbcTemplate(db).queryForObject("SELECT COUNT(*) FROM appointment_outbox", Integer.class)).isZero();
+    }
+
+    @Test
+    void existingDatabaseIsBaselinedAndOnlyGetsTheNewMigrations() throws Exception {
+        DataSource db = database();
+        try (Connection c = db.getConnection()) {
+            ScriptUtils.executeSqlScript(c, new ClassPathResource("db/migration/V1__baseline.sql"));
+        }
+
+        MigrateResult result = flyway(db).migrate();
+
+        assertThat(result.migrations).extracting(m -> m.version).doesNotContain("1").contains("2");
+        assertThat(indexes(db, "appointments")).contains("idx_appointments_professional_date");
+    }
+
+    @Test
+    void existingAppointmentsAreLinkedToTheirAvailability() {
+        DataSource db = database();
+        Flyway.configure().dataSource(db).target("2").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.update("INSERT INTO professionals (id_professionals, email_professionals) VALUES (1, 'laura@clinica.es')");
+        jdbc.update("INSERT INTO slots (id_slots, start_time_slots, end_time_slots, period) VALUES (1, '09:00', '09:30', 'MANANA')");
+        jdbc.update("INSERT INTO professional_availabilities (id_professional_availabilities, professional_id, date_availability, id_slots, status_availability) "
+                + "VALUES (10, 1, '2025-03-10', 1, 'RESERVADO')");
+        jdbc.update("INSERT INTO appointments (id_appointments, professional_id, slot_id, date_appointments, status_appointments) "
+                + "VALUES (100, 1, 1, '2025-03-10 09:00:00', 'PENDIENTE'), (101, 1, 1, '2025-03-11 09:00:00', 'PENDIENTE')");
+
+        flyway(db).migrate();
+
+        assertThat(jdbc.queryForList("SELECT availability_id FROM appointments ORDER BY id_appointments", Long.class))
+                .containsExactly(10L, null);
+    }
+
+    @Test
+    void duplicateAvailabilitiesAreMergedBeforeTheUniqueKey() {
+        DataSource db = database();
+        Flyway.configure().dataSource(db).target("3").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.update("INSERT INTO professionals (id_professionals, email_professionals) VALUES (1, 'laura@clinica.es')");
+        jdbc.update("INSERT INTO slots (id_slots, start_time_slots, end_time_slots, period) VALUES (1, '09:00', '09:30', 'MANANA')");
+        // 10 y 11 son el mismo hueco; la cita quedó enlazada a la copia reservada
+        jdbc.update("INSERT INTO professional_availabilities (id_professional_availabilities, professional_id, date_availability, id_slots, status_availability) "
+                + "VALUES (10, 1, '2025-03-10', 1, 'LIBRE'), (11, 1, '2025-03-10', 1, 'RESERVADO'), (12, 1, '2025-03-11', 1, 'LIBRE')");
+        jdbc.update("INSERT INTO appointments (id_appointments, professional_id, slot_id, date_appointments, status_appointments, availability_id) "
+                + "VALUES (100, 1, 1, '2025-03-10 09:00:00', 'PENDIENTE', 11)");
+
+        flyway(db).migrate();
+
+        assertThat(jdbc.queryForList("SELECT id_professional_availabilities, status_availability FROM professional_availabilities "
+                + "ORDER BY id_professional_availabilities"))
+                .extracting(r -> r.get("id_professional_availabilities"), r -> r.get("status_availability"))
+                .containsExactly(tuple(10L, "RESERVADO"), tuple(12L, "LIBRE"));
+        assertThat(jdbc.queryForObject("SELECT availability_id FROM appointments", Long.class)).isEqualTo(10L);
+        assertThatThrownBy(() -> jdbc.update("INSERT INTO professional_availabilities (professional_id, date_availability, id_slots, status_availability) "
+                + "VALUES (1, '2025-03-11', 1, 'LIBRE')")).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbc.queryForList("SELECT LOWER(table_name) FROM information_schema.tables", String.class))
+                .noneMatch(t -> t.startsWith("availability_dedupe"));
+    }
+
+    @Test
+    void migratedSchemaMatchesTheEntities() {
+        DataSource db = database();
+        flyway(db).migrate();
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, db)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "validate")
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .build();
+        MetadataSources sources = new MetadataSources(registry);
+        for (Class<?> type : List.of(Appointment.class, AppointmentOutbox.class, Availability.class, Patient.class,
+                Professional.class, Slot.class, Treatment.class, User.class, RoleConverter.class)) {
+            sources.addAnnotatedClass(type);
+        }
+
+        // validate falla al arrancar si falta una tabla o una columna que usan las entidades
+        assertThatCode(() -> sources.buildMetadata().buildSessionFactory().close()).doesNotThrowAnyException();
+        assertThat(indexes(db, "appointments")).contains("idx_appointments_date_status");
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    static DataSource database() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:migration-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        ds.setUser("sa");
+        return ds;
+    }
+
+    static Flyway flyway(DataSource db) {
+        return Flyway.configure().dataSource(db).baselineOnMigrate(true).baselineVersion("1").load();
+    }
+
+    static List<String> indexes(DataSource db, String table) {
+        return new JdbcTemplate(db).queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE LOWER(table_name) = ?", String.class, table);
+    }
+}
@@ -0,0 +1,135 @@
+package com.clinica.dental_back_spring.loadtest;
+
+import com.clinica.dental_back_spring.mongo.BirthDateDocument;
+import com.clinica.dental_back_spring.mongo.BirthdayWindow;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Próximos cumpleaños sobre {@code user_birthdates} con 1M documentos: rango por el índice
+ * {@code (monthDay, userId)} frente al recorrido completo de la colección que había antes.
+ * No es un test de JUnit: necesita un MongoDB arrancado y se lanza a mano.
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *        -Duri=mongodb://localhost:27017 -Ddatabase=clinica_dental_bench -Ddocuments=1000000 -Ddays=7 \
+ *        com.clinica.dental_back_spring.loadtest.BirthdayIndexBenchmark
+ * </pre>
+ * La primera ejecución siembra la colección (se reutiliza si ya tiene {@code documents}).
+ * Imprime, para cada variante, documentos devueltos, claves y documentos examinados y
+ * latencias p50/p99.
+ */
+public final class BirthdayIndexBenchmark {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    public static void main(String[] args) {
+        String uri = System.getProperty("uri", "mongodb://localhost:27017");
+        String database = System.getProperty("database", "clinica_dental_bench");
+        int documents = Integer.getInteger("documents", 1_000_000);
+        int days = Integer.getInteger("days", 7);
+        int iterations = Integer.getInteger("iterations", 30);
+        LocalDate from = LocalDate.parse(System.getProperty("from", LocalDate.now().toString()));
+
+        try (MongoClient client = MongoClients.create(uri)) {
+            ReactiveMongoTemplate template = new ReactiveMongoTemplate(client, database);
+            seed(template, documents);
+
+            BirthdayWindow window = BirthdayWindow.of(from, days);
+            System.out.printf("%d documentos, ventana %s..%s, %d iteraciones%n",
+                    documents, window.from(), window.to(), iterations);
+            run(template, "índice (monthDay, userId)", query(window), iterations);
+            run(template, "recorrido completo", query(window).withHint("{ \"$natural\": 1 }"), iterations);
+        }
+    }
+
+    private static Query query(BirthdayWindow window) {
+        // La misma consulta que UpcomingBirthdayService
+        Query query = Query.query(window.criteria()).with(Sort.by("monthDay", "userId"));
+        query.fields().include("userId", "birthDate");
+        return query;
+    }
+
+    private static void run(ReactiveMongoTemplate template, String label, Query query, int iterations) {
+        for (int i = 0; i < 3; i++) {
+            template.find(query, BirthDateDocument.class).count().block();
+        }
+        long[] nanos = new long[iterations];
+        long returned = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            returned = template.find(query, BirthDateDocument.class).count().block();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        Document stats = explain(template, query).get("executionStats", Document.class);
+        System.out.printf("  %-28s %7d devueltos  %8s claves  %8s docs examinados   p50 %8.2f ms   p99 %8.2f ms%n",
+                label, returned, stats.get("totalKeysExamined"), stats.get("totalDocsExamined"),
+                nanos[iterations / 2] / 1_000_000.0, nanos[(int) Math.ceil(0.99 * iterations) - 1] / 1_000_000.0);
+    }
+
+    private static Document explain(ReactiveMongoTemplate template, Query query) {
+        return template.getCollection(template.getCollectionName(BirthDateDocument.class))
+                .flatMap(collection -> {
+                    var find = collection.find(query.getQueryObject())
+                            .projection(query.getFieldsObject())
+                            .sort(query.getSortObject());
+                    if (query.getHint() != null) {
+                        find = find.hint(Document.parse(query.getHint()));
+                    }
+                    return Mono.from(find.explain(ExplainVerbosity.EXECUTION_STATS));
+                })
+                .block();
+    }
+
+    // ==========================================================
+    // 🌱 Siembra
+    // ==========================================================
+    private static void seed(ReactiveMongoTemplate template, int documents) {
+        long existing = template.count(new Query(), BirthDateDocument.class).block();
+        if (existing == documents) {
+            return;
+        }
+        System.out.printf("Sembrando %d documentos...%n", documents);
+        long start = System.nanoTime();
+        template.dropCollection(BirthDateDocument.class).block();
+        new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext())
+                .resolveIndexFor(BirthDateDocument.class)
+                .forEach(index -> template.indexOps(BirthDateDocument.class).createIndex(index).block());
+
+        Random random = new Random(42);
+        LocalDate oldest = LocalDate.of(1940, 1, 1);
+        int span = (int) (LocalDate.of(2015, 12, 31).toEpochDay() - oldest.toEpochDay());
+        for (int first = 1; first <= documents; first += INSERT_BATCH) {
+            List<BirthDateDocument> batch = new ArrayList<>(INSERT_BATCH);
+            for (long userId = first; userId < first + INSERT_BATCH && userId <= documents; userId++) {
+                LocalDate birthDate = oldest.plusDays(random.nextInt(span + 1));
+                batch.add(BirthDateDocument.builder()
+                        .userId(userId)
+                        .birthDate(birthDate)
+                        .monthDay(BirthDateDocument.monthDay(birthDate))
+                        .note("")
+                        .build());
+            }
+            ReactiveBulkOperations ops = template.bulkOps(BulkMode.UNORDERED, BirthDateDocument.class);
+            ops.insert(batch).execute().block();
+        }
+        System.out.printf("Sembrado en %d s%n", (System.nanoTime() - start) / 1_000_000_000);
+    }
+}
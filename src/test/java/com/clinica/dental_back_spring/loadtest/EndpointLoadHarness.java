@@ -0,0 +1,156 @@
+package com.clinica.dental_back_spring.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Carga sobre una API ya arrancada para comparar hilos de plataforma y virtuales.
+ * No es un test de JUnit: se lanza a mano contra cada modo y se comparan las dos salidas.
+ * <pre>
+ *   VIRTUAL_THREADS=false java -jar target/dental-back-spring-*.jar   (y después =true)
+ *   mvn -q test-compile
+ *   java -cp target/test-classes -Dlabel=plataforma -Demail=admin@smyle.es -Dpassword=123456 \
+ *        -DprofessionalId=1 -DtreatmentId=1 -Dclients=400 -Dseconds=30 \
+ *        com.clinica.dental_back_spring.loadtest.EndpointLoadHarness
+ * </pre>
+ * Por cada endpoint (citas por profesional y búsqueda de huecos) imprime peticiones,
+ * errores, peticiones/s y latencias p50/p99.
+ */
+public final class EndpointLoadHarness {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String base = System.getProperty("base", "http://localhost:8080");
+        String label = System.getProperty("label", "api");
+        int clients = Integer.getInteger("clients", 200);
+        int seconds = Integer.getInteger("seconds", 30);
+        int warmUpSeconds = Integer.getInteger("warmUpSeconds", 5);
+        String professionalId = System.getProperty("professionalId", "1");
+        String treatmentId = System.getProperty("treatmentId", "1");
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, clients / 8)))
+                .build();
+        String token = login(http, base, System.getProperty("email", "admin@smyle.es"),
+                System.getProperty("password", "123456"));
+
+        List<Target> targets = List.of(
+                new Target("GET /appointments/by-professional",
+                        base + "/appointments/by-professional/" + professionalId + "?size=50"),
+                new Target("GET /availabilities/search",
+                        base + "/availabilities/search?treatmentId=" + treatmentId + "&professionalId=" + professionalId));
+
+        System.out.printf("%s: %d clientes, %d s por endpoint (%d s de calentamiento)%n",
+                label, clients, seconds, warmUpSeconds);
+        for (Target target : targets) {
+            run(http, token, target, clients, warmUpSeconds);
+            Stats stats = run(http, token, target, clients, seconds);
+            System.out.printf("  %-36s %8d pet. %5d err. %9.1f pet/s   p50 %7.2f ms   p99 %7.2f ms%n",
+                    target.name(), stats.requests(), stats.errors(), stats.requests() / (double) seconds,
+                    stats.percentileMs(50), stats.percentileMs(99));
+        }
+        System.exit(0);
+    }
+
+    private static Stats run(HttpClient http, String token, Target target, int clients, int seconds)
+            throws InterruptedException, ExecutionException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target.url()))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Stats>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                Stats stats = new Stats();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        stats.record(System.nanoTime() - start, response.statusCode() >= 400);
+                    } catch (Exception e) {
+                        stats.record(System.nanoTime() - start, true);
+                    }
+                }
+                return stats;
+            }));
+        }
+        Stats total = new Stats();
+        for (Future<Stats> f : futures) {
+            total.merge(f.get());
+        }
+        pool.shutdown();
+        return total;
+    }
+
+    private static String login(HttpClient http, String base, String email, String password) throws Exception {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher m = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !m.find()) {
+            throw new IllegalStateException("Login fallido (" + response.statusCode() + "): " + response.body());
+        }
+        return m.group(1);
+    }
+
+    private record Target(String name, String url) {
+    }
+
+    private static final class Stats {
+
+        private long[] latencies = new long[1024];
+        private int requests;
+        private int errors;
+
+        void record(long nanos, boolean error) {
+            if (requests == latencies.length) {
+                latencies = Arrays.copyOf(latencies, requests * 2);
+            }
+            latencies[requests++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < other.requests; i++) {
+                record(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        int requests() {
+            return requests;
+        }
+
+        int errors() {
+            return errors;
+        }
+
+        double percentileMs(int p) {
+            if (requests == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, requests);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p / 100.0 * requests) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
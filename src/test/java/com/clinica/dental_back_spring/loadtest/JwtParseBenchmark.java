@@ -0,0 +1,100 @@
+package com.clinica.dental_back_spring.loadtest;
+
+import com.clinica.dental_back_spring.security.JwtPayload;
+import com.clinica.dental_back_spring.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.function.ToLongFunction;
+
+/**
+ * Verificación del JWT por petición: el camino anterior de {@code JwtFilter} (tres parseos,
+ * cada uno construyendo clave y parser) frente a {@link JwtUtil#validateAndExtract} (un parseo
+ * con clave y parser creados al arrancar).
+ * No es un test de JUnit: se lanza a mano.
+ * <pre>
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) -Dseconds=5 \
+ *        com.clinica.dental_back_spring.loadtest.JwtParseBenchmark
+ * </pre>
+ * Imprime, para cada camino, operaciones/s y bytes asignados por operación (en el hilo que mide).
+ */
+public final class JwtParseBenchmark {
+
+    private static final String SECRET = "7b5E1nGyQo7Sxcm4O6+RQ6m0vE8hpJ3TsnUbbNfFQz9Aeq1bWdpXAv8WqPdjv09T";
+
+    // Evita que el JIT descarte el trabajo medido
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        int seconds = Integer.getInteger("seconds", 5);
+        int warmUpSeconds = Integer.getInteger("warmUpSeconds", 3);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        String token = jwtUtil.generateToken("admin@smyle.es", "ROLE_ADMIN", 1L);
+
+        ToLongFunction<String> before = JwtParseBenchmark::previousFilterPath;
+        ToLongFunction<String> after = t -> {
+            JwtPayload payload = jwtUtil.validateAndExtract(t);
+            return payload.issuedAtMillis() + payload.getSubject().length();
+        };
+
+        System.out.printf("JWT HS256, %d s por camino (%d s de calentamiento)%n", seconds, warmUpSeconds);
+        run(before, token, warmUpSeconds);
+        report("antes: 3 parseos, clave por parseo", run(before, token, seconds));
+        run(after, token, warmUpSeconds);
+        report("después: 1 parseo, parser único", run(after, token, seconds));
+    }
+
+    // Lo que hacía JwtFilter por petición: extractAllClaims + validateToken (que volvía a
+    // parsear para el subject y otra vez para la expiración), con clave y parser nuevos cada vez
+    private static long previousFilterPath(String token) {
+        Claims claims = parse(token);
+        String email = claims.getSubject();
+        boolean valid = parse(token).getSubject().equals(email) && !parse(token).getExpiration().before(new Date());
+        return claims.getIssuedAt().getTime() + (valid ? 1 : 0);
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static Result run(ToLongFunction<String> path, String token, int seconds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long acc = 0;
+        long ops = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 256; i++) {
+                acc += path.applyAsLong(token);
+            }
+            ops += 256;
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        sink = acc;
+        return new Result(ops, nanos, allocated);
+    }
+
+    private static void report(String label, Result r) {
+        System.out.printf("  %-36s %12.0f ops/s   %10.0f B/op%n",
+                label, r.ops() / (r.nanos() / 1_000_000_000.0), (double) r.allocatedBytes() / r.ops());
+    }
+
+    private record Result(long ops, long nanos, long allocatedBytes) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.clinica.dental_back_spring.mongo;
+
+import com.clinica.dental_back_spring.dto.PatientBirthDateDTO;
+import com.clinica.dental_back_spring.dto.PatientDTO;
+import com.clinica.dental_back_spring.dto.UserBirthDateDTO;
+import com.clinica.dental_back_spring.enums.Role;
+import com.clinica.dental_back_spring.repository.UserContact;
+import com.clinica.dental_back_spring.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cruce de páginas de MySQL con las fechas de Mongo, con ambos repositorios simulados.
+ */
+class BirthDateHydratorTest {
+
+    private static final LocalDate ANA = LocalDate.of(1990, 5, 17);
+    private static final LocalDate LUIS = LocalDate.of(1985, 1, 2);
+
+    private final BirthDateRepository birthDateRepository = mock(BirthDateRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BirthDateHydrator hydrator = new BirthDateHydrator(birthDateRepository, userRepository, 200);
+
+    // ==========================================================
+    // 👥 Usuarios
+    // ==========================================================
+    @Test
+    @SuppressWarnings("unchecked")
+    void usersKeepTheRequestedOrderAndMissingOnesAreSkipped() {
+        // MySQL devuelve en otro orden y sin el 4; Mongo solo tiene fecha del 3
+        when(userRepository.findContacts(anyCollection())).thenReturn(List.of(contact(1L, "a@smyle.es"), contact(3L, "c@smyle.es")));
+        when(birthDateRepository.findByUserIdIn(anyCollection())).thenReturn(Flux.just(doc(3L, ANA)));
+
+        List<UserBirthDateDTO> result = hydrator.hydrateUsers(Arrays.asList(3L, 4L, null, 1L, 3L));
+
+        assertThat(result).extracting(u -> u.getUser().getId(), UserBirthDateDTO::getBirthDate)
+                .containsExactly(tuple(3L, ANA), tuple(1L, null));
+        // Un solo IN a cada lado, sin nulos ni repetidos
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository).findContacts(ids.capture());
+        assertThat(ids.getValue()).containsExactly(3L, 4L, 1L);
+        verify(birthDateRepository).findByUserIdIn(ids.getValue());
+    }
+
+    @Test
+    void emptyRequestQueriesNothing() {
+        assertThat(hydrator.hydrateUsers(Collections.singletonList(null))).isEmpty();
+        verifyNoInteractions(userRepository, birthDateRepository);
+    }
+
+    @Test
+    void slowMongoReturnsThePageWithoutDates() {
+        when(userRepository.findContacts(anyCollection())).thenReturn(List.of(contact(1L, "a@smyle.es")));
+        when(birthDateRepository.findByUserIdIn(anyCollection()))
+                .thenReturn(Flux.just(doc(1L, ANA)).delayElements(Duration.ofSeconds(5)));
+
+        long start = System.nanoTime();
+        List<UserBirthDateDTO> result = hydrator.hydrateUsers(List.of(1L));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(result).extracting(u -> u.getUser().getId(), UserBirthDateDTO::getBirthDate)
+                .containsExactly(tuple(1L, null));
+    }
+
+    @Test
+    void mongoErrorReturnsThePageWithoutDates() {
+        when(userRepository.findContacts(anyCollection())).thenReturn(List.of(contact(1L, "a@smyle.es")));
+        when(birthDateRepository.findByUserIdIn(anyCollection())).thenReturn(Flux.error(new IllegalStateException("Mongo caído")));
+
+        assertThat(hydrator.hydrateUsers(List.of(1L))).extracting(UserBirthDateDTO::getBirthDate).containsExactly((LocalDate) null);
+    }
+
+    @Test
+    void pagesLargerThanTheMaximumAreRejected() {
+        List<Long> ids = LongStream.rangeClosed(1, BirthDateHydrator.MAX_PAGE_SIZE + 1).boxed().toList();
+        List<PatientDTO> patients = new ArrayList<>(Collections.nCopies(BirthDateHydrator.MAX_PAGE_SIZE + 1, patient("x@smyle.es")));
+
+        assertThatThrownBy(() -> hydrator.hydrateUsers(ids))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining(String.valueOf(BirthDateHydrator.MAX_PAGE_SIZE));
+        assertThatThrownBy(() -> hydrator.hydratePatients(patients))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining(String.valueOf(BirthDateHydrator.MAX_PAGE_SIZE));
+        verifyNoInteractions(userRepository, birthDateRepository);
+    }
+
+    // ==========================================================
+    // 🧑‍🤝‍🧑 Pacientes
+    // ==========================================================
+    @Test
+    void patientsAreLinkedToTheirUserByEmailIgnoringCase() {
+        // La collation de MySQL encuentra al usuario aunque el email difiera en mayúsculas
+        when(userRepository.findContactsByEmails(anyCollection()))
+                .thenReturn(List.of(contact(1L, "ana@smyle.es"), contact(2L, "luis@smyle.es")));
+        when(birthDateRepository.findByUserIdIn(anyCollection())).thenReturn(Flux.just(doc(1L, ANA), doc(2L, LUIS)));
+
+        List<PatientBirthDateDTO> result = hydrator.hydratePatients(List.of(
+                patient("Ana@Smyle.es"), patient(null), patient("sin-usuario@smyle.es"), patient("luis@smyle.es")));
+
+        assertThat(result).extracting(p -> p.getPatient().getEmail(), PatientBirthDateDTO::getUserId, PatientBirthDateDTO::getBirthDate)
+                .containsExactly(
+                        tuple("Ana@Smyle.es", 1L, ANA),
+                        tuple(null, null, null),
+                        tuple("sin-usuario@smyle.es", null, null),
+                        tuple("luis@smyle.es", 2L, LUIS));
+    }
+
+    @Test
+    void patientsWithoutMatchingUsersSkipMongo() {
+        when(userRepository.findContactsByEmails(anyCollection())).thenReturn(List.of());
+
+        List<PatientBirthDateDTO> result = hydrator.hydratePatients(List.of(patient("nadie@smyle.es")));
+
+        assertThat(result).extracting(PatientBirthDateDTO::getUserId).containsExactly((Long) null);
+        verify(birthDateRepository, never()).findByUserIdIn(any());
+    }
+
+    private static UserContact contact(Long id, String email) {
+        return new UserContact(id, email, Role.ROLE_PACIENTE, true);
+    }
+
+    private static PatientDTO patient(String email) {
+        return PatientDTO.builder().firstName("Paciente").email(email).active(true).build();
+    }
+
+    private static BirthDateDocument doc(Long userId, LocalDate birthDate) {
+        return BirthDateDocument.builder().userId(userId).birthDate(birthDate).build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.clinica.dental_back_spring.mongo;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.BsonInt32;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caminos de escritura y lectura con {@link ReactiveMongoTemplate} simulado: upsert con
+ * reintento, lote con la última entrada por usuario, {@code $in} en streaming y limpieza de
+ * duplicados antes del índice único.
+ */
+class BirthDateServiceTest {
+
+    private static final LocalDate BIRTH = LocalDate.of(1990, 5, 17);
+
+    private final BirthDateRepository repository = mock(BirthDateRepository.class);
+    private final ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+    private BirthDateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BirthDateService(repository, template, 3);
+    }
+
+    // ==========================================================
+    // ✏️ Upsert
+    // ==========================================================
+    @Test
+    void saveIsASingleUpsertThatStoresMonthDay() {
+        BirthDateDocument saved = doc(7L, BIRTH);
+        when(template.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(BirthDateDocument.class)))
+                .thenReturn(Mono.just(saved));
+
+        assertThat(service.saveBirthDate(7L, BIRTH, null).block()).isSameAs(saved);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(template).findAndModify(query.capture(), update.capture(), options.capture(), eq(BirthDateDocument.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("userId", 7L);
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("monthDay", 517)
+                .containsEntry("note", "");
+        assertThat(options.getValue().isUpsert()).isTrue();
+        assertThat(options.getValue().isReturnNew()).isTrue();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void concurrentFirstInsertIsRetriedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        when(template.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(BirthDateDocument.class)))
+                .thenReturn(Mono.defer(() -> calls.incrementAndGet() == 1
+                        ? Mono.error(new DuplicateKeyException("E11000"))
+                        : Mono.just(doc(7L, BIRTH))));
+
+        assertThat(service.saveBirthDate(7L, BIRTH, "nota").block().getUserId()).isEqualTo(7L);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void saveRejectsMissingFields() {
+        assertThatThrownBy(() -> service.saveBirthDate(null, BIRTH, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.saveBirthDate(7L, null, null)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(template);
+    }
+
+    // ==========================================================
+    // 📦 Lote
+    // ==========================================================
+    @Test
+    void batchSendsOneUnorderedBulkWhereTheLastEntryPerUserWins() {
+        ReactiveBulkOperations ops = mock(ReactiveBulkOperations.class);
+        when(template.bulkOps(BulkMode.UNORDERED, BirthDateDocument.class)).thenReturn(ops);
+        when(ops.execute()).thenReturn(Mono.just(BulkWriteResult.acknowledged(
+                0, 1, 0, 1, List.of(new BulkWriteUpsert(0, new BsonInt32(1))), List.of())));
+
+        BirthDateBatchResult result = service.saveBatch(List.of(
+                new BirthDateRequest(1L, BIRTH, null),
+                new BirthDateRequest(2L, BIRTH, null),
+                new BirthDateRequest(1L, BIRTH.plusDays(1), "corregida"))).block();
+
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.written()).isEqualTo(2);
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.modified()).isEqualTo(1);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(ops, times(2)).upsert(queries.capture(), updates.capture());
+        verify(ops).execute();
+        assertThat(queries.getAllValues()).extracting(q -> q.getQueryObject().get("userId")).containsExactly(1L, 2L);
+        assertThat(updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class))
+                .containsEntry("birthDate", BIRTH.plusDays(1))
+                .containsEntry("monthDay", 518)
+                .containsEntry("note", "corregida");
+    }
+
+    @Test
+    void batchRejectsEmptyOversizedAndNullEntries() {
+        BirthDateRequest ok = new BirthDateRequest(1L, BIRTH, null);
+
+        assertThatThrownBy(() -> service.saveBatch(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.saveBatch(List.of(ok, ok, ok, ok)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("3");
+        assertThatThrownBy(() -> service.saveBatch(Arrays.asList(ok, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(template);
+    }
+
+    // ==========================================================
+    // 🔍 Streaming
+    // ==========================================================
+    @Test
+    @SuppressWarnings("unchecked")
+    void manyUsersAreOneInQueryStreamedBack() {
+        when(repository.findByUserIdIn(any())).thenReturn(Flux.just(doc(1L, BIRTH), doc(3L, BIRTH)));
+
+        List<BirthDateDocument> docs = service.getBirthDates(Arrays.asList(1L, 3L, 1L, null, 5L))
+                .collectList().block();
+
+        assertThat(docs).extracting(BirthDateDocument::getUserId).containsExactly(1L, 3L);
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).findByUserIdIn(ids.capture());
+        assertThat(ids.getValue()).containsExactly(1L, 3L, 5L);
+    }
+
+    @Test
+    void streamingRejectsEmptyAndOversizedRequests() {
+        assertThatThrownBy(() -> service.getBirthDates(Set.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getBirthDates(List.of(1L, 2L, 3L, 4L))).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repository);
+    }
+
+    // ==========================================================
+    // 🗂️ Índices
+    // ==========================================================
+    @Test
+    void duplicatesAreRemovedBeforeTheUniqueIndexIsCreated() {
+        ObjectId newest = new ObjectId();
+        ObjectId older = new ObjectId();
+        ObjectId oldest = new ObjectId();
+        ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+        when(template.indexOps(BirthDateDocument.class)).thenReturn(indexOps);
+        when(template.getConverter()).thenReturn(converter());
+        when(template.aggregate(any(Aggregation.class), eq(BirthDateDocument.class), eq(Document.class)))
+                .thenReturn(Flux.just(new Document("_id", 7L).append("ids", List.of(newest, older, oldest)).append("count", 3)));
+        when(template.remove(any(Query.class), eq(BirthDateDocument.class))).thenReturn(Mono.just(DeleteResult.acknowledged(2)));
+        when(indexOps.createIndex(any(IndexDefinition.class))).thenReturn(Mono.just("idx"));
+
+        service.ensureIndexes().block();
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        InOrder order = inOrder(template, indexOps);
+        order.verify(template).remove(removed.capture(), eq(BirthDateDocument.class));
+        order.verify(indexOps, times(2)).createIndex(any(IndexDefinition.class));
+        // Se queda el más reciente (primero en orden descendente de _id)
+        assertThat(removed.getValue().getQueryObject().get("_id", Document.class).getList("$in", Object.class))
+                .containsExactly(older, oldest);
+    }
+
+    @Test
+    void indexesAreCreatedDirectlyWhenThereAreNoDuplicates() {
+        ReactiveIndexOperations indexOps = mock(ReactiveIndexOperations.class);
+        when(template.indexOps(BirthDateDocument.class)).thenReturn(indexOps);
+        when(template.getConverter()).thenReturn(converter());
+        when(template.aggregate(any(Aggregation.class), eq(BirthDateDocument.class), eq(Document.class))).thenReturn(Flux.empty());
+        when(indexOps.createIndex(any(IndexDefinition.class))).thenReturn(Mono.just("idx"));
+
+        service.ensureIndexes().block();
+
+        verify(template, never()).remove(any(Query.class), eq(BirthDateDocument.class));
+        verify(indexOps, times(2)).createIndex(any(IndexDefinition.class));
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+    }
+
+    private static BirthDateDocument doc(Long userId, LocalDate birthDate) {
+        return BirthDateDocument.builder()
+                .userId(userId).birthDate(birthDate).monthDay(BirthDateDocument.monthDay(birthDate)).note("").build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.clinica.dental_back_spring.mongo;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BirthdayWindowTest {
+
+    @Test
+    void windowInsideTheYearIsASingleRange() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2025, 5, 15), 7);
+
+        assertThat(window.criteria().getCriteriaObject())
+                .isEqualTo(new Document("monthDay", new Document("$gte", 515).append("$lte", 521)));
+        assertThat(window.occurrence(LocalDate.of(1990, 5, 21))).contains(LocalDate.of(2025, 5, 21));
+        assertThat(window.occurrence(LocalDate.of(1990, 5, 22))).isEmpty();
+    }
+
+    @Test
+    void windowAcrossNewYearSplitsInTwoRangesAndMapsToNextYear() {
+        BirthdayWindow window = BirthdayWindow.of(LocalDate.of(2025, 12, 28), 7);
+
+        assertThat(window.criteria().getCriteriaObject()).isEqualTo(new Document("$or", List.of(
+                new Document("monthDay", new Document("$gte", 1228).append("$lte", 1231)),
+                new Document("monthDay", new Document("$gte", 101).append("$lte", 103)))));
+        assertThat(window.occurrence(LocalDate.of(1980, 12, 30))).contains(LocalDate.of(2025, 12, 30));
+        assertThat(window.occurrence(LocalDate.of(1980, 1, 2))).contains(LocalDate.of(2026, 1, 2));
+    }
+
+    @Test
+    void leapDayBirthdaysAreCelebratedOnThe28thInCommonYears() {
+        LocalDate leapDay = LocalDate.of(2000, 2, 29);
+
+        BirthdayWindow common = BirthdayWindow.of(LocalDate.of(2025, 2, 25), 4);
+        assertThat(common.criteria().getCriteriaObject())
+                .isEqualTo(new Document("monthDay", new Document("$gte", 225).append("$lte", 229)));
+        assertThat(common.occurrence(leapDay)).contains(LocalDate.of(2025, 2, 28));
+
+        BirthdayWindow leap = BirthdayWindow.of(LocalDate.of(2024, 2, 25), 4);
+        assertThat(leap.occurrence(leapDay)).isEmpty();
+        assertThat(BirthdayWindow.of(LocalDate.of(2024, 2, 25), 5).occurrence(leapDay))
+                .contains(LocalDate.of(2024, 2, 29));
+    }
+
+    @Test
+    void rejectsWindowsOutsideTheAllowedRange() {
+        assertThatThrownBy(() -> BirthdayWindow.of(LocalDate.of(2025, 1, 1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BirthdayWindow.of(LocalDate.of(2025, 1, 1), BirthdayWindow.MAX_DAYS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
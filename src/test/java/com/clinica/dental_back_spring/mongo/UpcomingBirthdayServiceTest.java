@@ -0,0 +1,85 @@
+package com.clinica.dental_back_spring.mongo;
+
+import com.clinica.dental_back_spring.enums.Role;
+import com.clinica.dental_back_spring.repository.UserContact;
+import com.clinica.dental_back_spring.repository.UserRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Orden y límite en Mongo por cada rango de la ventana; en memoria solo se mezclan los
+ * (como mucho) 2 × limit documentos recibidos.
+ */
+class UpcomingBirthdayServiceTest {
+
+    private final ReactiveMongoTemplate template = mock(ReactiveMongoTemplate.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UpcomingBirthdayService service = new UpcomingBirthdayService(template, userRepository);
+
+    @Test
+    void eachRangeIsSortedAndLimitedInMongoThenMergedChronologically() {
+        // 28/12/2025 + 7 días: hasta el 31/12 y desde el 1/1
+        when(template.find(any(Query.class), eq(BirthDateDocument.class))).thenReturn(
+                Flux.just(doc(5L, LocalDate.of(1980, 12, 29)), doc(2L, LocalDate.of(1990, 12, 31))),
+                Flux.just(doc(1L, LocalDate.of(2000, 1, 1)), doc(9L, LocalDate.of(1970, 1, 2))));
+        when(userRepository.findActiveContacts(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> new UserContact(id, "u" + id + "@smyle.es", Role.ROLE_PACIENTE, true)).toList();
+        });
+
+        List<UpcomingBirthday> result = service.upcoming(LocalDate.of(2025, 12, 28), 7, 2).block();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(template, times(2)).find(queries.capture(), eq(BirthDateDocument.class));
+        assertThat(queries.getAllValues()).allSatisfy(q -> {
+            assertThat(q.getLimit()).isEqualTo(2);
+            assertThat(q.getSortObject()).isEqualTo(new Document("monthDay", 1).append("userId", 1));
+        });
+        assertThat(queries.getAllValues().get(0).getQueryObject())
+                .isEqualTo(new Document("monthDay", new Document("$gte", 1228).append("$lte", 1231)));
+        assertThat(queries.getAllValues().get(1).getQueryObject())
+                .isEqualTo(new Document("monthDay", new Document("$gte", 101).append("$lte", 103)));
+
+        assertThat(result).extracting(UpcomingBirthday::userId, UpcomingBirthday::date, UpcomingBirthday::age)
+                .containsExactly(
+                        tuple(5L, LocalDate.of(2025, 12, 29), 45),
+                        tuple(2L, LocalDate.of(2025, 12, 31), 35));
+        // Solo los que entran en el límite se cruzan con MySQL
+        verify(userRepository).findActiveContacts(List.of(5L, 2L));
+    }
+
+    @Test
+    void windowInsideTheYearIsOneLimitedQuery() {
+        when(template.find(any(Query.class), eq(BirthDateDocument.class)))
+                .thenReturn(Flux.just(doc(3L, LocalDate.of(1995, 5, 16))));
+        when(userRepository.findActiveContacts(anyCollection())).thenReturn(List.of());
+
+        List<UpcomingBirthday> result = service.upcoming(LocalDate.of(2025, 5, 15), 7, 50).block();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(template).find(query.capture(), eq(BirthDateDocument.class));
+        assertThat(query.getValue().getLimit()).isEqualTo(50);
+        // Usuario inactivo o borrado en MySQL: se descarta
+        assertThat(result).isEmpty();
+    }
+
+    private static BirthDateDocument doc(Long userId, LocalDate birthDate) {
+        return BirthDateDocument.builder()
+                .userId(userId).birthDate(birthDate).monthDay(BirthDateDocument.monthDay(birthDate)).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.clinica.dental_back_spring.security;
+
+import com.clinica.dental_back_spring.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Revocación en modo stateless con tokens reales de {@link JwtUtil}: corte al milisegundo
+ * (un nuevo login en el mismo segundo es válido) y solo tras el commit.
+ */
+class TokenRevocationListTest {
+
+    private static final long USER_ID = 7L;
+
+    private JwtUtil jwtUtil;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "7b5E1nGyQo7Sxcm4O6+RQ6m0vE8hpJ3TsnUbbNfFQz9Aeq1bWdpXAv8WqPdjv09T");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        jwtUtil.init();
+        revocationList = new TokenRevocationList(mock(UserRepository.class), true, 86_400_000L);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokenIssuedRightAfterTheChangeIsAcceptedWithinTheSameSecond() throws InterruptedException {
+        JwtPayload old = issue();
+        Thread.sleep(2);
+
+        revocationList.revokeIssuedBefore(USER_ID);
+        JwtPayload fresh = issue();
+
+        assertThat(revocationList.isRevoked(USER_ID, old.getIssuedAt())).isTrue();
+        assertThat(revocationList.isRevoked(USER_ID, fresh.getIssuedAt())).isFalse();
+    }
+
+    @Test
+    void revocationWaitsForCommit() throws InterruptedException {
+        JwtPayload old = issue();
+        Thread.sleep(2);
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> {
+            revocationList.revokeIssuedBefore(USER_ID);
+            revocationList.block(8L);
+        });
+        assertThat(revocationList.isRevoked(USER_ID, old.getIssuedAt())).isFalse();
+        assertThat(revocationList.isRevoked(8L, old.getIssuedAt())).isFalse();
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(revocationList.isRevoked(USER_ID, old.getIssuedAt())).isTrue();
+        assertThat(revocationList.isRevoked(8L, old.getIssuedAt())).isTrue();
+    }
+
+    @Test
+    void rolledBackChangeRevokesNothing() {
+        JwtPayload old = issue();
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> revocationList.revokeIssuedBefore(USER_ID));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(revocationList.isRevoked(USER_ID, old.getIssuedAt())).isFalse();
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private JwtPayload issue() {
+        return jwtUtil.validateAndExtract(jwtUtil.generateToken("laura@smyle.es", "ROLE_DENTISTA", USER_ID));
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        work.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+}
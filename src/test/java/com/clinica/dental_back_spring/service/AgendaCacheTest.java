@@ -0,0 +1,73 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AgendaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Marcas de invalidación por (profesional, día): una agenda en construcción solo se descarta
+ * si se invalida su propio día.
+ */
+class AgendaCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private final AgendaCache cache = new AgendaCache(100);
+
+    @Test
+    void invalidatingAnotherDayDoesNotDropTheAgendaBeingBuilt() {
+        long seen = cache.generation();
+        cache.invalidate(1L, DAY.plusDays(1));
+        cache.invalidate(2L, DAY);
+
+        cache.put(agenda(1L, DAY), 1, seen);
+
+        assertThat(cache.get(1L, DAY, 1)).isNotNull();
+    }
+
+    @Test
+    void invalidatingTheSameDayDropsTheAgendaBeingBuilt() {
+        long seen = cache.generation();
+        cache.invalidate(1L, DAY);
+
+        cache.put(agenda(1L, DAY), 1, seen);
+        assertThat(cache.get(1L, DAY, 1)).isNull();
+
+        // Una lectura posterior a la invalidación sí se guarda
+        cache.put(agenda(1L, DAY), 1, cache.generation());
+        assertThat(cache.get(1L, DAY, 1)).isNotNull();
+    }
+
+    @Test
+    void clearDropsAgendasBuiltBeforeIt() {
+        long seen = cache.generation();
+        cache.clear();
+
+        cache.put(agenda(1L, DAY), 1, seen);
+
+        assertThat(cache.get(1L, DAY, 1)).isNull();
+    }
+
+    @Test
+    void forgettingMarksBeyondTheCapStillDropsOlderAgendas() {
+        AgendaCache small = new AgendaCache(2);
+        long seen = small.generation();
+        for (int i = 0; i < 5; i++) {
+            small.invalidate(9L, DAY.plusDays(i));
+        }
+
+        small.put(agenda(1L, DAY), 1, seen);
+        assertThat(small.get(1L, DAY, 1)).isNull();
+
+        small.put(agenda(1L, DAY), 1, small.generation());
+        assertThat(small.get(1L, DAY, 1)).isNotNull();
+    }
+
+    private static AgendaDTO agenda(Long professionalId, LocalDate date) {
+        return new AgendaDTO(professionalId, date, List.of());
+    }
+}
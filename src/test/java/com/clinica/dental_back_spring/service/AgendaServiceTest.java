@@ -0,0 +1,145 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AgendaDTO;
+import com.clinica.dental_back_spring.dto.AgendaEntryDTO;
+import com.clinica.dental_back_spring.dto.CreateAppointmentRequest;
+import com.clinica.dental_back_spring.dto.UpdatePatientRequest;
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@BookingJpaTest
+@Import({AgendaService.class, PatientService.class, PatientSearchIndex.class})
+class AgendaServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private AgendaService agendaService;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private PatientService patientService;
+    @Autowired private SlotCatalog slotCatalog;
+    @Autowired private BookingFixture fixture;
+
+    private Long professionalId;
+    private Long patientId;
+    private Long treatmentId;
+    private Long nineId;
+    private Long halfPastNineId;
+
+    @BeforeEach
+    void setUp() {
+        Slot nine = fixture.slot(LocalTime.of(9, 0), Period.MANANA);
+        Slot halfPastNine = fixture.slot(LocalTime.of(9, 30), Period.MANANA);
+        Professional professional = fixture.professional("laura@agenda.test");
+        Patient patient = fixture.patient("Lucía", "lucia@agenda.test");
+        Treatment treatment = fixture.treatment("Limpieza", BigDecimal.TEN);
+        for (Slot s : new Slot[]{nine, halfPastNine}) {
+            fixture.availability(professional, s, DAY, StatusAvailability.LIBRE);
+        }
+        em.flush();
+        em.clear();
+        slotCatalog.refresh();
+
+        professionalId = professional.getId();
+        patientId = patient.getId();
+        treatmentId = treatment.getId();
+        nineId = nine.getId();
+        halfPastNineId = halfPastNine.getId();
+    }
+
+    @Test
+    void mergesSlotsAvailabilityAndAppointmentsAndCachesTheDay() {
+        book(halfPastNineId);
+
+        AgendaDTO agenda = agendaService.getAgenda(professionalId, DAY);
+        Statistics stats = statistics();
+        AgendaDTO again = agendaService.getAgenda(professionalId, DAY);
+
+        assertThat(again).isSameAs(agenda);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(agenda.getEntries()).extracting(AgendaEntryDTO::getSlotId)
+                .containsSubsequence(nineId, halfPastNineId);
+
+        AgendaEntryDTO booked = entry(agenda, halfPastNineId);
+        assertThat(booked.getAvailabilityStatus()).isEqualTo(StatusAvailability.RESERVADO);
+        assertThat(booked.getAppointment().getPatient().getFirstName()).isEqualTo("Lucía");
+        assertThat(booked.getAppointment().getTreatment().getName()).isEqualTo("Limpieza");
+        assertThat(entry(agenda, nineId).getAppointment()).isNull();
+    }
+
+    @Test
+    void bookingAndCancellingInvalidateTheDay() {
+        AgendaDTO before = agendaService.getAgenda(professionalId, DAY);
+        assertThat(entry(before, nineId).getAvailabilityStatus()).isEqualTo(StatusAvailability.LIBRE);
+
+        Long appointmentId = book(nineId);
+        AgendaDTO booked = agendaService.getAgenda(professionalId, DAY);
+        assertThat(booked).isNotSameAs(before);
+        assertThat(entry(booked, nineId).getAppointment().getId()).isEqualTo(appointmentId);
+
+        appointmentService.cancelAppointment(appointmentId, "Paciente enfermo");
+        em.flush();
+        em.clear();
+        AgendaDTO cancelled = agendaService.getAgenda(professionalId, DAY);
+        assertThat(entry(cancelled, nineId).getAppointment()).isNull();
+        assertThat(entry(cancelled, nineId).getAvailabilityStatus()).isEqualTo(StatusAvailability.LIBRE);
+    }
+
+    @Test
+    void renamingAPatientInvalidatesOnlyTheDaysOfTheirAppointments() {
+        book(nineId);
+        AgendaDTO withAppointment = agendaService.getAgenda(professionalId, DAY);
+        AgendaDTO otherDay = agendaService.getAgenda(professionalId, DAY.plusDays(1));
+
+        patientService.update(patientId, update(null, "600111222"));
+        assertThat(agendaService.getAgenda(professionalId, DAY)).isSameAs(withAppointment);
+
+        patientService.update(patientId, update("Lucía María", null));
+        em.flush();
+        em.clear();
+        AgendaDTO renamed = agendaService.getAgenda(professionalId, DAY);
+        assertThat(entry(renamed, nineId).getAppointment().getPatient().getFirstName()).isEqualTo("Lucía María");
+        assertThat(agendaService.getAgenda(professionalId, DAY.plusDays(1))).isSameAs(otherDay);
+    }
+
+    private static UpdatePatientRequest update(String firstName, String phone) {
+        return UpdatePatientRequest.builder().firstName(firstName).phone(phone).build();
+    }
+
+    private Long book(Long slotId) {
+        Long id = appointmentService.createAppointment(CreateAppointmentRequest.builder()
+                .slotId(slotId).date(DAY).professionalId(professionalId)
+                .patientId(patientId).treatmentId(treatmentId).createdBy(CreatedBy.ADMIN)
+                .build()).getId();
+        em.flush();
+        em.clear();
+        return id;
+    }
+
+    private static AgendaEntryDTO entry(AgendaDTO agenda, Long slotId) {
+        return agenda.getEntries().stream().filter(e -> e.getSlotId().equals(slotId)).findFirst().orElseThrow();
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
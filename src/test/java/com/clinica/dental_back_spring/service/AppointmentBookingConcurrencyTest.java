@@ -0,0 +1,267 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.CreateAppointmentRequest;
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cientos de reservas simultáneas sobre el mismo hueco: solo una puede ganar.
+ * Sin transacción envolvente, para que cada reserva haga su propio commit.
+ * Compara el bloqueo de fila de {@link AppointmentService#createAppointment} con una variante
+ * optimista (comparar y fijar el estado, como haría un {@code @Version}) y registra el
+ * rendimiento (reservas resueltas por segundo) y la tasa de error de cada una.
+ */
+@BookingJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentBookingConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentBookingConcurrencyTest.class);
+
+    private static final int ATTEMPTS = 200;
+    private static final int ROUNDS = 3;
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private SlotCatalog slotCatalog;
+    @Autowired private BookingFixture fixture;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private ProfessionalRepository professionalRepository;
+    @Autowired private TreatmentRepository treatmentRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Slot slot;
+    private Professional professional;
+    private Treatment treatment;
+    private final List<Long> patientIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        fixture.deleteAll();
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotHaveExactlyOneWinner() throws Exception {
+        prepare();
+        fixture.availability(professional, slot, DAY, StatusAvailability.LIBRE);
+
+        Race race = race(DAY, this::bookWithRowLock);
+
+        logger.info("Bloqueo de fila: {}", race);
+
+        assertThat(race.count(Outcome.WIN)).isEqualTo(1);
+        assertThat(race.count(Outcome.CONFLICT)).isEqualTo(ATTEMPTS - 1);
+        assertThat(appointmentRepository.findAll())
+                .filteredOn(a -> a.getStatus() != AppointmentStatus.CANCELADA)
+                .hasSize(1);
+        assertThat(availabilityRepository.findAll().get(0).getStatus()).isEqualTo(StatusAvailability.RESERVADO);
+    }
+
+    @Test
+    void rowLockIsComparedWithAnOptimisticCompareAndSet() throws Exception {
+        prepare();
+
+        // Una ronda de calentamiento de cada una; luego rondas alternas sobre días nuevos
+        LocalDate day = DAY;
+        race(day = freeDay(day), this::bookWithRowLock);
+        race(day = freeDay(day), this::bookOptimistically);
+
+        Race pessimistic = Race.EMPTY;
+        Race optimistic = Race.EMPTY;
+        for (int round = 0; round < ROUNDS; round++) {
+            pessimistic = pessimistic.plus(race(day = freeDay(day), this::bookWithRowLock));
+            optimistic = optimistic.plus(race(day = freeDay(day), this::bookOptimistically));
+        }
+
+        logger.info("Bloqueo de fila: {}", pessimistic);
+        logger.info("Optimista (comparar y fijar): {}", optimistic);
+
+        for (Race race : List.of(pessimistic, optimistic)) {
+            assertThat(race.count(Outcome.WIN)).isEqualTo(ROUNDS);
+            assertThat(race.count(Outcome.ERROR)).isZero();
+        }
+        // Con el bloqueo nadie llega a insertar una cita que luego se deshace
+        assertThat(pessimistic.count(Outcome.LATE_CONFLICT)).isZero();
+        assertThat(appointmentRepository.findAll()).hasSize(2 * (ROUNDS + 1));
+    }
+
+    // ==========================================================
+    // 🔒 RESERVAS
+    // ==========================================================
+    private Outcome bookWithRowLock(LocalDate day, Long patientId) {
+        try {
+            appointmentService.createAppointment(request(day, patientId));
+            return Outcome.WIN;
+        } catch (IllegalStateException e) {
+            return Outcome.CONFLICT;
+        } catch (RuntimeException e) {
+            return Outcome.ERROR;
+        }
+    }
+
+    /**
+     * Lo que haría un {@code @Version} en Availability: lee sin bloquear, prepara la cita y al
+     * final solo cambia el estado si nadie lo ha cambiado antes (el estado hace de versión en
+     * esta transición). El perdedor tarde ya ha insertado la cita y la deshace.
+     */
+    private Outcome bookOptimistically(LocalDate day, Long patientId) {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Availability availability = availabilityRepository
+                        .findByProfessionalIdAndDateAndSlotId(professional.getId(), day, slot.getId())
+                        .orElseThrow();
+                if (availability.getStatus() != StatusAvailability.LIBRE) {
+                    return Outcome.CONFLICT;
+                }
+                Patient patient = patientRepository.findById(patientId).orElseThrow();
+                Professional p = professionalRepository.findById(professional.getId()).orElseThrow();
+                Treatment t = treatmentRepository.findById(treatment.getId()).orElseThrow();
+                appointmentRepository.save(Appointment.builder()
+                        .availability(availability).slot(slot).patient(patient).professional(p).treatment(t)
+                        .status(AppointmentStatus.PENDIENTE)
+                        .date(LocalDateTime.of(day, slot.getStartTime()))
+                        .duration(t.getDuration())
+                        .createdBy(CreatedBy.ADMIN)
+                        .build());
+
+                int updated = entityManager.createQuery("""
+                                UPDATE Availability a SET a.status = :reserved
+                                WHERE a.id = :id AND a.status = :free
+                                """)
+                        .setParameter("reserved", StatusAvailability.RESERVADO)
+                        .setParameter("free", StatusAvailability.LIBRE)
+                        .setParameter("id", availability.getId())
+                        .executeUpdate();
+                if (updated == 0) {
+                    status.setRollbackOnly();
+                    return Outcome.LATE_CONFLICT;
+                }
+                return Outcome.WIN;
+            });
+        } catch (RuntimeException e) {
+            return Outcome.ERROR;
+        }
+    }
+
+    private CreateAppointmentRequest request(LocalDate day, Long patientId) {
+        return CreateAppointmentRequest.builder()
+                .slotId(slot.getId())
+                .date(day)
+                .professionalId(professional.getId())
+                .patientId(patientId)
+                .treatmentId(treatment.getId())
+                .createdBy(CreatedBy.ADMIN)
+                .build();
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private void prepare() {
+        slot = fixture.slot(LocalTime.of(10, 0), Period.MANANA);
+        slotCatalog.refresh();
+        professional = fixture.professional("laura@concurrency.test");
+        treatment = fixture.treatment("Limpieza", BigDecimal.TEN);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            patientIds.add(fixture.patient("Paciente" + i, "p" + i + "@concurrency.test").getId());
+        }
+    }
+
+    private LocalDate freeDay(LocalDate previous) {
+        LocalDate day = previous.plusDays(1);
+        fixture.availability(professional, slot, day, StatusAvailability.LIBRE);
+        return day;
+    }
+
+    /** Lanza {@link #ATTEMPTS} reservas a la vez sobre el hueco del día, con 32 hilos. */
+    private Race race(LocalDate day, BookingAttempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (Long patientId : patientIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return attempt.book(day, patientId);
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        for (Future<Outcome> f : futures) {
+            outcomes.merge(f.get(60, TimeUnit.SECONDS), 1, Integer::sum);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        pool.shutdown();
+        return new Race(outcomes, ATTEMPTS, elapsedNanos);
+    }
+
+    @FunctionalInterface
+    private interface BookingAttempt {
+        Outcome book(LocalDate day, Long patientId);
+    }
+
+    private enum Outcome {
+        WIN,
+        /** Vio el hueco ocupado antes de hacer nada. */
+        CONFLICT,
+        /** Llegó a insertar la cita y perdió al fijar el estado: trabajo deshecho. */
+        LATE_CONFLICT,
+        /** Cualquier otra excepción (bloqueo agotado, interbloqueo...): la vería el cliente como 500. */
+        ERROR
+    }
+
+    private record Race(Map<Outcome, Integer> outcomes, int attempts, long nanos) {
+
+        static final Race EMPTY = new Race(new EnumMap<>(Outcome.class), 0, 0);
+
+        int count(Outcome outcome) {
+            return outcomes.getOrDefault(outcome, 0);
+        }
+
+        Race plus(Race other) {
+            Map<Outcome, Integer> sum = new EnumMap<>(Outcome.class);
+            sum.putAll(outcomes);
+            other.outcomes.forEach((k, v) -> sum.merge(k, v, Integer::sum));
+            return new Race(sum, attempts + other.attempts, nanos + other.nanos);
+        }
+
+        @Override
+        public String toString() {
+            Function<Outcome, String> pct = o -> String.format("%.1f%%", 100.0 * count(o) / attempts);
+            return String.format("%d reservas del mismo hueco en %.1f ms (%.0f reservas/s); "
+                            + "conflictos %s, conflictos tras insertar %s, errores %s",
+                    attempts, nanos / 1_000_000.0, attempts / (nanos / 1_000_000_000.0),
+                    pct.apply(Outcome.CONFLICT), pct.apply(Outcome.LATE_CONFLICT), pct.apply(Outcome.ERROR));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.CreateAppointmentRequest;
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cancelar libera el hueco solo mientras siga siendo de la cita: una cita cancelada no se
+ * reactiva y una segunda cancelación no suelta la reserva de otro paciente.
+ */
+@BookingJpaTest
+class AppointmentCancellationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private SlotCatalog slotCatalog;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private BookingFixture fixture;
+
+    private Slot slot;
+    private Professional professional;
+    private Treatment treatment;
+    private Availability availability;
+
+    @BeforeEach
+    void setUp() {
+        slot = fixture.slot(LocalTime.of(9, 0), Period.MANANA);
+        professional = fixture.professional("laura@cancel.test");
+        treatment = fixture.treatment("Limpieza", BigDecimal.TEN);
+        availability = fixture.availability(professional, slot, DAY, StatusAvailability.LIBRE);
+        slotCatalog.refresh();
+    }
+
+    @Test
+    void cancelledAppointmentCannotTakeBackASlotBookedByAnotherPatient() {
+        Long a = book(fixture.patient("Ana", "ana@cancel.test"));
+        appointmentService.cancelAppointment(a, "Anula");
+        assertThat(status()).isEqualTo(StatusAvailability.LIBRE);
+
+        Long b = book(fixture.patient("Bea", "bea@cancel.test"));
+
+        assertThatThrownBy(() -> appointmentService.updateStatus(a, AppointmentStatus.CONFIRMADA))
+                .isInstanceOf(IllegalStateException.class);
+        appointmentService.cancelAppointment(a, "Anula otra vez");
+        appointmentService.updateStatus(a, AppointmentStatus.CANCELADA);
+
+        // El hueco sigue siendo de B: un tercer paciente no puede reservarlo
+        assertThat(status()).isEqualTo(StatusAvailability.RESERVADO);
+        Patient carla = fixture.patient("Carla", "carla@cancel.test");
+        assertThatThrownBy(() -> book(carla)).isInstanceOf(IllegalStateException.class);
+        assertThat(appointmentRepository.findById(b).orElseThrow().getStatus()).isEqualTo(AppointmentStatus.PENDIENTE);
+    }
+
+    @Test
+    void cancellingTheOwnerFreesTheSlotOnce() {
+        Long a = book(fixture.patient("Ana", "ana@cancel.test"));
+
+        appointmentService.updateStatus(a, AppointmentStatus.CONFIRMADA);
+        appointmentService.updateStatus(a, AppointmentStatus.CANCELADA);
+
+        assertThat(status()).isEqualTo(StatusAvailability.LIBRE);
+        assertThat(book(fixture.patient("Bea", "bea@cancel.test"))).isNotNull();
+    }
+
+    private Long book(Patient patient) {
+        Long id = appointmentService.createAppointment(CreateAppointmentRequest.builder()
+                .slotId(slot.getId()).date(DAY).professionalId(professional.getId())
+                .patientId(patient.getId()).treatmentId(treatment.getId()).createdBy(CreatedBy.ADMIN)
+                .build()).getId();
+        em.flush();
+        return id;
+    }
+
+    private StatusAvailability status() {
+        em.flush();
+        em.clear();
+        return availabilityRepository.findById(availability.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,137 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entrega confirmada: {@code deliver} solo devuelve true cuando todos los suscriptores han
+ * procesado el lote; cola llena, lentitud o excepción devuelven false y nada se descarta.
+ */
+class AppointmentEventDispatcherTest {
+
+    private AppointmentEventDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void everySubscriberReceivesEveryBatchInOrderBeforeDeliverReturns() {
+        List<AppointmentEvent> slow = new CopyOnWriteArrayList<>();
+        List<AppointmentEvent> fast = new CopyOnWriteArrayList<>();
+        dispatcher = start(2, 5000, Map.of(
+                "slow", events -> {
+                    sleep(5);
+                    slow.addAll(events);
+                },
+                "fast", fast::addAll));
+
+        for (long id = 1; id <= 1000; id += 100) {
+            assertThat(dispatcher.deliver(events(id, 100))).isTrue();
+            // Confirmado: ya está en los dos
+            assertThat(slow).hasSize((int) id + 99);
+            assertThat(fast).hasSize((int) id + 99);
+        }
+        assertThat(slow).extracting(AppointmentEvent::appointmentId).isSorted().doesNotHaveDuplicates();
+        assertThat(fast).extracting(AppointmentEvent::appointmentId).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void subscribersProcessTheSameBatchInParallel() {
+        dispatcher = start(2, 5000, Map.of("a", events -> sleep(300), "b", events -> sleep(300)));
+
+        long start = System.nanoTime();
+        assertThat(dispatcher.deliver(events(1, 10))).isTrue();
+
+        // Uno detrás de otro serían 600 ms
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(550);
+    }
+
+    @Test
+    void failingSubscriberLeavesTheBatchUnconfirmed() {
+        List<AppointmentEvent> healthy = new CopyOnWriteArrayList<>();
+        dispatcher = start(2, 5000, Map.of(
+                "healthy", healthy::addAll,
+                "failing", events -> {
+                    throw new IllegalStateException("caído");
+                }));
+
+        assertThat(dispatcher.deliver(events(1, 10))).isFalse();
+        // El sano lo recibe igualmente: al repetir el lote tendrá que ser idempotente
+        waitUntil(() -> healthy.size() == 10);
+    }
+
+    @Test
+    void stuckSubscriberTimesOutInsteadOfDroppingEvents() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AppointmentEvent> received = new CopyOnWriteArrayList<>();
+        dispatcher = start(1, 50, Map.of("stuck", events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.addAll(events);
+        }));
+
+        // Uno en curso, otro en cola y el tercero no cabe: ninguno confirmado
+        assertThat(dispatcher.deliver(events(1, 1))).isFalse();
+        assertThat(dispatcher.deliver(events(2, 1))).isFalse();
+        assertThat(dispatcher.deliver(events(3, 1))).isFalse();
+
+        release.countDown();
+        assertThat(dispatcher.deliver(events(4, 1))).isTrue();
+        // Los que sí se encolaron se procesan; el resto lo repetirá el relay
+        assertThat(received).extracting(AppointmentEvent::appointmentId).containsExactly(1L, 2L, 4L);
+    }
+
+    private static AppointmentEventDispatcher start(int capacity, long ackTimeoutMs,
+                                                    Map<String, AppointmentEventListener> listeners) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.copyOf(listeners));
+        AppointmentEventDispatcher d = new AppointmentEventDispatcher(
+                beans.getBeanProvider(AppointmentEventListener.class), capacity, ackTimeoutMs, new StandardEnvironment());
+        d.afterSingletonsInstantiated();
+        return d;
+    }
+
+    private static List<AppointmentEvent> events(long firstId, int count) {
+        List<AppointmentEvent> events = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            events.add(new AppointmentEvent(AppointmentEvent.Type.CREATED, id, 1L, 1L, 1L,
+                    LocalDateTime.of(2025, 3, 10, 9, 0), null, AppointmentStatus.PENDIENTE, Instant.now()));
+        }
+        return events;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timeout").isLessThan(deadline);
+            sleep(10);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
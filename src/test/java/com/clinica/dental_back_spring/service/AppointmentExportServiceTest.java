@@ -0,0 +1,125 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.ExportFormat;
+import com.clinica.dental_back_spring.enums.Period;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AppointmentExportService.class, JacksonAutoConfiguration.class})
+class AppointmentExportServiceTest {
+
+    // Más filas que el tamaño de lote, para pasar por los vaciados intermedios
+    private static final int APPOINTMENTS = 2_500;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private AppointmentExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long otherProfessionalId;
+
+    @BeforeEach
+    void setUp() {
+        Slot slot = em.persist(Slot.builder()
+                .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(9, 30)).period(Period.MANANA).build());
+        Patient patient = em.persist(Patient.builder()
+                .firstName("Lucía").lastName("Santos, \"Luci\"").email("lucia@test.com").active(true).build());
+        Professional laura = em.persist(Professional.builder()
+                .name("Laura").lastName("Gómez").email("laura@test.com").active(true).build());
+        Professional raul = em.persist(Professional.builder()
+                .name("Raúl").lastName("Martín").email("raul@test.com").active(true).build());
+        Treatment treatment = em.persist(Treatment.builder()
+                .name("Limpieza").duration(30).price(BigDecimal.TEN).visible(true).build());
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            em.persist(Appointment.builder()
+                    .slot(slot).patient(patient).professional(i % 5 == 0 ? raul : laura).treatment(treatment)
+                    .status(AppointmentStatus.CONFIRMADA)
+                    .date(LocalDate.of(2025, 1, 1).plusDays(i % 60).atTime(9, 0))
+                    .duration(30)
+                    .createdBy(CreatedBy.ADMIN)
+                    .build());
+            if (i % 500 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        otherProfessionalId = raul.getId();
+    }
+
+    @Test
+    void exportsTheWholeRangeAsCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1), null, ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(APPOINTMENTS);
+        assertThat(lines).hasSize(APPOINTMENTS + 1);
+        assertThat(lines.get(0)).startsWith("id,date,duration,status,createdBy,");
+        assertThat(lines.get(1)).contains("2025-01-01T09:00,30,confirmada,admin,")
+                .contains(",Lucía,\"Santos, \"\"Luci\"\"\",")
+                .endsWith(",Limpieza");
+    }
+
+    @Test
+    void textThatWouldRunAsASpreadsheetFormulaIsPrefixed() {
+        assertThat(AppointmentExportService.csv("=HYPERLINK(\"http://x\",\"y\")"))
+                .isEqualTo("\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\"");
+        assertThat(AppointmentExportService.csv("+34 600")).isEqualTo("'+34 600");
+        assertThat(AppointmentExportService.csv("-1+1")).isEqualTo("'-1+1");
+        assertThat(AppointmentExportService.csv("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(AppointmentExportService.csv("\tcmd")).isEqualTo("'\tcmd");
+        assertThat(AppointmentExportService.csv("\rcmd")).isEqualTo("\"'\rcmd\"");
+        // Números y textos normales no cambian
+        assertThat(AppointmentExportService.csv(-5)).isEqualTo("-5");
+        assertThat(AppointmentExportService.csv("Lucía")).isEqualTo("Lucía");
+    }
+
+    @Test
+    void filtersByProfessionalAndDateAsNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 10),
+                otherProfessionalId, ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize((int) rows).isNotEmpty();
+        for (String line : lines) {
+            JsonNode json = objectMapper.readTree(line);
+            assertThat(json.get("professionalId").asLong()).isEqualTo(otherProfessionalId);
+            assertThat(LocalDate.parse(json.get("date").asText().substring(0, 10)))
+                    .isBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 10));
+        }
+    }
+}
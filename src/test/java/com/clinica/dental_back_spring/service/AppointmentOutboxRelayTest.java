@@ -0,0 +1,218 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.AppointmentOutbox;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.repository.AppointmentOutboxRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Varios relays drenando el outbox a la vez (como varios nodos de la API) sobre H2 en modo
+ * MySQL: cada evento se entrega exactamente una vez y se mide el rendimiento del relay.
+ * Un suscriptor que falla deja las filas en la tabla y detiene el drenaje; uno lento no retiene
+ * conexión ni bloqueos, y un lote reclamado por un nodo caído se repite al vencer su plazo.
+ * Sin transacción envolvente, para que cada lote haga su propio commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentOutboxRelayTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentOutboxRelayTest.class);
+
+    private static final int EVENTS = 20_000;
+    private static final int RELAYS = 4;
+    private static final int BATCH_SIZE = 200;
+    private static final long LEASE_MS = 60_000;
+
+    @Autowired private AppointmentOutboxRepository outboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private DataSource dataSource;
+
+    private final Map<Long, AtomicInteger> delivered = new ConcurrentHashMap<>();
+    private AppointmentEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = dispatcher(events -> events.forEach(e ->
+                delivered.computeIfAbsent(e.appointmentId(), id -> new AtomicInteger()).incrementAndGet()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        dispatcher.shutdown();
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentRelaysDeliverEveryEventExactlyOnce() throws Exception {
+        insertRows(EVENTS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(RELAYS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < RELAYS; i++) {
+            AppointmentOutboxRelay relay = relay(dispatcher);
+            futures.add(pool.submit(() -> {
+                start.await();
+                int relayed = 0;
+                for (int n = relay.drain(); n > 0; n = relay.drain()) {
+                    relayed += n;
+                }
+                return relayed;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        int relayed = 0;
+        for (Future<Integer> f : futures) {
+            relayed += f.get(120, TimeUnit.SECONDS);
+        }
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        pool.shutdown();
+
+        logger.info("Outbox: {} eventos con {} relays (lote {}) en {} ms ({} eventos/s)",
+                relayed, RELAYS, BATCH_SIZE, elapsedMs, relayed * 1000L / elapsedMs);
+
+        dispatcher.shutdown();
+        assertThat(relayed).isEqualTo(EVENTS);
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(delivered).hasSize(EVENTS);
+        assertThat(delivered.values()).allMatch(count -> count.get() == 1);
+    }
+
+    @Test
+    void unconfirmedBatchStaysInTheOutboxAndStopsTheDrain() {
+        insertRows(3 * BATCH_SIZE);
+        AtomicInteger failures = new AtomicInteger();
+        dispatcher.shutdown();
+        dispatcher = dispatcher(events -> {
+            if (failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("suscriptor caído");
+            }
+            events.forEach(e -> delivered.computeIfAbsent(e.appointmentId(), id -> new AtomicInteger()).incrementAndGet());
+        });
+        AppointmentOutboxRelay relay = relay(dispatcher);
+
+        assertThat(relay.drain()).isZero();
+        assertThat(outboxRepository.count()).isEqualTo(3 * BATCH_SIZE);
+
+        // Siguiente sondeo: se repite el lote y se vacía la tabla
+        assertThat(relay.drain()).isEqualTo(3 * BATCH_SIZE);
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(delivered).hasSize(3 * BATCH_SIZE);
+    }
+
+    @Test
+    void slowSubscriberHoldsNeitherAConnectionNorTheRowLocks() throws Exception {
+        insertRows(2 * BATCH_SIZE);
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AppointmentEventDispatcher slow = dispatcher(events -> {
+            delivering.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> first = pool.submit(() -> relay(slow).relayBatch());
+            assertThat(delivering.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Con el suscriptor parado: ninguna conexión prestada y otro relay drena el resto
+            HikariPoolMXBean hikari = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            assertThat(hikari.getActiveConnections()).isZero();
+            assertThat(relay(dispatcher).drain()).isEqualTo(BATCH_SIZE);
+            assertThat(outboxRepository.count()).isEqualTo(BATCH_SIZE);
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(BATCH_SIZE);
+            assertThat(outboxRepository.count()).isZero();
+        } finally {
+            release.countDown();
+            pool.shutdown();
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    void expiredLeaseIsRedeliveredAndLiveLeaseIsSkipped() {
+        insertRows(BATCH_SIZE);
+        List<Long> ids = outboxRepository.findAll().stream().map(AppointmentOutbox::getId).sorted().toList();
+        Instant now = Instant.now();
+        // La primera mitad la reclamó un nodo que cayó; la segunda, uno que sigue entregando
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxRepository.claim(ids.subList(0, BATCH_SIZE / 2), now.minusSeconds(1));
+            outboxRepository.claim(ids.subList(BATCH_SIZE / 2, BATCH_SIZE), now.plusSeconds(3600));
+        });
+
+        assertThat(relay(dispatcher).drain()).isEqualTo(BATCH_SIZE / 2);
+        assertThat(outboxRepository.findAll()).extracting(AppointmentOutbox::getId)
+                .containsExactlyInAnyOrderElementsOf(ids.subList(BATCH_SIZE / 2, BATCH_SIZE));
+    }
+
+    @Test
+    void leaseMustOutlastTheAckTimeout() {
+        assertThatThrownBy(() -> new AppointmentOutboxRelay(outboxRepository, dispatcher, transactionManager, BATCH_SIZE, 10_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private static AppointmentEventDispatcher dispatcher(AppointmentEventListener listener) {
+        AppointmentEventDispatcher d = new AppointmentEventDispatcher(
+                new StaticListableBeanFactory(Map.of("listener", listener)).getBeanProvider(AppointmentEventListener.class),
+                16, 10_000, new StandardEnvironment());
+        d.afterSingletonsInstantiated();
+        return d;
+    }
+
+    private AppointmentOutboxRelay relay(AppointmentEventDispatcher d) {
+        return new AppointmentOutboxRelay(outboxRepository, d, transactionManager, BATCH_SIZE, LEASE_MS);
+    }
+
+    private void insertRows(int count) {
+        List<AppointmentOutbox> rows = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            rows.add(AppointmentOutbox.builder()
+                    .type(AppointmentEvent.Type.CREATED).appointmentId(id).professionalId(1L).patientId(id)
+                    .treatmentId(1L).appointmentDate(LocalDateTime.of(2025, 3, 10, 9, 0))
+                    .status(AppointmentStatus.PENDIENTE).occurredAt(Instant.now())
+                    .build());
+        }
+        outboxRepository.saveAll(rows);
+    }
+}
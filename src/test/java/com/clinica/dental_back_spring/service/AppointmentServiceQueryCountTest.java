@@ -0,0 +1,107 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AppointmentDTO;
+import com.clinica.dental_back_spring.dto.AppointmentPage;
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.Period;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@BookingJpaTest
+class AppointmentServiceQueryCountTest {
+
+    private static final int APPOINTMENTS = 20;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BookingFixture fixture;
+
+    private Long patientId;
+    private Long professionalId;
+
+    @BeforeEach
+    void setUp() {
+        Slot slot = fixture.slot(LocalTime.of(9, 0), Period.MANANA);
+        Patient patient = fixture.patient("Lucía", "lucia@test.com");
+        Professional professional = fixture.professional("laura@test.com");
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            // Un tratamiento distinto por cita: sin JOIN cada uno sería una SELECT extra
+            Treatment treatment = fixture.treatment("Tratamiento " + i, BigDecimal.TEN);
+            fixture.appointment(slot, patient, professional, treatment, LocalDate.of(2025, 1, 1).plusDays(i).atTime(9, 0));
+        }
+        em.flush();
+        em.clear();
+
+        patientId = patient.getId();
+        professionalId = professional.getId();
+    }
+
+    @Test
+    void listingByPatientUsesASingleStatement() {
+        Statistics stats = statistics();
+
+        List<AppointmentDTO> result = appointmentService
+                .getAppointmentsByPatient(patientId, null, null, null, APPOINTMENTS).getItems();
+
+        assertThat(result).hasSize(APPOINTMENTS);
+        assertThat(result.get(0).getTreatment().getName()).isEqualTo("Tratamiento 0");
+        assertThat(result.get(0).getProfessional().getLastName()).isEqualTo("Gómez");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listingByProfessionalUsesASingleStatement() {
+        Statistics stats = statistics();
+
+        List<AppointmentDTO> result = appointmentService
+                .getAppointmentsByProfessional(professionalId, null, null, null, APPOINTMENTS).getItems();
+
+        assertThat(result).hasSize(APPOINTMENTS);
+        assertThat(result.get(0).getPatient().getFirstName()).isEqualTo("Lucía");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPagesWalkTheRangeWithoutGapsOrRepeats() {
+        LocalDate from = LocalDate.of(2025, 1, 3);
+        LocalDate to = LocalDate.of(2025, 1, 12);
+
+        AppointmentPage first = appointmentService.getAppointmentsByProfessional(professionalId, from, to, null, 4);
+        AppointmentPage second = appointmentService.getAppointmentsByProfessional(professionalId, from, to, first.getNextCursor(), 4);
+        AppointmentPage third = appointmentService.getAppointmentsByProfessional(professionalId, from, to, second.getNextCursor(), 4);
+
+        assertThat(first.getItems()).hasSize(4);
+        assertThat(first.getItems().get(0).getDate().toLocalDate()).isEqualTo(from);
+        assertThat(second.getItems()).hasSize(4);
+        assertThat(third.getItems()).hasSize(2);
+        assertThat(third.getNextCursor()).isNull();
+        assertThat(third.getItems().get(1).getDate().toLocalDate()).isEqualTo(to);
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
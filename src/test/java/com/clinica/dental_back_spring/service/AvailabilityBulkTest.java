@@ -0,0 +1,186 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.controller.AvailabilityController;
+import com.clinica.dental_back_spring.dto.AvailabilityBulkResultDTO;
+import com.clinica.dental_back_spring.dto.CreateAvailabilityBulkRequest;
+import com.clinica.dental_back_spring.entity.Professional;
+import com.clinica.dental_back_spring.entity.Slot;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.AvailabilityKey;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Generación masiva de disponibilidades: rejilla por días de la semana y periodo,
+ * duplicados omitidos, inserciones de más de un bloque de 500 filas, límites y el 409
+ * cuando otra operación inserta las mismas filas en paralelo.
+ */
+@BookingJpaTest
+@Import(AvailabilityService.class)
+class AvailabilityBulkTest {
+
+    // Lunes 3 a domingo 30 de marzo de 2025: 20 días laborables
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 3);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 30);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private AvailabilityService availabilityService;
+    @Autowired private SlotCatalog slotCatalog;
+    @Autowired private BookingFixture fixture;
+    @MockitoSpyBean private AvailabilityRepository availabilityRepository;
+
+    private final List<Long> professionalIds = new ArrayList<>();
+    private final List<Slot> morning = new ArrayList<>();
+    private final List<Slot> afternoon = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            professionalIds.add(professional(i).getId());
+        }
+        for (int i = 0; i < 6; i++) {
+            morning.add(fixture.slot(LocalTime.of(9, 0).plusMinutes(30L * i), Period.MANANA));
+        }
+        for (int i = 0; i < 4; i++) {
+            afternoon.add(fixture.slot(LocalTime.of(16, 0).plusMinutes(30L * i), Period.TARDE));
+        }
+        em.flush();
+        slotCatalog.refresh();
+    }
+
+    @Test
+    void expandsTheGridByWeekdayAndPeriod() {
+        Long professionalId = professionalIds.get(0);
+
+        AvailabilityBulkResultDTO result = availabilityService.createBulk(CreateAvailabilityBulkRequest.builder()
+                .professionalIds(Set.of(professionalId))
+                .from(FROM).to(LocalDate.of(2025, 3, 16))
+                .weekdays(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY))
+                .period(Period.TARDE)
+                .build());
+
+        Set<AvailabilityKey> expected = new HashSet<>();
+        for (LocalDate day : List.of(FROM, FROM.plusDays(2), FROM.plusDays(7), FROM.plusDays(9))) {
+            afternoon.forEach(s -> expected.add(new AvailabilityKey(professionalId, day, s.getId())));
+        }
+        assertThat(result.getRequested()).isEqualTo(16);
+        assertThat(result.getCreated()).isEqualTo(16);
+        assertThat(result.getSkipped()).isZero();
+        assertThat(keys()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void withoutWeekdaysOrPeriodUsesWorkingDaysAndEverySlot() {
+        AvailabilityBulkResultDTO result = availabilityService.createBulk(request(Set.of(professionalIds.get(0))));
+
+        assertThat(result.getCreated()).isEqualTo(20 * 10);
+        assertThat(keys()).allMatch(k -> k.date().getDayOfWeek().getValue() <= 5);
+    }
+
+    @Test
+    void skipsRowsThatAlreadyExist() {
+        Professional professional = em.find(Professional.class, professionalIds.get(0));
+        fixture.availability(professional, morning.get(0), FROM, StatusAvailability.RESERVADO);
+        em.flush();
+
+        AvailabilityBulkResultDTO result = availabilityService.createBulk(request(Set.of(professional.getId())));
+
+        assertThat(result.getRequested()).isEqualTo(200);
+        assertThat(result.getCreated()).isEqualTo(199);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        // La existente no se toca
+        assertThat(availabilityRepository.findAll())
+                .filteredOn(a -> a.getStatus() == StatusAvailability.RESERVADO)
+                .hasSize(1);
+    }
+
+    @Test
+    void insertsMoreRowsThanOneMultiRowStatementHolds() {
+        AvailabilityBulkResultDTO result = availabilityService.createBulk(request(new HashSet<>(professionalIds)));
+
+        // 3 profesionales x 20 días x 10 slots = 600 filas: dos sentencias de hasta 500
+        assertThat(result.getCreated()).isEqualTo(600);
+        assertThat(keys()).hasSize(600).doesNotHaveDuplicates();
+        assertThat(availabilityRepository.findAll()).allMatch(a -> a.getStatus() == StatusAvailability.LIBRE);
+    }
+
+    @Test
+    void rejectsRangesLongerThanTheDayCap() {
+        CreateAvailabilityBulkRequest req = request(Set.of(professionalIds.get(0)));
+        req.setTo(FROM.plusDays(AvailabilityService.MAX_BULK_DAYS));
+
+        assertThatThrownBy(() -> availabilityService.createBulk(req))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(AvailabilityService.MAX_BULK_DAYS));
+    }
+
+    @Test
+    void rejectsGridsLargerThanTheRowCap() {
+        // 28 profesionales x 366 días x 10 slots = 102.480 filas
+        Set<Long> many = new HashSet<>(professionalIds);
+        for (int i = professionalIds.size(); i < 28; i++) {
+            many.add(professional(i).getId());
+        }
+        em.flush();
+        CreateAvailabilityBulkRequest req = request(many);
+        req.setTo(FROM.plusDays(AvailabilityService.MAX_BULK_DAYS - 1));
+        req.setWeekdays(Set.of(DayOfWeek.values()));
+
+        assertThatThrownBy(() -> availabilityService.createBulk(req))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("máximo " + AvailabilityService.MAX_BULK_ROWS);
+        assertThat(keys()).isEmpty();
+    }
+
+    @Test
+    void rowsInsertedConcurrentlyAnswer409() {
+        Professional professional = em.find(Professional.class, professionalIds.get(0));
+        fixture.availability(professional, morning.get(0), FROM, StatusAvailability.LIBRE);
+        em.flush();
+        // Otra petición las inserta entre la consulta de existentes y el INSERT
+        doReturn(List.of()).when(availabilityRepository).findKeysInRange(any(), any(), any());
+
+        ResponseEntity<?> response = new AvailabilityController(availabilityService)
+                .createBulk(request(Set.of(professional.getId())));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private static CreateAvailabilityBulkRequest request(Set<Long> professionalIds) {
+        return CreateAvailabilityBulkRequest.builder()
+                .professionalIds(professionalIds)
+                .from(FROM).to(TO)
+                .build();
+    }
+
+    private List<AvailabilityKey> keys() {
+        return availabilityRepository.findKeysInRange(professionalIds, FROM.minusYears(1), FROM.plusYears(2));
+    }
+
+    private Professional professional(int i) {
+        return fixture.professional("Profesional" + i, "Bulk", "p" + i + "@bulk.test", null);
+    }
+}
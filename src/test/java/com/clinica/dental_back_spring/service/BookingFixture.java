@@ -0,0 +1,111 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.Role;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.*;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Altas de datos para los tests de {@link BookingJpaTest}. Va por los repositorios: dentro de
+ * la transacción del test se unen a ella, y en tests sin transacción cada alta hace commit.
+ * Slots de 30 minutos y tratamientos de 30 minutos salvo que se indique otra cosa.
+ */
+@TestComponent
+class BookingFixture {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final SlotRepository slotRepository;
+    private final PatientRepository patientRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final TreatmentRepository treatmentRepository;
+    private final UserRepository userRepository;
+    private final AppointmentOutboxRepository outboxRepository;
+
+    BookingFixture(AppointmentRepository appointmentRepository,
+                   AvailabilityRepository availabilityRepository,
+                   SlotRepository slotRepository,
+                   PatientRepository patientRepository,
+                   ProfessionalRepository professionalRepository,
+                   TreatmentRepository treatmentRepository,
+                   UserRepository userRepository,
+                   AppointmentOutboxRepository outboxRepository) {
+        this.appointmentRepository = appointmentRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.slotRepository = slotRepository;
+        this.patientRepository = patientRepository;
+        this.professionalRepository = professionalRepository;
+        this.treatmentRepository = treatmentRepository;
+        this.userRepository = userRepository;
+        this.outboxRepository = outboxRepository;
+    }
+
+    // ==========================================================
+    // ➕ ALTAS
+    // ==========================================================
+    Slot slot(LocalTime start, Period period) {
+        return slotRepository.save(Slot.builder().startTime(start).endTime(start.plusMinutes(30)).period(period).build());
+    }
+
+    Professional professional(String email) {
+        return professional("Laura", "Gómez", email, null);
+    }
+
+    Professional professional(String name, String lastName, String email, User user) {
+        return professionalRepository.save(Professional.builder()
+                .name(name).lastName(lastName).email(email).active(true).user(user).build());
+    }
+
+    User user(String email, Role role) {
+        return userRepository.save(User.builder().email(email).password("x").role(role).active(true).build());
+    }
+
+    Patient patient(String firstName, String email) {
+        return patientRepository.save(Patient.builder()
+                .firstName(firstName).lastName("Santos").email(email).active(true).build());
+    }
+
+    Treatment treatment(String name, BigDecimal price) {
+        return treatmentRepository.save(Treatment.builder()
+                .name(name).duration(30).price(price).visible(true).build());
+    }
+
+    Availability availability(Professional professional, Slot slot, LocalDate date, StatusAvailability status) {
+        return availabilityRepository.save(Availability.builder()
+                .professional(professional).slot(slot).date(date).status(status).build());
+    }
+
+    Appointment appointment(Slot slot, Patient patient, Professional professional, Treatment treatment, LocalDateTime date) {
+        return appointmentRepository.save(Appointment.builder()
+                .slot(slot).patient(patient).professional(professional).treatment(treatment)
+                .status(AppointmentStatus.PENDIENTE)
+                .date(date)
+                .duration(treatment.getDuration())
+                .createdBy(CreatedBy.ADMIN)
+                .build());
+    }
+
+    // ==========================================================
+    // 🧹 LIMPIEZA (tests sin transacción envolvente)
+    // ==========================================================
+    void deleteAll() {
+        outboxRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        treatmentRepository.deleteAll();
+        patientRepository.deleteAll();
+        // En bloque: borrar uno a uno choca con la relación inversa User.professional
+        professionalRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        slotRepository.deleteAll();
+    }
+}
@@ -0,0 +1,27 @@
+package com.clinica.dental_back_spring.service;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code @DataJpaTest} sobre H2 con el circuito de reserva completo (servicio de citas,
+ * catálogos, índice de ocupación, agenda y analítica) y {@link BookingFixture} para los datos.
+ * Cada test añade con su propio {@code @Import} lo que sea exclusivo suyo; al compartir
+ * configuración, todos reutilizan el mismo contexto de Spring.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AppointmentService.class, SlotCatalog.class, OccupancyIndex.class, AgendaCache.class,
+        ClinicAnalytics.class, TreatmentCatalog.class, BookingFixture.class})
+@interface BookingJpaTest {
+}
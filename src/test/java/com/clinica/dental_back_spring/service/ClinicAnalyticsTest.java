@@ -0,0 +1,158 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.AnalyticsSummaryDTO;
+import com.clinica.dental_back_spring.dto.CreateAppointmentRequest;
+import com.clinica.dental_back_spring.dto.TreatmentAnalyticsDTO;
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.AppointmentOutboxRepository;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
+import com.clinica.dental_back_spring.repository.AvailabilityCount;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Los contadores actualizados tras cada commit deben coincidir con una recarga completa, y una
+ * recarga no pierde los cambios que se confirman mientras se ejecuta.
+ * Sin transacción envolvente, para que cada operación haga su propio commit.
+ */
+@BookingJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClinicAnalyticsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired private ClinicAnalytics analytics;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private SlotCatalog slotCatalog;
+    @Autowired private BookingFixture fixture;
+    @Autowired private AppointmentOutboxRepository outboxRepository;
+
+    @AfterEach
+    void cleanUp() {
+        fixture.deleteAll();
+    }
+
+    @Test
+    void incrementalCountersMatchAFullRebuild() {
+        List<Slot> slots = new ArrayList<>();
+        for (int h = 9; h < 13; h++) {
+            slots.add(fixture.slot(LocalTime.of(h, 0), Period.MANANA));
+        }
+        Professional professional = fixture.professional("laura@analytics.test");
+        Patient patient = fixture.patient("Lucía", "lucia@analytics.test");
+        Treatment cleaning = fixture.treatment("Limpieza", new BigDecimal("40.00"));
+        Treatment filling = fixture.treatment("Empaste", new BigDecimal("65.00"));
+        for (Slot s : slots) {
+            fixture.availability(professional, s, DAY, StatusAvailability.LIBRE);
+        }
+        slotCatalog.refresh();
+        analytics.rebuild();
+
+        Long a = book(slots.get(0), professional, patient, cleaning);
+        Long b = book(slots.get(1), professional, patient, cleaning);
+        Long c = book(slots.get(2), professional, patient, filling);
+        appointmentService.updateStatus(a, AppointmentStatus.REALIZADA);
+        appointmentService.cancelAppointment(b, "Paciente enfermo");
+        appointmentService.updateStatus(c, AppointmentStatus.CONFIRMADA);
+
+        // 3 altas + realizada + cancelada + confirmada
+        assertThat(outboxRepository.findAll()).extracting(AppointmentOutbox::getType).containsExactly(
+                AppointmentEvent.Type.CREATED, AppointmentEvent.Type.CREATED, AppointmentEvent.Type.CREATED,
+                AppointmentEvent.Type.COMPLETED, AppointmentEvent.Type.CANCELLED, AppointmentEvent.Type.CONFIRMED);
+
+        AnalyticsSummaryDTO incremental = analytics.summary(DAY, DAY, professional.getId());
+        List<TreatmentAnalyticsDTO> incrementalByTreatment = analytics.byTreatment(DAY, DAY, null);
+        analytics.rebuild();
+        AnalyticsSummaryDTO rebuilt = analytics.summary(DAY, DAY, professional.getId());
+
+        assertThat(incremental).usingRecursiveComparison().isEqualTo(rebuilt);
+        assertThat(incrementalByTreatment).usingRecursiveComparison()
+                .isEqualTo(analytics.byTreatment(DAY, DAY, null));
+
+        assertThat(rebuilt.getAvailabilityByStatus())
+                .containsEntry("libre", 2L)
+                .containsEntry("reservado", 2L);
+        assertThat(rebuilt.getUtilisation()).isEqualTo(0.5);
+        assertThat(rebuilt.getAppointmentsByStatus())
+                .containsEntry("realizada", 1L)
+                .containsEntry("cancelada", 1L)
+                .containsEntry("confirmada", 1L);
+        assertThat(rebuilt.getCancellationRate()).isEqualTo(1.0 / 3);
+        assertThat(rebuilt.getExpectedRevenue()).isEqualByComparingTo("105.00");
+        assertThat(rebuilt.getRealizedRevenue()).isEqualByComparingTo("40.00");
+
+        assertThat(analytics.summary(DAY.plusDays(1), DAY.plusDays(30), null).getAppointmentsByStatus().values())
+                .containsOnly(0L);
+    }
+
+    @Test
+    void rangeIsSummedOnlyOverTheRequestedProfessional() {
+        Slot slot = fixture.slot(LocalTime.of(9, 0), Period.MANANA);
+        Professional laura = fixture.professional("laura@analytics.test");
+        Professional marta = fixture.professional("marta@analytics.test");
+        Patient patient = fixture.patient("Lucía", "lucia@analytics.test");
+        Treatment cleaning = fixture.treatment("Limpieza", new BigDecimal("40.00"));
+        for (int d = 0; d < 3; d++) {
+            fixture.availability(laura, slot, DAY.plusDays(d), StatusAvailability.LIBRE);
+            fixture.availability(marta, slot, DAY.plusDays(d), StatusAvailability.LIBRE);
+        }
+        slotCatalog.refresh();
+        analytics.rebuild();
+        book(slot, marta, patient, cleaning);
+
+        assertThat(analytics.summary(DAY, DAY.plusDays(2), laura.getId()).getAvailabilityByStatus())
+                .containsEntry("libre", 3L).containsEntry("reservado", 0L);
+        assertThat(analytics.summary(DAY, DAY.plusDays(2), marta.getId()).getAppointmentsByStatus())
+                .containsEntry("pendiente", 1L);
+        assertThat(analytics.summary(DAY, DAY.plusDays(2), null).getAvailabilityByStatus())
+                .containsEntry("libre", 5L).containsEntry("reservado", 1L);
+        assertThat(analytics.summary(DAY, DAY.plusDays(2), Long.MAX_VALUE).getAvailabilityByStatus().values())
+                .containsOnly(0L);
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreNotLost() {
+        AppointmentRepository appointments = mock(AppointmentRepository.class);
+        AvailabilityRepository availabilities = mock(AvailabilityRepository.class);
+        ClinicAnalytics racing = new ClinicAnalytics(appointments, availabilities, mock(TreatmentCatalog.class));
+        // Una reserva se confirma mientras corren las consultas y estas ya no la ven
+        when(appointments.countByProfessionalDayTreatmentAndStatus()).thenAnswer(invocation -> {
+            racing.appointmentBooked(1L, DAY, 2L, AppointmentStatus.PENDIENTE);
+            racing.availabilityChanged(1L, DAY, StatusAvailability.LIBRE, StatusAvailability.RESERVADO);
+            return List.of();
+        });
+        when(availabilities.countByProfessionalDayAndStatus()).thenReturn(List.of(
+                new AvailabilityCount(1L, DAY, StatusAvailability.LIBRE, 2L)));
+
+        racing.rebuild();
+
+        AnalyticsSummaryDTO summary = racing.summary(DAY, DAY, 1L);
+        assertThat(summary.getAppointmentsByStatus()).containsEntry("pendiente", 1L);
+        assertThat(summary.getAvailabilityByStatus()).containsEntry("libre", 1L).containsEntry("reservado", 1L);
+    }
+
+    private Long book(Slot slot, Professional professional, Patient patient, Treatment treatment) {
+        return appointmentService.createAppointment(CreateAppointmentRequest.builder()
+                .slotId(slot.getId()).date(DAY).professionalId(professional.getId())
+                .patientId(patient.getId()).treatmentId(treatment.getId()).createdBy(CreatedBy.ADMIN)
+                .build()).getId();
+    }
+}
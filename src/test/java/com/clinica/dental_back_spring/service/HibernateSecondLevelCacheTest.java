@@ -0,0 +1,179 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.CreateAppointmentRequest;
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.enums.Role;
+import com.clinica.dental_back_spring.enums.StatusAvailability;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import com.clinica.dental_back_spring.repository.ProfessionalRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caché de segundo nivel de tratamientos, slots y profesionales con la configuración real
+ * (Caffeine JCache): sentencias y latencia de {@code createAppointment} con la caché vacía
+ * en cada reserva (antes) y caliente (después), e id natural.
+ * Sin transacción envolvente: las entidades solo llegan a la caché al hacer commit.
+ */
+@BookingJpaTest
+@Import(EntityCacheStats.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HibernateSecondLevelCacheTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateSecondLevelCacheTest.class);
+    private static final int BOOKINGS = 200;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private SlotCatalog slotCatalog;
+    @Autowired private EntityCacheStats entityCacheStats;
+    @Autowired private BookingFixture fixture;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private ProfessionalRepository professionalRepository;
+
+    private TransactionTemplate tx;
+    private Statistics stats;
+    private Slot slot;
+    private Professional professional;
+    private Treatment treatment;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        slot = fixture.slot(LocalTime.of(9, 0), Period.MANANA);
+        User user = fixture.user("laura@cache.test", Role.ROLE_DENTISTA);
+        professional = fixture.professional("Laura", "Gómez", "laura@cache.test", user);
+        treatment = fixture.treatment("Limpieza", BigDecimal.TEN);
+        patient = fixture.patient("Lucía", "lucia@cache.test");
+
+        List<Availability> days = new ArrayList<>();
+        for (int i = 0; i < 2 * BOOKINGS; i++) {
+            days.add(Availability.builder()
+                    .professional(professional).slot(slot).date(FIRST_DAY.plusDays(i))
+                    .status(StatusAvailability.LIBRE).build());
+        }
+        availabilityRepository.saveAll(days);
+        slotCatalog.refresh();
+        emf.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        fixture.deleteAll();
+        emf.getCache().evictAll();
+    }
+
+    @Test
+    void warmCacheTakesProfessionalAndTreatmentOffTheBookingPath() {
+        // Antes: caché vacía en cada reserva, como sin caché de segundo nivel
+        Run before = book(0, BOOKINGS, true);
+        // Después: la primera reserva llena la caché y el resto la aprovecha
+        book(BOOKINGS, 1, false);
+        Run after = book(BOOKINGS + 1, BOOKINGS - 1, false);
+
+        logger.info("createAppointment x{}: antes {} sentencias y {} ms por reserva, después {} sentencias y {} ms",
+                BOOKINGS, String.format("%.2f", before.statementsPerBooking()), String.format("%.3f", before.msPerBooking()),
+                String.format("%.2f", after.statementsPerBooking()), String.format("%.3f", after.msPerBooking()));
+
+        // Profesional y tratamiento: dos lecturas menos por reserva
+        assertThat(before.statementsPerBooking() - after.statementsPerBooking()).isGreaterThanOrEqualTo(2.0);
+        assertThat(regionHits("professional")).isGreaterThan(0);
+        assertThat(regionHits("treatment")).isGreaterThan(0);
+    }
+
+    @Test
+    void naturalIdLookupIsServedFromTheCache() {
+        tx.executeWithoutResult(s -> assertThat(professionalRepository.findByEmail("laura@cache.test")).isPresent());
+
+        stats.clear();
+        Professional cached = tx.execute(s -> professionalRepository.findByEmail("laura@cache.test").orElseThrow());
+
+        assertThat(cached.getId()).isEqualTo(professional.getId());
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(stats.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statsExposeEveryConfiguredRegion() {
+        book(0, 1, false);
+
+        Map<String, Object> result = entityCacheStats.stats();
+        Map<String, Object> regions = (Map<String, Object>) result.get("regions");
+
+        assertThat(result.get("statisticsEnabled")).isEqualTo(true);
+        assertThat(regions).containsKeys("treatment", "slot", "professional", "professional-natural-id");
+        assertThat((Map<String, Object>) regions.get("professional")).containsKeys("hits", "misses", "puts", "hitRate");
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private Run book(int firstDay, int count, boolean evictEachTime) {
+        long statements = 0;
+        long nanos = 0;
+        for (int i = 0; i < count; i++) {
+            if (evictEachTime) {
+                emf.getCache().evictAll();
+            }
+            stats.clear();
+            long start = System.nanoTime();
+            appointmentService.createAppointment(CreateAppointmentRequest.builder()
+                    .slotId(slot.getId())
+                    .date(FIRST_DAY.plusDays(firstDay + i))
+                    .professionalId(professional.getId())
+                    .patientId(patient.getId())
+                    .treatmentId(treatment.getId())
+                    .createdBy(CreatedBy.ADMIN)
+                    .build());
+            nanos += System.nanoTime() - start;
+            statements += stats.getPrepareStatementCount();
+        }
+        return new Run(count, statements, nanos);
+    }
+
+    private long regionHits(String region) {
+        return stats.getCacheRegionStatistics(region).getHitCount();
+    }
+
+    private record Run(int bookings, long statements, long nanos) {
+
+        double statementsPerBooking() {
+            return (double) statements / bookings;
+        }
+
+        double msPerBooking() {
+            return nanos / 1_000_000.0 / bookings;
+        }
+    }
+}
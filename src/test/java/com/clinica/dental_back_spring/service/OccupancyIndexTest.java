@@ -0,0 +1,175 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.FreeSlotDTO;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.repository.AvailabilityKey;
+import com.clinica.dental_back_spring.repository.AvailabilityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Índice de ocupación sin BD: repositorio y catálogo simulados.
+ * Slots: 9:00, 9:30, 10:00 seguidos; pausa; 11:00, 11:30.
+ */
+class OccupancyIndexTest {
+
+    private static final Long PROFESSIONAL = 7L;
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private static final List<SlotCatalog.SlotInfo> SLOTS = List.of(
+            slot(1L, 9, 0), slot(2L, 9, 30), slot(3L, 10, 0), slot(4L, 11, 0), slot(5L, 11, 30));
+
+    private final AvailabilityRepository availabilityRepository = mock(AvailabilityRepository.class);
+    private final SlotCatalog slotCatalog = mock(SlotCatalog.class);
+    private OccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(slotCatalog.all()).thenReturn(SLOTS);
+        when(slotCatalog.version()).thenReturn(1L);
+        for (int i = 0; i < SLOTS.size(); i++) {
+            when(slotCatalog.position(SLOTS.get(i).id())).thenReturn(i);
+        }
+        index = new OccupancyIndex(availabilityRepository, slotCatalog, 30);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ==========================================================
+    // 🔍 collectRuns
+    // ==========================================================
+    @Test
+    void runsOnlyCoverConsecutiveSlotsWithoutTimeGaps() {
+        // Todos libres, 60 min: 10:00 no enlaza con 11:00 y 11:30 es el último
+        assertThat(runs(0b11111, 60)).extracting(FreeSlotDTO::getStartTime, FreeSlotDTO::getEndTime, FreeSlotDTO::getSlotIds)
+                .containsExactly(
+                        tuple(LocalTime.of(9, 0), LocalTime.of(10, 0), List.of(1L, 2L)),
+                        tuple(LocalTime.of(9, 30), LocalTime.of(10, 30), List.of(2L, 3L)),
+                        tuple(LocalTime.of(11, 0), LocalTime.of(12, 0), List.of(4L, 5L)));
+    }
+
+    @Test
+    void occupiedSlotBreaksTheRun() {
+        // 9:30 ocupado: 9:00 queda sola y 10:00 choca con la pausa
+        assertThat(runs(0b11101, 60)).extracting(FreeSlotDTO::getSlotId).containsExactly(4L);
+    }
+
+    @Test
+    void partialRunsShorterThanTheTreatmentAreDropped() {
+        assertThat(runs(0b11111, 90)).extracting(FreeSlotDTO::getSlotIds).containsExactly(List.of(1L, 2L, 3L));
+        assertThat(runs(0b00110, 90)).isEmpty();
+    }
+
+    @Test
+    void treatmentThatFitsOneSlotYieldsEveryFreeSlot() {
+        assertThat(runs(0b10101, 30)).extracting(FreeSlotDTO::getSlotId).containsExactly(1L, 3L, 5L);
+    }
+
+    // ==========================================================
+    // 🔁 Cambios tras el commit
+    // ==========================================================
+    @Test
+    void markBusyAndMarkFreeApplyOnlyAfterCommit() {
+        loadFree(1L, 2L);
+        assertThat(search()).extracting(FreeSlotDTO::getSlotId).containsExactly(1L, 2L);
+
+        List<TransactionSynchronization> pending = inTransaction(() -> {
+            index.markBusy(PROFESSIONAL, DAY, 1L);
+            index.markFree(PROFESSIONAL, DAY, 4L);
+        });
+        assertThat(search()).extracting(FreeSlotDTO::getSlotId).containsExactly(1L, 2L);
+
+        pending.forEach(TransactionSynchronization::afterCommit);
+        assertThat(search()).extracting(FreeSlotDTO::getSlotId).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void rolledBackChangesLeaveTheIndexUntouched() {
+        loadFree(1L, 2L);
+        search();
+
+        List<TransactionSynchronization> pending = inTransaction(() -> index.markBusy(PROFESSIONAL, DAY, 1L));
+        pending.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(search()).extracting(FreeSlotDTO::getSlotId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void searchesDuringARebuildKeepServingThePreviousIndex() throws Exception {
+        loadFree(1L, 2L);
+        search();
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(availabilityRepository.findFreeKeysInRange(any(), any())).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new AvailabilityKey(PROFESSIONAL, DAY, 5L));
+        });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Mientras carga, el índice anterior sigue completo
+        assertThat(search()).extracting(FreeSlotDTO::getSlotId).containsExactly(1L, 2L);
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        assertThat(search()).extracting(FreeSlotDTO::getSlotId).containsExactly(5L);
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private static List<FreeSlotDTO> runs(long mask, int durationMinutes) {
+        List<FreeSlotDTO> out = new ArrayList<>();
+        OccupancyIndex.collectRuns(PROFESSIONAL, DAY, mask, SLOTS, durationMinutes, out);
+        return out;
+    }
+
+    private void loadFree(Long... slotIds) {
+        List<AvailabilityKey> keys = new ArrayList<>();
+        for (Long slotId : slotIds) {
+            keys.add(new AvailabilityKey(PROFESSIONAL, DAY, slotId));
+        }
+        when(availabilityRepository.findFreeKeysInRange(any(), any())).thenReturn(keys);
+    }
+
+    private List<FreeSlotDTO> search() {
+        return index.search(30, DAY, DAY, null, 10);
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        work.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private static SlotCatalog.SlotInfo slot(Long id, int hour, int minute) {
+        LocalTime start = LocalTime.of(hour, minute);
+        return new SlotCatalog.SlotInfo(id, start, start.plusMinutes(30), hour < 14 ? Period.MANANA : Period.TARDE);
+    }
+}
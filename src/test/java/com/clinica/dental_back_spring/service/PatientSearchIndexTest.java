@@ -0,0 +1,138 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.Patient;
+import com.clinica.dental_back_spring.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PatientSearchIndex.class)
+class PatientSearchIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchIndexTest.class);
+
+    private static final int PATIENTS = 3000;
+    private static final String[] FIRST_NAMES = {"Lucía", "Laura", "Andrés", "José", "María", "Íñigo", "Carmen", "Raúl"};
+    private static final String[] LAST_NAMES = {"Gómez", "Santos", "Martínez", "López", "Sánchez", "Peña", "Ortega"};
+
+    // Búsqueda SQL que sustituyó el índice: referencia de resultados y de tiempos
+    private static final String SQL_SEARCH = "SELECT p FROM Patient p WHERE "
+            + "LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%')) "
+            + "OR LOWER(p.lastName) LIKE LOWER(CONCAT('%', :query, '%')) "
+            + "OR LOWER(p.nif) LIKE LOWER(CONCAT('%', :query, '%'))";
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PATIENTS; i++) {
+            em.persist(Patient.builder()
+                    .firstName(FIRST_NAMES[i % FIRST_NAMES.length])
+                    .lastName(LAST_NAMES[i % LAST_NAMES.length] + " " + LAST_NAMES[(i / 7) % LAST_NAMES.length])
+                    .nif(String.format("%08d%c", i, (char) ('A' + i % 23)))
+                    .email("p" + i + "@test.com")
+                    .active(true)
+                    .build());
+        }
+        em.persist(Patient.builder()
+                .firstName("Lucía").lastName("Inactiva").nif("99999999Z").email("baja@test.com").active(false).build());
+        em.flush();
+        em.clear();
+        index.rebuild();
+    }
+
+    @Test
+    void findsEverythingTheSqlSearchFinds() {
+        for (String q : List.of("santos", "ort", "00012", "lucía", "LAURA")) {
+            Set<Long> sql = sqlSearch(q).stream()
+                    .filter(Patient::isActive)
+                    .map(Patient::getId)
+                    .collect(Collectors.toSet());
+            PatientSearchIndex.Result result = index.search(q, 0, PATIENTS);
+
+            assertThat(result.ids()).as(q).containsAll(sql);
+            assertThat(result.total()).as(q).isEqualTo(result.ids().size());
+        }
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        assertThat(index.search("gomez", 0, PATIENTS).total())
+                .isEqualTo(index.search("GÓMEZ", 0, PATIENTS).total())
+                .isPositive();
+        assertThat(index.search("inigo", 0, 1).total()).isPositive();
+    }
+
+    @Test
+    void requiresEveryWordAndSkipsInactivePatients() {
+        PatientSearchIndex.Result both = index.search("lucia santos", 0, PATIENTS);
+        PatientSearchIndex.Result lucia = index.search("lucia", 0, PATIENTS);
+
+        assertThat(both.total()).isPositive().isLessThan(lucia.total());
+        assertThat(index.search("inactiva", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void ranksExactWordsBeforePrefixesAndPaginates() {
+        em.persist(Patient.builder()
+                .firstName("Santo").lastName("Ruiz").nif("88888888X").email("santo@test.com").active(true).build());
+        em.flush();
+        index.rebuild();
+
+        PatientSearchIndex.Result page0 = index.search("santo", 0, 1);
+        PatientSearchIndex.Result page1 = index.search("santo", 1, 1);
+
+        assertThat(page0.ids()).hasSize(1);
+        assertThat(patientRepository.findById(page0.ids().get(0)).orElseThrow().getFirstName()).isEqualTo("Santo");
+        assertThat(page1.ids()).hasSize(1).doesNotContainAnyElementsOf(page0.ids());
+    }
+
+    @Test
+    void comparedWithTheSqlPath() {
+        int rounds = 50;
+        long sqlNanos = time(rounds, () -> sqlSearch("mart"));
+        long indexNanos = time(rounds, () -> index.search("mart", 0, 20));
+
+        logger.info("Búsqueda de pacientes ({} filas, {} rondas): SQL {} µs/consulta, índice {} µs/consulta",
+                PATIENTS, rounds, sqlNanos / rounds / 1_000, indexNanos / rounds / 1_000);
+        assertThat(index.search("mart", 0, 20).ids()).hasSize(20);
+    }
+
+    private List<Patient> sqlSearch(String query) {
+        return em.getEntityManager().createQuery(SQL_SEARCH, Patient.class)
+                .setParameter("query", query)
+                .getResultList();
+    }
+
+    private static long time(int rounds, Runnable query) {
+        query.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            query.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
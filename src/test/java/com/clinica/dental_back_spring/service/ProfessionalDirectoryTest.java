@@ -0,0 +1,63 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.ProfessionalDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfessionalDirectoryTest {
+
+    private final ProfessionalDirectory directory = new ProfessionalDirectory();
+
+    @BeforeEach
+    void setUp() {
+        directory.load(List.of(
+                professional(1L, "Laura", "Gómez Ruiz", "COL-100", "laura@clinica.com", "600 123 456", true),
+                professional(2L, "Andrés", "Álvarez", "COL-200", "andres@clinica.com", "611222333", true),
+                professional(3L, "Lucía", "Gómez", "COL-300", "lucia@clinica.com", "622333444", false),
+                professional(4L, "Raúl", "Martín", "COL-101", "raul@clinica.com", "633444555", true)
+        ));
+    }
+
+    @Test
+    void listsEachPartitionSortedByLastNameAndName() {
+        assertThat(ids(directory.list(true))).containsExactly(2L, 1L, 4L);
+        assertThat(ids(directory.list(false))).containsExactly(3L);
+        assertThat(ids(directory.list(null))).containsExactly(2L, 3L, 1L, 4L);
+    }
+
+    @Test
+    void matchesPrefixesOfEveryFieldIgnoringAccents() {
+        assertThat(ids(directory.search("gomez", true))).containsExactly(1L);
+        assertThat(ids(directory.search("ruiz", true))).containsExactly(1L);
+        assertThat(ids(directory.search("alv", true))).containsExactly(2L);
+        assertThat(ids(directory.search("col-10", true))).containsExactly(1L, 4L);
+        assertThat(ids(directory.search("raul@", true))).containsExactly(4L);
+        assertThat(ids(directory.search("600 12", true))).containsExactly(1L);
+        assertThat(ids(directory.search("gómez", false))).containsExactly(3L);
+        assertThat(directory.search("mez", true)).isEmpty();
+    }
+
+    @Test
+    void movesProfessionalsBetweenPartitionsOnUpdate() {
+        directory.put(professional(1L, "Laura", "Gómez Ruiz", "COL-100", "laura@clinica.com", "600 123 456", false));
+
+        assertThat(ids(directory.list(true))).containsExactly(2L, 4L);
+        assertThat(ids(directory.search("gomez", false))).containsExactly(3L, 1L);
+    }
+
+    private static ProfessionalDTO professional(Long id, String name, String lastName, String license,
+                                                String email, String phone, boolean active) {
+        return ProfessionalDTO.builder()
+                .id(id).name(name).lastName(lastName).license(license)
+                .email(email).phone(phone).active(active)
+                .build();
+    }
+
+    private static List<Long> ids(List<ProfessionalDTO> professionals) {
+        return professionals.stream().map(ProfessionalDTO::getId).toList();
+    }
+}
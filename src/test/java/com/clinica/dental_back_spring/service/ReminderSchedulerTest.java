@@ -0,0 +1,175 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.*;
+import com.clinica.dental_back_spring.enums.AppointmentStatus;
+import com.clinica.dental_back_spring.enums.CreatedBy;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.repository.AppointmentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReminderSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private AppointmentRepository appointmentRepository;
+
+    private final List<Reminder> sent = new CopyOnWriteArrayList<>();
+    private ReminderScheduler scheduler;
+
+    private Slot slot;
+    private Patient patient;
+    private Professional professional;
+    private Treatment treatment;
+
+    @BeforeEach
+    void setUp() {
+        slot = em.persist(Slot.builder()
+                .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(9, 30)).period(Period.MANANA).build());
+        patient = em.persist(Patient.builder()
+                .firstName("Lucía").lastName("Santos").email("lucia@reminder.test").active(true).build());
+        professional = em.persist(Professional.builder()
+                .name("Laura").lastName("Gómez").email("laura@reminder.test").active(true).build());
+        treatment = em.persist(Treatment.builder()
+                .name("Limpieza").duration(30).price(BigDecimal.TEN).visible(true).build());
+
+        scheduler = scheduler(sent);
+    }
+
+    @Test
+    void catchUpLoadsUpcomingAppointmentsWithOneQueryAndFiresOnTime() {
+        Long tomorrow = appointment(NOW.plusHours(30), AppointmentStatus.CONFIRMADA);
+        Long soon = appointment(NOW.plusHours(3), AppointmentStatus.PENDIENTE);
+        Long justMissed = appointment(NOW.plusHours(2).minusMinutes(5), AppointmentStatus.PENDIENTE);
+        appointment(NOW.plusHours(5), AppointmentStatus.CANCELADA);
+        appointment(NOW.minusHours(1), AppointmentStatus.CONFIRMADA);
+        em.flush();
+        em.clear();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        assertThat(scheduler.load(millis(NOW))).isEqualTo(3);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+
+        // 2 h antes que se pasó hace 5 min (dentro del margen): sale en el primer tick
+        scheduler.fire(millis(NOW));
+        assertThat(sent).extracting(Reminder::appointmentId, Reminder::kind)
+                .containsExactly(tuple(justMissed, Reminder.Kind.TWO_HOURS_BEFORE));
+
+        sent.clear();
+        scheduler.fire(millis(NOW.plusHours(1).plusMinutes(1)));
+        assertThat(sent).extracting(Reminder::appointmentId).containsExactly(soon);
+
+        sent.clear();
+        scheduler.fire(millis(NOW.plusHours(6).plusMinutes(1)));
+        assertThat(sent).extracting(Reminder::appointmentId, Reminder::kind)
+                .containsExactly(tuple(tomorrow, Reminder.Kind.DAY_BEFORE));
+        assertThat(scheduler.scheduled()).isEqualTo(1);
+    }
+
+    @Test
+    void followsBookingsAndCancellations() {
+        scheduler.load(millis(NOW));
+        LocalDateTime date = NOW.plusDays(3);
+
+        scheduler.apply(List.of(event(AppointmentEvent.Type.CREATED, 7L, date, null, AppointmentStatus.PENDIENTE)), millis(NOW));
+        assertThat(scheduler.scheduled()).isEqualTo(2);
+
+        // Repetido (entrega al menos una vez): no duplica
+        scheduler.apply(List.of(event(AppointmentEvent.Type.CREATED, 7L, date, null, AppointmentStatus.PENDIENTE)), millis(NOW));
+        assertThat(scheduler.scheduled()).isEqualTo(2);
+
+        scheduler.apply(List.of(event(AppointmentEvent.Type.CANCELLED, 7L, date,
+                AppointmentStatus.PENDIENTE, AppointmentStatus.CANCELADA)), millis(NOW));
+        assertThat(scheduler.scheduled()).isZero();
+
+        scheduler.fire(millis(date));
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void appointmentCancelledOnAnotherNodeIsNotReminded() {
+        Long id = appointment(NOW.plusHours(3), AppointmentStatus.PENDIENTE);
+        em.flush();
+        em.clear();
+        scheduler.load(millis(NOW));
+
+        // El evento de cancelación lo recibió otro nodo: aquí solo cambia la BD
+        em.find(Appointment.class, id).setStatus(AppointmentStatus.CANCELADA);
+        em.flush();
+
+        scheduler.fire(millis(NOW.plusHours(1).plusMinutes(1)));
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void eachReminderIsSentByASingleNode() {
+        Long id = appointment(NOW.plusHours(30), AppointmentStatus.CONFIRMADA);
+        em.flush();
+        em.clear();
+        List<Reminder> otherNode = new CopyOnWriteArrayList<>();
+        ReminderScheduler other = scheduler(otherNode);
+        scheduler.load(millis(NOW));
+        other.load(millis(NOW));
+
+        for (LocalDateTime t = NOW; t.isBefore(NOW.plusHours(30)); t = t.plusMinutes(30)) {
+            scheduler.fire(millis(t));
+            other.fire(millis(t));
+        }
+
+        assertThat(sent.size() + otherNode.size()).isEqualTo(2);
+        assertThat(sent).extracting(Reminder::kind).containsExactly(Reminder.Kind.DAY_BEFORE, Reminder.Kind.TWO_HOURS_BEFORE);
+        em.clear();
+        assertThat(em.find(Appointment.class, id).getTwoHoursReminderSentAt()).isNotNull();
+    }
+
+    private ReminderScheduler scheduler(List<Reminder> sink) {
+        ReminderSender capture = sink::add;
+        return new ReminderScheduler(appointmentRepository,
+                new StaticListableBeanFactory(Map.of("capture", capture)).getBeanProvider(ReminderSender.class),
+                60_000, 10);
+    }
+
+    private Long appointment(LocalDateTime date, AppointmentStatus status) {
+        return em.persist(Appointment.builder()
+                .slot(slot).patient(patient).professional(professional).treatment(treatment)
+                .status(status).date(date).duration(30).createdBy(CreatedBy.ADMIN)
+                .build()).getId();
+    }
+
+    private AppointmentEvent event(AppointmentEvent.Type type, Long id, LocalDateTime date,
+                                   AppointmentStatus previous, AppointmentStatus status) {
+        return new AppointmentEvent(type, id, professional.getId(), patient.getId(), treatment.getId(),
+                date, previous, status, Instant.now());
+    }
+
+    private static long millis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
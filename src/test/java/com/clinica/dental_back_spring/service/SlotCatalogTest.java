@@ -0,0 +1,110 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.Slot;
+import com.clinica.dental_back_spring.enums.Period;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SlotCatalog.class)
+class SlotCatalogTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private SlotCatalog catalog;
+
+    private Long tenId;
+    private Long nineId;
+    private Long fourId;
+
+    @BeforeEach
+    void setUp() {
+        // Altas desordenadas: el catálogo ordena por hora de inicio
+        tenId = slot(LocalTime.of(10, 0), Period.MANANA).getId();
+        fourId = slot(LocalTime.of(16, 0), Period.TARDE).getId();
+        nineId = slot(LocalTime.of(9, 0), Period.MANANA).getId();
+        em.flush();
+        catalog.refresh();
+    }
+
+    @Test
+    void looksUpSlotsByIdWithoutQueries() {
+        Statistics stats = statistics();
+
+        SlotCatalog.SlotInfo ten = catalog.get(tenId);
+
+        assertThat(ten.startTime()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(ten.endTime()).isEqualTo(LocalTime.of(10, 30));
+        assertThat(ten.period()).isEqualTo(Period.MANANA);
+        assertThat(catalog.position(nineId)).isZero();
+        assertThat(catalog.position(fourId)).isEqualTo(2);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void listsSlotsByPeriodInStartTimeOrder() {
+        assertThat(catalog.all()).extracting(SlotCatalog.SlotInfo::id).containsExactly(nineId, tenId, fourId);
+        assertThat(catalog.byPeriod(Period.MANANA)).extracting(SlotCatalog.SlotInfo::id).containsExactly(nineId, tenId);
+        assertThat(catalog.byPeriod(Period.TARDE)).extracting(SlotCatalog.SlotInfo::id).containsExactly(fourId);
+    }
+
+    @Test
+    void unknownIdFailsWithoutReloading() {
+        Long created = slot(LocalTime.of(11, 0), Period.MANANA).getId();
+        em.flush();
+        Statistics stats = statistics();
+
+        assertThatThrownBy(() -> catalog.get(created)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalog.get(-1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+        assertThat(catalog.position(created)).isEqualTo(-1);
+    }
+
+    @Test
+    void refreshBumpsTheVersionOnlyWhenSlotsChange() {
+        long version = catalog.version();
+
+        catalog.refresh();
+        assertThat(catalog.version()).isEqualTo(version);
+
+        Long eleven = slot(LocalTime.of(11, 0), Period.MANANA).getId();
+        em.flush();
+        catalog.refresh();
+
+        assertThat(catalog.version()).isEqualTo(version + 1);
+        assertThat(catalog.get(eleven).startTime()).isEqualTo(LocalTime.of(11, 0));
+        assertThat(catalog.byPeriod(Period.MANANA)).extracting(SlotCatalog.SlotInfo::id)
+                .containsExactly(nineId, tenId, eleven);
+    }
+
+    private Slot slot(LocalTime start, Period period) {
+        return em.persist(Slot.builder().startTime(start).endTime(start.plusMinutes(30)).period(period).build());
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
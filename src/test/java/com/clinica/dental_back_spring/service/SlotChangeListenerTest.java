@@ -0,0 +1,64 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.entity.Slot;
+import com.clinica.dental_back_spring.enums.Period;
+import com.clinica.dental_back_spring.repository.SlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Altas, cambios y bajas de slots con JPA recargan el catálogo tras el commit, sin
+ * {@code POST /slots/refresh}; un rollback no lo toca.
+ * Sin transacción envolvente, para que cada operación haga su propio commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SlotCatalog.class, SlotChangeListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlotChangeListenerTest {
+
+    @Autowired private SlotRepository slotRepository;
+    @Autowired private SlotCatalog catalog;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void slotChangesReachTheCatalogAfterCommit() {
+        Slot slot = slotRepository.save(Slot.builder()
+                .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(9, 30)).period(Period.MANANA).build());
+        assertThat(catalog.get(slot.getId()).startTime()).isEqualTo(LocalTime.of(9, 0));
+
+        slot.setStartTime(LocalTime.of(8, 30));
+        slotRepository.save(slot);
+        assertThat(catalog.get(slot.getId()).startTime()).isEqualTo(LocalTime.of(8, 30));
+
+        slotRepository.delete(slot);
+        assertThatThrownBy(() -> catalog.get(slot.getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rolledBackSlotNeverReachesTheCatalog() {
+        long version = catalog.version();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            slotRepository.saveAndFlush(Slot.builder()
+                    .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(9, 30)).period(Period.MANANA).build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalog.version()).isEqualTo(version);
+    }
+}
@@ -0,0 +1,59 @@
+package com.clinica.dental_back_spring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final long START = 1_700_000_123_456L;
+
+    @Test
+    void firesEveryEntryWithinOneTickOfItsDeadlineAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 8, START);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        // Hasta ~3 días con 8 casillas de 1 s: varios niveles de desbordamiento
+        for (long id = 0; id < 5_000; id++) {
+            long deadline = START + 2 * TICK + (long) (random.nextDouble() * 3 * 24 * 3600 * TICK);
+            deadlines.put(id, deadline);
+            assertThat(wheel.schedule(deadline, id)).isNotNull();
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = START; firedAt.size() < deadlines.size(); now += 7 * TICK) {
+            long at = now;
+            wheel.advance(now, id -> assertThat(firedAt.put(id, at)).isNull());
+        }
+
+        deadlines.forEach((id, deadline) -> {
+            long at = firedAt.get(id);
+            assertThat(at).as("id %d", id).isGreaterThanOrEqualTo(deadline - TICK);
+            assertThat(at).as("id %d", id).isLessThan(deadline + 7 * TICK + TICK);
+        });
+    }
+
+    @Test
+    void skipsCancelledEntriesAndReportsOverdueOnes() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, START);
+        TimingWheel.Entry<String> kept = wheel.schedule(START + 60 * TICK, "kept");
+        TimingWheel.Entry<String> cancelled = wheel.schedule(START + 60 * TICK, "cancelled");
+        cancelled.cancel();
+
+        assertThat(wheel.schedule(START - TICK, "overdue")).isNull();
+        assertThat(kept).isNotNull();
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 59 * TICK - 1, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advance(START + 61 * TICK, fired::add);
+        assertThat(fired).containsExactly("kept");
+    }
+}
@@ -0,0 +1,102 @@
+package com.clinica.dental_back_spring.service;
+
+import com.clinica.dental_back_spring.dto.UpdateTreatmentRequest;
+import com.clinica.dental_back_spring.entity.Treatment;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TreatmentService.class, TreatmentCatalog.class, AgendaCache.class})
+class TreatmentCatalogTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TreatmentService treatmentService;
+
+    @Autowired
+    private TreatmentCatalog catalog;
+
+    private Long limpiezaId;
+
+    @BeforeEach
+    void setUp() {
+        limpiezaId = em.persist(Treatment.builder()
+                .name("Limpieza").duration(30).price(BigDecimal.valueOf(40)).visible(true).build()).getId();
+        em.persist(Treatment.builder()
+                .name("Implante").duration(90).price(BigDecimal.valueOf(900)).visible(false).build());
+        em.flush();
+        em.clear();
+        catalog.clear();
+    }
+
+    @Test
+    void servesBothViewsFromMemoryAfterTheFirstLoad() {
+        treatmentService.findAll(null, false);
+        Statistics stats = statistics();
+
+        TreatmentCatalog.View all = treatmentService.findAll(null, false);
+        TreatmentCatalog.View visible = treatmentService.findAll(null, true);
+
+        assertThat(all.items()).hasSize(2);
+        assertThat(visible.items()).extracting("name").containsExactly("Limpieza");
+        assertThat(treatmentService.findAll("impl", false).items()).extracting("name").containsExactly("Implante");
+        assertThat(treatmentService.findById(limpiezaId).getDuration()).isEqualTo(30);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void etagIsStableUntilTheCatalogueChanges() {
+        String before = treatmentService.findAll(null, true).etag();
+        catalog.clear();
+        assertThat(treatmentService.findAll(null, true).etag()).isEqualTo(before).startsWith("\"");
+
+        UpdateTreatmentRequest req = new UpdateTreatmentRequest();
+        req.setPrice(BigDecimal.valueOf(45));
+        treatmentService.update(limpiezaId, req);
+        // El test no hace commit: aplicamos a mano la invalidación del afterCommit
+        catalog.clear();
+
+        assertThat(treatmentService.findAll(null, true).etag()).isNotEqualTo(before);
+        assertThat(treatmentService.findAll(null, false).etag()).isNotEqualTo(treatmentService.findAll(null, true).etag());
+    }
+
+    @Test
+    void unknownIdFailsWithoutReloadingTheCatalogue() {
+        treatmentService.findAll(null, false);
+        long version = catalog.version();
+        Statistics stats = statistics();
+
+        assertThatThrownBy(() -> treatmentService.findById(-1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalog.get(-1L)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(catalog.version()).isEqualTo(version);
+        assertThat(stats.getPrepareStatementCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,142 @@
+package com.clinica.dental_back_spring.tracing;
+
+import com.clinica.dental_back_spring.repository.TreatmentRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Traza de peticiones con el {@link SqlTimingListener} real registrado en Hibernate:
+ * muestreo, peticiones lentas con el detalle de sus sentencias, peticiones asíncronas y errores.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ExtendWith(OutputCaptureExtension.class)
+class RequestTraceFilterTest {
+
+    private static final long NEVER_SLOW_MS = 60_000;
+
+    @Autowired private TreatmentRepository treatmentRepository;
+
+    @Test
+    void unsampledFastRequestWritesNothing(CapturedOutput output) throws Exception {
+        run(new RequestTraceFilter(0.0, NEVER_SLOW_MS, 50), "/treatments/count", this::countTreatments);
+
+        assertThat(output).doesNotContain("path=/treatments/count");
+    }
+
+    @Test
+    void sampledRequestWritesOneCompactLineWithoutStatements(CapturedOutput output) throws Exception {
+        run(new RequestTraceFilter(1.0, NEVER_SLOW_MS, 50), "/treatments/count", (req, res) -> {
+            RequestTrace.current().setUserId(42L);
+            countTreatments(req, res);
+            countTreatments(req, res);
+        });
+
+        assertThat(output).contains("method=GET path=/treatments/count status=200 ms=")
+                .contains(" user=42 sql=2 sqlMs=")
+                .doesNotContain("statements=[");
+    }
+
+    @Test
+    void slowRequestAlwaysWritesItsStatementTimings(CapturedOutput output) throws Exception {
+        run(new RequestTraceFilter(0.0, 0, 50), "/treatments/count", this::countTreatments);
+
+        assertThat(output).contains("path=/treatments/count status=200")
+                .contains(" user=- sql=1 ")
+                .contains(" slow=true statements=[")
+                .containsPattern("\\d+\\.\\dms select count\\(");
+    }
+
+    @Test
+    void statementDetailIsCappedButEveryStatementIsCounted(CapturedOutput output) throws Exception {
+        run(new RequestTraceFilter(0.0, 0, 1), "/treatments/count", (req, res) -> {
+            for (int i = 0; i < 3; i++) {
+                countTreatments(req, res);
+            }
+        });
+
+        assertThat(output).contains(" sql=3 ").contains(" statementsOmitted=2");
+    }
+
+    @Test
+    void asyncSqlIsCountedWhenTheRequestCompletes(CapturedOutput output) throws Exception {
+        RequestTraceTaskDecorator decorator = new RequestTraceTaskDecorator();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/appointments/export");
+        request.setAsyncSupported(true);
+        AtomicReference<Runnable> export = new AtomicReference<>();
+        AtomicReference<RequestTrace> afterExport = new AtomicReference<>();
+
+        // Como StreamingResponseBody: el hilo de la petición encola la tarea y sale
+        new RequestTraceFilter(1.0, NEVER_SLOW_MS, 50).doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.startAsync();
+            export.set(decorator.decorate(() -> {
+                countTreatments(req, res);
+                countTreatments(req, res);
+            }));
+        });
+        assertThat(output).doesNotContain("path=/appointments/export");
+
+        Thread worker = new Thread(() -> {
+            export.get().run();
+            afterExport.set(RequestTrace.current());
+        });
+        worker.start();
+        worker.join();
+        request.getAsyncContext().complete();
+
+        assertThat(output).contains("path=/appointments/export status=200").contains(" sql=2 ");
+        assertThat(afterExport.get()).isNull();
+    }
+
+    @Test
+    void tasksOutsideARequestAreNotDecorated() {
+        Runnable task = () -> { };
+
+        assertThat(new RequestTraceTaskDecorator().decorate(task)).isSameAs(task);
+    }
+
+    @Test
+    void failedRequestIsAlwaysWrittenAsServerError(CapturedOutput output) {
+        RequestTraceFilter filter = new RequestTraceFilter(0.0, NEVER_SLOW_MS, 50);
+
+        assertThatThrownBy(() -> run(filter, "/boom", (req, res) -> {
+            throw new IllegalStateException("boom");
+        })).hasMessage("boom");
+        assertThat(output).contains("path=/boom status=500");
+        assertThat(RequestTrace.current()).isNull();
+    }
+
+    @Test
+    void sampleRateOutsideZeroToOneIsRejected() {
+        assertThatThrownBy(() -> new RequestTraceFilter(1.5, NEVER_SLOW_MS, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ==========================================================
+    // 🧩 Auxiliares
+    // ==========================================================
+    private void countTreatments(ServletRequest req, ServletResponse res) {
+        treatmentRepository.count();
+    }
+
+    private static void run(RequestTraceFilter filter, String uri, FilterChain chain) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse(), chain);
+    }
+}